@@ -6,6 +6,7 @@ import uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing.gui.FileFormaterGui;
 import uk.ac.ebi.intact.psi.mi.xmlmaker.jami.gui.SavingOptionsGui;
 import uk.ac.ebi.intact.psi.mi.xmlmaker.jami.gui.InteractionsCreatorGui;
 import uk.ac.ebi.intact.psi.mi.xmlmaker.uniprot.mapping.UniprotMapperGui;
+import uk.ac.ebi.intact.psi.mi.xmlmaker.utils.FileUtils;
 import uk.ac.ebi.intact.psi.mi.xmlmaker.utils.VersionUtils;
 
 import javax.swing.*;
@@ -254,7 +255,8 @@ public class XmlMakerGui {
     public void processFile(File file) {
         String filePath = file.getAbsolutePath();
         if (!isValidFileType(filePath)) {
-            showErrorDialog("Unsupported file type. Please provide a valid file (.xls, .xlsx, .csv, or .tsv).");
+            showErrorDialog("Unsupported file type. Please provide a valid file (.xls, .xlsx, .csv, or .tsv). "
+                    + ".csv and .tsv files can be compressed with gzip (.gz), zstd (.zst) or xz (.xz).");
             return;
         }
         fileReader.selectFileOpener(filePath);
@@ -262,13 +264,16 @@ public class XmlMakerGui {
     }
 
     /**
-     * Validates the file type based on its extension.
+     * Validates the file type based on its extension. CSV and TSV files may be compressed (e.g., "data.tsv.gz").
      *
      * @param filePath The path of the file to validate.
      * @return True if the file type is valid; false otherwise.
      */
     private boolean isValidFileType(String filePath) {
-        String fileExtension = filePath.substring(filePath.lastIndexOf(".") + 1).toLowerCase();
+        String fileExtension = FileUtils.getFileExtension(filePath);
+        if (FileUtils.isCompressed(filePath)) {
+            return fileExtension.equals("csv") || fileExtension.equals("tsv");
+        }
         return fileExtension.equals("xls") || fileExtension.equals("xlsx") || fileExtension.equals("csv") || fileExtension.equals("tsv");
     }
 
@@ -0,0 +1,298 @@
+package uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing;
+
+import lombok.Getter;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The {@code BaitGroupingIterator} class reorders the rows of an input file so that all the rows
+ * of a bait are consecutive, whatever their position in the file. Each row keeps its original row index.
+ *
+ * <p>The baits come in the order of their first row, and the rows of a bait in the order of the file, so a file
+ * whose baits are already consecutive keeps its order. Each bait is numbered when it is first seen, and the rows
+ * are sorted on this number. They are sorted in memory as long as the file has at most {@code rowLimit} rows.
+ * Larger files are sorted on disk instead: the rows are written in sorted runs of {@code rowLimit} rows to temporary
+ * files, which are then merged. Only the numbers of the distinct baits are then kept in memory.</p>
+ */
+public class BaitGroupingIterator implements Iterator<BaitGroupingIterator.IndexedRow>, Closeable {
+
+    private static final Logger LOGGER = Logger.getLogger(BaitGroupingIterator.class.getName());
+    private static final Comparator<IndexedRow> BAIT_ORDER = Comparator.comparingInt(IndexedRow::getBaitOrder)
+            .thenComparingInt(IndexedRow::getRowIndex);
+
+    private final Iterator<IndexedRow> source;
+    private final int rowLimit;
+
+    private final List<Path> runFiles = new ArrayList<>();
+    private final List<RunReader> runReaders = new ArrayList<>();
+    private Iterator<IndexedRow> groupedRows;
+
+    /**
+     * A row of the input file with its position in the file.
+     */
+    @Getter
+    public static class IndexedRow {
+        private final String bait;
+        /**
+         * The index of the row in the file, 1 for the first row following the header.
+         */
+        private final int rowIndex;
+        private final List<String> values;
+        /**
+         * The position of the bait among the baits of the file, in the order they are first seen.
+         */
+        private int baitOrder;
+
+        IndexedRow(String bait, int rowIndex, List<String> values) {
+            this.bait = bait == null ? "" : bait;
+            this.rowIndex = rowIndex;
+            this.values = values;
+        }
+    }
+
+    /**
+     * Constructs a BaitGroupingIterator over the rows following the header of a file.
+     *
+     * @param source          the rows of the file, header excluded.
+     * @param baitColumnIndex the index of the bait identifier column.
+     * @param rowLimit        the maximum number of rows kept in memory.
+     */
+    public BaitGroupingIterator(Iterator<List<String>> source, int baitColumnIndex, int rowLimit) {
+        this(indexRows(source, baitColumnIndex), rowLimit);
+    }
+
+    /**
+     * Constructs a BaitGroupingIterator over rows whose bait and row index are already known,
+     * such as the pairs read from the cells of a matrix.
+     *
+     * @param source   the rows to group.
+     * @param rowLimit the maximum number of rows kept in memory.
+     */
+    BaitGroupingIterator(Iterator<IndexedRow> source, int rowLimit) {
+        this.source = source;
+        this.rowLimit = Math.max(rowLimit, 1);
+    }
+
+    private static Iterator<IndexedRow> indexRows(Iterator<List<String>> source, int baitColumnIndex) {
+        return new Iterator<>() {
+            private int rowIndex;
+
+            @Override
+            public boolean hasNext() {
+                return source.hasNext();
+            }
+
+            @Override
+            public IndexedRow next() {
+                List<String> row = source.next();
+                rowIndex++;
+                String bait = baitColumnIndex >= 0 && baitColumnIndex < row.size() ? row.get(baitColumnIndex) : "";
+                return new IndexedRow(bait, rowIndex, row);
+            }
+        };
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (groupedRows == null) {
+            try {
+                groupedRows = groupRows();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return groupedRows.hasNext();
+    }
+
+    @Override
+    public IndexedRow next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return groupedRows.next();
+    }
+
+    /**
+     * Reads all the rows of the source and returns them grouped by bait.
+     */
+    private Iterator<IndexedRow> groupRows() throws IOException {
+        List<IndexedRow> buffer = new ArrayList<>();
+        Map<String, Integer> baitOrders = new HashMap<>();
+        int rowCount = 0;
+        while (source.hasNext()) {
+            IndexedRow row = source.next();
+            row.baitOrder = baitOrders.computeIfAbsent(row.bait, bait -> baitOrders.size());
+            buffer.add(row);
+            rowCount++;
+            if (buffer.size() >= rowLimit && source.hasNext()) {
+                writeRun(buffer);
+                buffer.clear();
+            }
+        }
+
+        buffer.sort(BAIT_ORDER);
+        if (runFiles.isEmpty()) {
+            return buffer.iterator();
+        }
+
+        LOGGER.info("Grouping " + rowCount + " rows by bait on disk in " + (runFiles.size() + 1) + " runs");
+        List<Iterator<IndexedRow>> runs = new ArrayList<>();
+        runs.add(buffer.iterator());
+        for (Path runFile : runFiles) {
+            RunReader reader = new RunReader(runFile);
+            runReaders.add(reader);
+            runs.add(reader);
+        }
+        return merge(runs);
+    }
+
+    /**
+     * Sorts the rows by bait and writes them to a new temporary file.
+     */
+    private void writeRun(List<IndexedRow> rows) throws IOException {
+        rows.sort(BAIT_ORDER);
+        Path runFile = Files.createTempFile("xmlmaker-baits", ".run");
+        runFiles.add(runFile);
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(runFile)))) {
+            for (IndexedRow row : rows) {
+                writeString(output, row.bait);
+                output.writeInt(row.baitOrder);
+                output.writeInt(row.rowIndex);
+                output.writeInt(row.values.size());
+                for (String value : row.values) {
+                    writeString(output, value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Merges runs sorted by bait order into a single iterator sorted by bait order.
+     */
+    private static Iterator<IndexedRow> merge(List<Iterator<IndexedRow>> runs) {
+        PriorityQueue<Map.Entry<IndexedRow, Iterator<IndexedRow>>> heads =
+                new PriorityQueue<>(Map.Entry.comparingByKey(BAIT_ORDER));
+        for (Iterator<IndexedRow> run : runs) {
+            if (run.hasNext()) {
+                heads.add(new AbstractMap.SimpleEntry<>(run.next(), run));
+            }
+        }
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !heads.isEmpty();
+            }
+
+            @Override
+            public IndexedRow next() {
+                Map.Entry<IndexedRow, Iterator<IndexedRow>> head = heads.poll();
+                if (head == null) {
+                    throw new NoSuchElementException();
+                }
+                Iterator<IndexedRow> run = head.getValue();
+                if (run.hasNext()) {
+                    heads.add(new AbstractMap.SimpleEntry<>(run.next(), run));
+                }
+                return head.getKey();
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+        for (RunReader reader : runReaders) {
+            reader.close();
+        }
+        runReaders.clear();
+        for (Path runFile : runFiles) {
+            try {
+                Files.deleteIfExists(runFile);
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Unable to delete temporary file " + runFile, e);
+            }
+        }
+        runFiles.clear();
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(DataInputStream input) throws IOException {
+        byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads back the rows of a run file.
+     */
+    private static class RunReader implements Iterator<IndexedRow>, Closeable {
+        private final DataInputStream input;
+        private IndexedRow nextRow;
+        private boolean finished;
+
+        RunReader(Path runFile) throws IOException {
+            this.input = new DataInputStream(new BufferedInputStream(Files.newInputStream(runFile)));
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (nextRow == null && !finished) {
+                try {
+                    nextRow = readRow();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                finished = nextRow == null;
+            }
+            return nextRow != null;
+        }
+
+        @Override
+        public IndexedRow next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            IndexedRow row = nextRow;
+            nextRow = null;
+            return row;
+        }
+
+        private IndexedRow readRow() throws IOException {
+            String bait;
+            try {
+                bait = readString(input);
+            } catch (EOFException e) {
+                return null;
+            }
+            int baitOrder = input.readInt();
+            int rowIndex = input.readInt();
+            int size = input.readInt();
+            List<String> values = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                values.add(readString(input));
+            }
+            IndexedRow row = new IndexedRow(bait, rowIndex, values);
+            row.baitOrder = baitOrder;
+            return row;
+        }
+
+        @Override
+        public void close() {
+            try {
+                input.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Unable to close temporary file", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing;
+
+import uk.ac.ebi.intact.psi.mi.xmlmaker.models.Feature;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+import static uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing.content.InputData.*;
+
+/**
+ * The {@code FeatureColumns} class holds the output columns of one feature, resolved once against
+ * the header of the input file. A column is either a constant value, or a list of semicolon-separated
+ * items read like {@link uk.ac.ebi.intact.psi.mi.xmlmaker.utils.FileUtils#getValueFromFile}: an item naming
+ * a column of the file is replaced by the cell of the participant row, any other item is kept as is.
+ *
+ * <p>All the columns of a feature are then filled from the row of the participant in one pass.</p>
+ */
+final class FeatureColumns {
+
+    private final List<String> names = new ArrayList<>();
+    private final List<String[]> items = new ArrayList<>();
+    private final List<int[]> itemColumns = new ArrayList<>();
+    private final ToIntFunction<String> columnIndex;
+
+    private FeatureColumns(ToIntFunction<String> columnIndex) {
+        this.columnIndex = columnIndex;
+    }
+
+    /**
+     * Compiles the output columns of a feature.
+     *
+     * @param feature      the feature.
+     * @param featureIndex the position of the feature, used as the suffix of its column names.
+     * @param columnIndex  the lookup of the index of a column of the input file from its name, -1 if not found.
+     * @return the compiled columns of the feature.
+     */
+    static FeatureColumns compile(Feature feature, int featureIndex, ToIntFunction<String> columnIndex) {
+        FeatureColumns columns = new FeatureColumns(columnIndex);
+        String adding = "_" + featureIndex;
+        boolean fetchFromFile = feature.isFetchFromFile();
+
+        columns.add(FEATURE_SHORT_NAME.name + adding, feature.getShortName(), fetchFromFile);
+        columns.add(FEATURE_TYPE.name + adding, feature.getType(), fetchFromFile);
+        columns.add(FEATURE_START_LOCATION.name + adding, feature.getStartLocation(), fetchFromFile);
+        columns.add(FEATURE_END_LOCATION.name + adding, feature.getEndLocation(), fetchFromFile);
+        columns.add(FEATURE_RANGE_TYPE.name + adding, feature.getRangeType(), fetchFromFile);
+
+        columns.add(FEATURE_XREF.name + adding, feature.getListAsString(feature.getXref()), fetchFromFile);
+        columns.add(FEATURE_XREF_DB.name + adding, feature.getListAsString(feature.getXrefDb()), fetchFromFile);
+        columns.add(FEATURE_XREF_QUALIFIER.name + adding, feature.getListAsString(feature.getXrefQualifier()), fetchFromFile);
+
+        columns.add(FEATURE_PARAM_TYPE.name + adding, feature.getParameterTypes(), false);
+        columns.add(FEATURE_PARAM_VALUE.name + adding, feature.getParameterValues(), true);
+        columns.add(FEATURE_PARAM_UNIT.name + adding, feature.getParameterUnits(), false);
+        columns.add(FEATURE_PARAM_BASE.name + adding, feature.getParameterBases(), false);
+        columns.add(FEATURE_PARAM_EXPONENT.name + adding, feature.getParameterExponents(), false);
+        columns.add(FEATURE_PARAM_UNCERTAINTY.name + adding, feature.getParameterUncertainties(), true);
+
+        columns.add(FEATURE_ROLE.name + adding, feature.getRole(), fetchFromFile);
+        columns.add(FEATURE_ORIGINAL_SEQUENCE.name + adding,
+                "Original Sequence".equalsIgnoreCase(feature.getOriginalSequence()) ? "" : feature.getOriginalSequence(),
+                fetchFromFile);
+        columns.add(FEATURE_NEW_SEQUENCE.name + adding,
+                "New Sequence".equalsIgnoreCase(feature.getNewSequence()) ? "" : feature.getNewSequence(),
+                fetchFromFile);
+        return columns;
+    }
+
+    private void add(String name, String value, boolean fromFile) {
+        names.add(name);
+        if (!fromFile) {
+            items.add(new String[]{value});
+            itemColumns.add(null);
+            return;
+        }
+        List<String> valueItems = new ArrayList<>();
+        if (value != null) {
+            for (String item : value.split(";")) {
+                if (!item.trim().isEmpty()) {
+                    valueItems.add(item.trim());
+                }
+            }
+        }
+        int[] columns = new int[valueItems.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = columnIndex.applyAsInt(valueItems.get(i));
+        }
+        items.add(valueItems.toArray(new String[0]));
+        itemColumns.add(columns);
+    }
+
+    /**
+     * Fills the columns of the feature for a participant.
+     *
+     * @param participant the participant to fill.
+     * @param row         the input row of the participant.
+     */
+    void apply(Map<String, String> participant, List<String> row) {
+        for (int i = 0; i < names.size(); i++) {
+            int[] columns = itemColumns.get(i);
+            String[] valueItems = items.get(i);
+            if (columns == null) {
+                participant.put(names.get(i), valueItems[0]);
+                continue;
+            }
+            StringBuilder value = new StringBuilder();
+            for (int j = 0; j < columns.length; j++) {
+                if (j > 0) {
+                    value.append(';');
+                }
+                int column = columns[j];
+                if (column < 0) {
+                    value.append(valueItems[j]);
+                } else if (column < row.size()) {
+                    value.append(row.get(column));
+                }
+            }
+            participant.put(names.get(i), value.toString());
+        }
+    }
+}
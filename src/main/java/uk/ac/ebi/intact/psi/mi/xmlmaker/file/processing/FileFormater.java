@@ -4,18 +4,16 @@ import lombok.Getter;
 import lombok.Setter;
 
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 import static uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing.content.InputData.*;
 import static uk.ac.ebi.intact.psi.mi.xmlmaker.utils.GuiUtils.*;
 import static uk.ac.ebi.intact.psi.mi.xmlmaker.utils.FileUtils.*;
 import static uk.ac.ebi.intact.psi.mi.xmlmaker.utils.XmlMakerUtils.fetchTaxIdForOrganism;
+import static uk.ac.ebi.intact.psi.mi.xmlmaker.utils.XmlMakerUtils.fetchTaxIdsForOrganisms;
 
 import uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing.content.InputData;
 import uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing.gui.ParametersGui;
-import uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing.gui.ParticipantAndInteractionCreatorGui;
 import uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing.gui.VariableExperimentalConditionGui;
 import uk.ac.ebi.intact.psi.mi.xmlmaker.models.Feature;
 import uk.ac.ebi.intact.psi.mi.xmlmaker.models.Parameter;
@@ -27,8 +25,11 @@ import javax.swing.*;
 import java.io.*;
 import java.util.*;
 import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
+import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 
 /**
  * The {@code FileFormater} class processes interaction data from CSV, TSV, XLS, and XLSX files,
@@ -50,14 +51,73 @@ public class FileFormater {
 
     private static final Logger LOGGER = Logger.getLogger(FileFormater.class.getName());
 
+    /**
+     * The formatted participants, kept until the whole file is formatted when {@code streamingOutput} is off.
+     * They are written to a temporary file beyond the memory budget of the buffer.
+     */
     @Getter
-    private final List<Map<String, String>> participants = new ArrayList<>();
+    private final ParticipantBuffer participants = new ParticipantBuffer();
     private Map<String, String> interactionData = new HashMap<>();
     private List<Feature> baitFeatures = new ArrayList<>();
     private List<Feature> preyFeatures = new ArrayList<>();
+    private final List<FeatureColumns> baitFeatureColumns = new ArrayList<>();
+    private final List<FeatureColumns> preyFeatureColumns = new ArrayList<>();
     private boolean addParameters;
     private boolean addVariableExperimentalConditions;
 
+    /**
+     * Whether participants are written as soon as their interaction is complete instead of being kept
+     * in {@code participants} until the whole file is formatted.
+     */
+    private boolean streamingOutput;
+    private ParticipantWriter participantWriter;
+    private ParticipantColumnPlan columnPlan;
+    private final List<Map<String, String>> pendingInteraction = new ArrayList<>();
+    private final List<List<String>> pendingRows = new ArrayList<>();
+
+    /**
+     * Whether, in non-binary mode, all the rows of a bait are grouped in one interaction even when they are
+     * not consecutive in the file. Up to {@code groupingRowLimit} rows are grouped in memory, larger files are
+     * sorted on disk. On by default; it can be turned off for files whose baits are known to be consecutive,
+     * so that their rows are formatted as they are read.
+     */
+    private boolean groupUnsortedBaits = true;
+    private int groupingRowLimit = 1_000_000;
+
+    /**
+     * The maximum number of concurrent lookups when the organisms of the input file are resolved.
+     */
+    private int organismLookupParallelism = 4;
+    /**
+     * The organism names read while formatting, when the participants are kept until the whole file is formatted:
+     * their organisms are then resolved together once the file is read, instead of in a separate pass over the file.
+     * {@code null} when the organisms are resolved as the participants are formatted.
+     */
+    private Set<String> deferredOrganismNames;
+
+    /**
+     * Whether the rows repeating a bait-prey pair of the same interaction are skipped. In binary mode,
+     * the pairs are compared across the whole file; in non-binary mode, within the interaction of the bait.
+     */
+    private boolean removeDuplicatePairs;
+    /**
+     * Whether duplicate pairs are detected from a 64-bit hash kept off-heap rather than from the pairs themselves,
+     * for very large files.
+     */
+    private boolean hashedDuplicateDetection;
+    /**
+     * The number of rows skipped as duplicate pairs in the last formatted file.
+     */
+    private int duplicateRowCount;
+
+    /**
+     * Whether the input file is a bait-prey matrix: one prey per row, and one bait per column from the bait column on,
+     * the header holding the bait identifiers and each cell a score. Each non-empty cell with a score of at least
+     * {@code matrixScoreThreshold} gives a bait-prey pair, as if it were a row of a file with one pair per row.
+     */
+    private boolean matrixInput;
+    private double matrixScoreThreshold = Double.NEGATIVE_INFINITY;
+
     FileWriter fileWriter;
     ParametersGui parametersGui;
     VariableExperimentalConditionGui variableExperimentalConditionGui;
@@ -86,7 +146,7 @@ public class FileFormater {
      * Selects the appropriate file formatting method based on the file type and processes the file.
      *
      * @param filePath        The path of the file to be formatted.
-     * @param baitColumnIndex The column index for the bait.
+     * @param baitColumnIndex The column index for the bait, or for the first bait in {@code matrixInput} mode.
      * @param preyColumnIndex The column index for the prey.
      * @param baitNameColumnIndex The column index for the bait name.
      * @param preyNameColumnIndex The column index for the prey name.
@@ -110,35 +170,29 @@ public class FileFormater {
             case "xlsx":
                 LOGGER.info("Reading xlsx file: " + fileName);
                 displayDataPanels();
-                formatExcelFile(baitColumnIndex, preyColumnIndex, sheetSelected, binary, baitNameColumnIndex, preyNameColumnIndex);
-                Workbook workbookXlsx = new XSSFWorkbook();
-                addDataToParticipants();
-                fileWriter.writeToExcel(participants, modifiedFileName + ".xlsx", header, workbookXlsx);
+                formatAndWrite(() -> formatExcelFile(baitColumnIndex, preyColumnIndex, sheetSelected, binary, baitNameColumnIndex, preyNameColumnIndex),
+                        fileHeader -> fileWriter.openExcelWriter(modifiedFileName + ".xlsx", fileHeader, new XSSFWorkbook()));
                 newFileName = modifiedFileName + ".xlsx";
                 break;
             case "xls":
                 LOGGER.info("Reading xls file: " + fileName);
                 displayDataPanels();
-                formatExcelFile(baitColumnIndex, preyColumnIndex, sheetSelected, binary, baitNameColumnIndex, preyNameColumnIndex);
-                Workbook workbookXls = new HSSFWorkbook();
-                addDataToParticipants();
-                fileWriter.writeToExcel(participants, modifiedFileName + ".xls", header, workbookXls);
+                formatAndWrite(() -> formatExcelFile(baitColumnIndex, preyColumnIndex, sheetSelected, binary, baitNameColumnIndex, preyNameColumnIndex),
+                        fileHeader -> fileWriter.openExcelWriter(modifiedFileName + ".xls", fileHeader, new HSSFWorkbook()));
                 newFileName = modifiedFileName + ".xls";
                 break;
             case "csv":
                 LOGGER.info("Reading csv file: " + fileName);
                 displayDataPanels();
-                formatSeparatedFormatFile(baitColumnIndex, preyColumnIndex, binary, baitNameColumnIndex, preyNameColumnIndex);
-                addDataToParticipants();
-                fileWriter.writeToFile(participants, modifiedFileName + ".csv", ',', header);
+                formatAndWrite(() -> formatSeparatedFormatFile(baitColumnIndex, preyColumnIndex, binary, baitNameColumnIndex, preyNameColumnIndex),
+                        fileHeader -> fileWriter.openSeparatedWriter(modifiedFileName + ".csv", ',', fileHeader));
                 newFileName = modifiedFileName + ".csv";
                 break;
             case "tsv":
                 LOGGER.info("Reading tsv file: " + fileName);
                 displayDataPanels();
-                formatSeparatedFormatFile(baitColumnIndex, preyColumnIndex, binary, baitNameColumnIndex, preyNameColumnIndex);
-                addDataToParticipants();
-                fileWriter.writeToFile(participants, modifiedFileName + ".tsv", '\t', header);
+                formatAndWrite(() -> formatSeparatedFormatFile(baitColumnIndex, preyColumnIndex, binary, baitNameColumnIndex, preyNameColumnIndex),
+                        fileHeader -> fileWriter.openSeparatedWriter(modifiedFileName + ".tsv", '\t', fileHeader));
                 newFileName = modifiedFileName + ".tsv";
                 break;
             default:
@@ -146,7 +200,12 @@ public class FileFormater {
                 showErrorDialog("Unsupported file format! Supported formats: .csv, .tsv, .xls, .xlsx");
         }
         participants.clear();
-        showInfoDialog("File modified: " + modifiedFileName);
+        participantCountMap.clear();
+        if (removeDuplicatePairs) {
+            showInfoDialog("File modified: " + modifiedFileName + "\n" + duplicateRowCount + " duplicate rows removed");
+        } else {
+            showInfoDialog("File modified: " + modifiedFileName);
+        }
         fileReader.selectFileOpener(newFileName);
     }
 
@@ -155,11 +214,182 @@ public class FileFormater {
         getParametersPanel();
     }
 
+    /**
+     * Adds the interaction type, features, parameters and variable experimental conditions
+     * to all the formatted participants, in a single pass over them. The organisms left to resolve
+     * are resolved in the same pass.
+     */
     private void addDataToParticipants(){
         addInteractionType();
-        addAllFeatures();
-        addInteractionParameters();
-        addVariableConditions();
+        addFeaturesHeader();
+        compileFeatureColumns();
+        List<Parameter> parameters = getParameters();
+        List<VariableExperimentalCondition> variableExperimentalConditions = getVariableExperimentalConditions();
+        boolean readsRows = !baitFeatureColumns.isEmpty() || !preyFeatureColumns.isEmpty()
+                || !parameters.isEmpty() || !variableExperimentalConditions.isEmpty();
+        RowStore rowStore = readsRows ? fileReader.getRowStore() : null;
+        ParticipantColumnPlan organismPlan = resolveDeferredOrganisms();
+        participants.updateAll(participant -> {
+            if (organismPlan != null) {
+                resolveOrganisms(participant, organismPlan);
+            }
+            addParticipantData(participant, getParticipantRow(rowStore, participant),
+                    parameters, variableExperimentalConditions);
+        });
+    }
+
+    /**
+     * Fetches the TaxIds of the organism names collected while formatting, concurrently,
+     * asking the user for the ones not found in a single dialog.
+     *
+     * @return the plan giving the organism columns of the participants, or {@code null} if there is none to resolve.
+     */
+    private ParticipantColumnPlan resolveDeferredOrganisms() {
+        if (deferredOrganismNames == null) {
+            return null;
+        }
+        ParticipantColumnPlan plan = compileColumnPlan();
+        if (plan.getOrganismColumns().length == 0) {
+            return null;
+        }
+        fetchTaxIdsForOrganisms(deferredOrganismNames, organismLookupParallelism);
+        deferredOrganismNames.clear();
+        return plan;
+    }
+
+    private void resolveOrganisms(Map<String, String> participant, ParticipantColumnPlan plan) {
+        boolean bait = "bait".equals(participant.get(EXPERIMENTAL_ROLE.name));
+        for (String organismColumn : plan.getOrganismColumnNames(bait)) {
+            String organism = participant.get(organismColumn);
+            if (organism != null) {
+                participant.put(organismColumn, normalizeOrganismValue(organism));
+            }
+        }
+    }
+
+    /**
+     * Gets the input row of a participant from the parsed file.
+     *
+     * @param rowStore    the rows of the input file, or {@code null} if they are not needed or cannot be read.
+     * @param participant the participant.
+     * @return the values of the row of the participant, or an empty list.
+     */
+    private List<String> getParticipantRow(RowStore rowStore, Map<String, String> participant) {
+        if (rowStore == null) {
+            return Collections.emptyList();
+        }
+        // -1 because the row index 0 is the header
+        return rowStore.getRow(Integer.parseInt(participant.get(PARTICIPANT_ROW_INDEX.name)) - 1);
+    }
+
+    private void addParticipantData(Map<String, String> participant, List<String> row, List<Parameter> parameters,
+                                    List<VariableExperimentalCondition> variableExperimentalConditions) {
+        addParticipantFeatures(participant, row);
+        if (!parameters.isEmpty()) {
+            addParticipantParameters(participant, row, parameters);
+        }
+        if (!variableExperimentalConditions.isEmpty()) {
+            addParticipantVariableConditions(participant, row, variableExperimentalConditions);
+        }
+    }
+
+    private List<Parameter> getParameters() {
+        return parametersGui == null ? Collections.emptyList() : parametersGui.getParameters();
+    }
+
+    private List<VariableExperimentalCondition> getVariableExperimentalConditions() {
+        return variableExperimentalConditionGui == null
+                ? Collections.emptyList() : variableExperimentalConditionGui.getExperimentalConditions();
+    }
+
+    /**
+     * Formats the input file and writes the participants to the output file.
+     * Without {@code streamingOutput}, all the participants are formatted first, then enriched and written.
+     * With {@code streamingOutput}, the participants of an interaction are kept until the interaction is complete,
+     * then they are enriched and written, so the memory used does not depend on the size of the file.
+     *
+     * @param format        the formatting of the input file, adding its participants.
+     * @param writerFactory the factory opening the output file once its header is known.
+     */
+    void formatAndWrite(Runnable format, ParticipantWriter.Factory writerFactory) {
+        // the file is checked once here, the rows are then read from the same session for the whole formatting
+        fileReader.validateSession();
+        if (!streamingOutput) {
+            try {
+                deferredOrganismNames = new LinkedHashSet<>();
+                format.run();
+                addDataToParticipants();
+            } catch (UncheckedIOException e) {
+                LOGGER.log(Level.SEVERE, "Error buffering formatted participants", e);
+                showErrorDialog("Error formatting file: " + e.getMessage());
+                return;
+            } finally {
+                deferredOrganismNames = null;
+            }
+            try (ParticipantWriter writer = writerFactory.open(header)) {
+                for (Map<String, String> participant : participants) {
+                    writer.write(participant);
+                }
+            } catch (IOException | UncheckedIOException e) {
+                LOGGER.log(Level.SEVERE, "Error writing formatted file", e);
+                showErrorDialog("Error writing file: " + e.getMessage());
+            }
+            return;
+        }
+
+        addFeaturesHeader();
+        compileFeatureColumns();
+        try (ParticipantWriter writer = writerFactory.open(header)) {
+            participantWriter = writer;
+            format.run();
+            writePendingInteraction();
+        } catch (IOException | UncheckedIOException e) {
+            LOGGER.log(Level.SEVERE, "Error writing formatted file", e);
+            showErrorDialog("Error writing file: " + e.getMessage());
+        } finally {
+            participantWriter = null;
+            pendingInteraction.clear();
+            pendingRows.clear();
+        }
+    }
+
+    /**
+     * Keeps a participant until all the participants of its interaction are known.
+     * The participants of an interaction are always consecutive, so the pending interaction
+     * is written as soon as a participant of the next interaction arrives.
+     * The input row of the participant is kept with it, so that it is enriched without reading the file again.
+     *
+     * @param participant the formatted participant.
+     * @param rowValues   the values of the input row of the participant.
+     */
+    private void addToPendingInteraction(Map<String, String> participant, List<String> rowValues) {
+        if (!pendingInteraction.isEmpty()
+                && !pendingInteraction.get(0).get(INTERACTION_NUMBER.name).equals(participant.get(INTERACTION_NUMBER.name))) {
+            writePendingInteraction();
+        }
+        pendingInteraction.add(participant);
+        pendingRows.add(rowValues == null ? Collections.emptyList() : rowValues);
+    }
+
+    /**
+     * Enriches the participants of the pending interaction like {@link #addDataToParticipants()} does,
+     * and writes them.
+     */
+    private void writePendingInteraction() {
+        List<Parameter> parameters = getParameters();
+        List<VariableExperimentalCondition> variableExperimentalConditions = getVariableExperimentalConditions();
+        try {
+            for (int i = 0; i < pendingInteraction.size(); i++) {
+                Map<String, String> participant = pendingInteraction.get(i);
+                setInteractionType(participant, pendingInteraction.size());
+                addParticipantData(participant, pendingRows.get(i), parameters, variableExperimentalConditions);
+                participantWriter.write(participant);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        pendingInteraction.clear();
+        pendingRows.clear();
     }
 
     /**
@@ -171,6 +401,7 @@ public class FileFormater {
      * @param getPrey                  Function to extract prey ID from a row.
      * @param getBaitName              Function to extract bait display name.
      * @param getPreyName              Function to extract prey display name.
+     * @param getRowValues             Function to extract the values of a row, in the order of the file header.
      * @param binary                   Whether to treat the data as binary (bait-prey pairs) or grouped.
      * @param <T>                      Type of row (e.g., Excel Row or list).
      */
@@ -179,48 +410,82 @@ public class FileFormater {
                                Function<T, String> getPrey,
                                Function<T, String> getBaitName,
                                Function<T, String> getPreyName,
-                               Function<T, Map<String, String>> getRowValues,
+                               Function<T, List<String>> getRowValues,
                                boolean binary) {
+        formatRows(iterator, getBait, getPrey, getBaitName, getPreyName, getRowValues, null, binary);
+    }
 
-        int interactionNumber = 0;
-        String lastBait = null;
-        int rowIndex = 0;
-
-        while (iterator.hasNext()) {
-            T row = iterator.next();
-            rowIndex++;
-
-            String bait = getBait.apply(row);
-            String prey = getPrey.apply(row);
-
-            String baitName = getBaitName.apply(row);
-            String preyName = getPreyName.apply(row);
-            Map<String, String> rowValues = getRowValues.apply(row);
-
-            if (bait.isEmpty() || prey.isEmpty()) {
-                continue;
-            }
+    /**
+     * Formats the rows of an iterator like {@link #formatFile}.
+     *
+     * @param getRowIndex Function to extract the index of a row in the file,
+     *                    or {@code null} if the rows come in the order of the file.
+     */
+    private <T> void formatRows(Iterator<T> iterator,
+                                Function<T, String> getBait,
+                                Function<T, String> getPrey,
+                                Function<T, String> getBaitName,
+                                Function<T, String> getPreyName,
+                                Function<T, List<String>> getRowValues,
+                                ToIntFunction<T> getRowIndex,
+                                boolean binary) {
+
+        // the configuration is compiled once for all the rows of the file
+        columnPlan = compileColumnPlan();
+        PairDeduplicator deduplicator = !removeDuplicatePairs ? null
+                : hashedDuplicateDetection ? PairDeduplicator.hashed() : PairDeduplicator.exact();
+        try {
+            int interactionNumber = 0;
+            String lastBait = null;
+            int rowIndex = 0;
+
+            while (iterator != null && iterator.hasNext()) {
+                T row = iterator.next();
+                rowIndex = getRowIndex == null ? rowIndex + 1 : getRowIndex.applyAsInt(row);
+
+                String bait = getBait.apply(row);
+                String prey = getPrey.apply(row);
+
+                String baitName = getBaitName.apply(row);
+                String preyName = getPreyName.apply(row);
+                List<String> rowValues = getRowValues.apply(row);
+
+                if (bait.isEmpty() || prey.isEmpty()) {
+                    continue;
+                }
 
-            if (binary) {
-                interactionNumber++;
-                addNewParticipant(String.valueOf(interactionNumber), bait, baitName, "bait", rowIndex, rowValues);
-                addNewParticipant(String.valueOf(interactionNumber), prey, preyName, "prey", rowIndex, rowValues);
-            } else {
-                if (lastBait == null || !lastBait.equals(bait)) {
+                if (binary) {
+                    if (deduplicator != null && deduplicator.isDuplicate(bait, prey, "")) {
+                        continue;
+                    }
                     interactionNumber++;
-                    lastBait = bait;
                     addNewParticipant(String.valueOf(interactionNumber), bait, baitName, "bait", rowIndex, rowValues);
+                    addNewParticipant(String.valueOf(interactionNumber), prey, preyName, "prey", rowIndex, rowValues);
+                } else {
+                    if (lastBait == null || !lastBait.equals(bait)) {
+                        interactionNumber++;
+                        lastBait = bait;
+                        addNewParticipant(String.valueOf(interactionNumber), bait, baitName, "bait", rowIndex, rowValues);
+                    }
+                    if (deduplicator != null && deduplicator.isDuplicate(bait, prey, String.valueOf(interactionNumber))) {
+                        continue;
+                    }
+                    addNewParticipant(String.valueOf(interactionNumber), prey, preyName, "prey", rowIndex, rowValues);
                 }
-                addNewParticipant(String.valueOf(interactionNumber), prey, preyName, "prey", rowIndex, rowValues);
+            }
+        } finally {
+            columnPlan = null;
+            if (deduplicator != null) {
+                duplicateRowCount = deduplicator.getDuplicateCount();
+                LOGGER.info(duplicateRowCount + " rows with a duplicate bait-prey pair were removed");
             }
         }
-        iterator.remove();
     }
 
     /**
      * Formats interaction data from separated files (CSV or TSV).
      *
-     * @param baitColumnIndex        Index of the bait identifier column.
+     * @param baitColumnIndex        Index of the bait identifier column, or of the first bait column of a matrix.
      * @param preyColumnIndex        Index of the prey identifier column.
      * @param binary                 Whether the format is binary (each line is a bait-prey pair).
      * @param baitNameColumnIndex    Optional index for bait display names (-1 if not used).
@@ -230,22 +495,138 @@ public class FileFormater {
                                           boolean binary, int baitNameColumnIndex,
                                           int preyNameColumnIndex) {
 
-        Iterator<List<String>> iterator = fileReader.readFileWithSeparator();
+        fetchOrganismTaxIds(fileReader::readFileWithSeparator);
+        try (RowIterator iterator = fileReader.readFileWithSeparator()) {
+            if (matrixInput) {
+                formatMatrix(iterator, baitColumnIndex, preyColumnIndex, preyNameColumnIndex, binary);
+                return;
+            }
+            if (!binary && groupUnsortedBaits) {
+                formatGroupedByBait(iterator, baitColumnIndex, preyColumnIndex, baitNameColumnIndex, preyNameColumnIndex);
+                return;
+            }
+            formatFile(iterator,
+                    row -> row.get(baitColumnIndex),
+                    row -> row.get(preyColumnIndex),
+                    row -> baitNameColumnIndex == -1 ? "" : row.get(baitNameColumnIndex),
+                    row -> preyNameColumnIndex == -1 ? "" : row.get(preyNameColumnIndex),
+                    row -> row,
+                    binary
+            );
+        }
+    }
+
+    /**
+     * Formats the rows in non-binary mode after grouping them by bait, so that each bait gives a single interaction.
+     *
+     * @param iterator               Iterator over the rows following the header.
+     * @param baitColumnIndex        Index of the bait identifier column.
+     * @param preyColumnIndex        Index of the prey identifier column.
+     * @param baitNameColumnIndex    Optional index for bait display names (-1 if not used).
+     * @param preyNameColumnIndex    Optional index for prey display names (-1 if not used).
+     */
+    private void formatGroupedByBait(RowIterator iterator, int baitColumnIndex, int preyColumnIndex,
+                                     int baitNameColumnIndex, int preyNameColumnIndex) {
+        if (iterator == null) {
+            return;
+        }
+        try (BaitGroupingIterator groupedRows = new BaitGroupingIterator(iterator, baitColumnIndex, groupingRowLimit)) {
+            formatRows(groupedRows,
+                    row -> getCellValue(row.getValues(), baitColumnIndex),
+                    row -> getCellValue(row.getValues(), preyColumnIndex),
+                    row -> getCellValue(row.getValues(), baitNameColumnIndex),
+                    row -> getCellValue(row.getValues(), preyNameColumnIndex),
+                    BaitGroupingIterator.IndexedRow::getValues,
+                    BaitGroupingIterator.IndexedRow::getRowIndex,
+                    false
+            );
+        }
+    }
+
+    /**
+     * Formats a bait-prey matrix, reading its cells as bait-prey pairs. The matrix is read once: in non-binary mode,
+     * the pairs are grouped by bait, spilling them to disk beyond {@code groupingRowLimit} pairs,
+     * so that each bait gives a single interaction.
+     *
+     * @param iterator               Iterator over the rows following the header.
+     * @param firstBaitColumnIndex   Index of the first bait column.
+     * @param preyColumnIndex        Index of the prey identifier column.
+     * @param preyNameColumnIndex    Optional index for prey display names (-1 if not used).
+     * @param binary                 Whether each pair is formatted as its own interaction.
+     */
+    private void formatMatrix(RowIterator iterator, int firstBaitColumnIndex, int preyColumnIndex,
+                              int preyNameColumnIndex, boolean binary) {
+        if (iterator == null) {
+            return;
+        }
+        MatrixCellIterator cells = new MatrixCellIterator(iterator, fileReader.fileData, firstBaitColumnIndex,
+                preyColumnIndex, matrixScoreThreshold);
+        if (binary) {
+            formatMatrixCells(cells, preyColumnIndex, preyNameColumnIndex, true);
+        } else {
+            try (BaitGroupingIterator groupedCells = new BaitGroupingIterator(cells, groupingRowLimit)) {
+                formatMatrixCells(groupedCells, preyColumnIndex, preyNameColumnIndex, false);
+            }
+        }
+        logSkippedMatrixCells(cells.getBelowThresholdCellCount(), cells.getNonNumericCellCount());
+    }
 
-        formatFile(iterator,
-                row -> row.get(baitColumnIndex),
-                row -> row.get(preyColumnIndex),
-                row -> baitNameColumnIndex == -1 ? "" : row.get(baitNameColumnIndex),
-                row -> preyNameColumnIndex == -1 ? "" : row.get(preyNameColumnIndex),
-                this::extractRowValues,
+    private void logSkippedMatrixCells(int belowThresholdCellCount, int nonNumericCellCount) {
+        LOGGER.info(belowThresholdCellCount + " matrix cells below the score threshold and "
+                + nonNumericCellCount + " matrix cells without a numeric score were skipped");
+    }
+
+    private void formatMatrixCells(Iterator<BaitGroupingIterator.IndexedRow> cells, int preyColumnIndex,
+                                   int preyNameColumnIndex, boolean binary) {
+        formatRows(cells,
+                BaitGroupingIterator.IndexedRow::getBait,
+                cell -> getCellValue(cell.getValues(), preyColumnIndex),
+                cell -> "",
+                cell -> getCellValue(cell.getValues(), preyNameColumnIndex),
+                BaitGroupingIterator.IndexedRow::getValues,
+                BaitGroupingIterator.IndexedRow::getRowIndex,
                 binary
         );
     }
 
+    /**
+     * Fetches the TaxIds of all the distinct organisms of the organism columns read from the input file,
+     * so that formatting the rows does not wait for OLS or ask the user for a TaxId in the middle of the file.
+     * The organisms are looked up concurrently, and the ones not found are asked to the user in a single dialog.
+     * This reads the file once more, so it is only done when the participants are written as they are formatted:
+     * otherwise, the organisms are collected while formatting and resolved once the file is read.
+     *
+     * @param rows Supplier of an iterator over the rows following the header.
+     */
+    private void fetchOrganismTaxIds(Supplier<RowIterator> rows) {
+        if (deferredOrganismNames != null) {
+            return;
+        }
+        int[] organismColumns = compileColumnPlan().getOrganismColumns();
+        if (organismColumns.length == 0) {
+            return;
+        }
+        Set<String> organismNames = new LinkedHashSet<>();
+        try (RowIterator iterator = rows.get()) {
+            while (iterator != null && iterator.hasNext()) {
+                List<String> row = iterator.next();
+                for (int organismColumn : organismColumns) {
+                    String organismName = getCellValue(row, organismColumn);
+                    organismName = organismName == null ? "" : organismName.trim();
+                    // same values as the ones resolved by normalizeOrganismValue
+                    if (!organismName.isEmpty() && !organismName.matches("-?\\d+")) {
+                        organismNames.add(organismName);
+                    }
+                }
+            }
+        }
+        fetchTaxIdsForOrganisms(organismNames, organismLookupParallelism);
+    }
+
     /**
      * Formats interaction data from an Excel sheet.
      *
-     * @param baitColumnIndex        Index of the bait identifier column.
+     * @param baitColumnIndex        Index of the bait identifier column, or of the first bait column of a matrix.
      * @param preyColumnIndex        Index of the prey identifier column.
      * @param sheetSelected          Name of the Excel sheet to read from.
      * @param binary                 Whether the format is binary (each line is a bait-prey pair).
@@ -256,16 +637,25 @@ public class FileFormater {
                                 String sheetSelected, boolean binary,
                                 int baitNameColumnIndex, int preyNameColumnIndex) {
 
-        Iterator<Row> iterator = fileReader.readWorkbookSheet(sheetSelected);
-
-        formatFile(iterator,
-                row -> FileUtils.getCellValueAsString(row.getCell(baitColumnIndex)),
-                row -> FileUtils.getCellValueAsString(row.getCell(preyColumnIndex)),
-                row -> baitNameColumnIndex == -1 ? "" : FileUtils.getCellValueAsString(row.getCell(baitNameColumnIndex)),
-                row -> preyNameColumnIndex == -1 ? "" : FileUtils.getCellValueAsString(row.getCell(preyNameColumnIndex)),
-                this::extractRowValues,
-                binary
-        );
+        fetchOrganismTaxIds(() -> fileReader.readSheetRows(sheetSelected));
+        try (RowIterator iterator = fileReader.readSheetRows(sheetSelected)) {
+            if (matrixInput) {
+                formatMatrix(iterator, baitColumnIndex, preyColumnIndex, preyNameColumnIndex, binary);
+                return;
+            }
+            if (!binary && groupUnsortedBaits) {
+                formatGroupedByBait(iterator, baitColumnIndex, preyColumnIndex, baitNameColumnIndex, preyNameColumnIndex);
+                return;
+            }
+            formatFile(iterator,
+                    row -> getCellValue(row, baitColumnIndex),
+                    row -> getCellValue(row, preyColumnIndex),
+                    row -> getCellValue(row, baitNameColumnIndex),
+                    row -> getCellValue(row, preyNameColumnIndex),
+                    row -> row,
+                    binary
+            );
+        }
     }
 
     /**
@@ -276,80 +666,61 @@ public class FileFormater {
      * @param participantName       The participant name
      * @param experimentalRole   The type of participantId (e.g., "bait" or "prey").
      * @param rowIndex   Participant row index.
+     * @param rowValues  The values of the participant row, in the order of the file header.
      */
     public void addNewParticipant(String interactionNumber,
                                   String participantId,
                                   String participantName,
                                   String experimentalRole,
                                   int rowIndex,
-                                  Map<String, String> rowValues) {
-        Map<String, String> oneParticipant = new HashMap<>();
-
-        participantCountMap.put(interactionNumber, participantCountMap.getOrDefault(interactionNumber, 0) + 1);
-
-        for (InputData field : InputData.values()) {
-            if (field.initial) {
-                if (field.experimentalRoleDependent) {
-                    if ("bait".equalsIgnoreCase(experimentalRole)) {
-                        oneParticipant.put(field.name, resolveConfiguredValue(interactionData.get(field.name + BAIT.name), field, rowValues));
-                    } else if ("prey".equalsIgnoreCase(experimentalRole)) {
-                        oneParticipant.put(field.name, resolveConfiguredValue(interactionData.get(field.name + PREY.name), field, rowValues));
-                    }
-                } else {
-                    oneParticipant.put(field.name, resolveConfiguredValue(interactionData.get(field.name), field, rowValues));
-                }
-            }
+                                  List<String> rowValues) {
+        ParticipantColumnPlan plan = columnPlan != null ? columnPlan : compileColumnPlan();
+        // sized to hold all the output columns without resizing
+        Map<String, String> oneParticipant = new HashMap<>(2 * header.length);
+
+        if (participantWriter == null) {
+            participantCountMap.put(interactionNumber, participantCountMap.getOrDefault(interactionNumber, 0) + 1);
         }
 
+        plan.apply(oneParticipant, "bait".equalsIgnoreCase(experimentalRole), rowValues);
+
         oneParticipant.put(INTERACTION_NUMBER.name, interactionNumber);
         oneParticipant.put(PARTICIPANT_ID.name, participantId);
         oneParticipant.put(PARTICIPANT_NAME.name, participantName);
         oneParticipant.put(EXPERIMENTAL_ROLE.name, experimentalRole);
         oneParticipant.put(PARTICIPANT_ROW_INDEX.name, Objects.toString(rowIndex));
 
-        participants.add(oneParticipant);
-    }
-
-    private Map<String, String> extractRowValues(List<String> row) {
-        Map<String, String> rowValues = new HashMap<>();
-        List<String> headers = fileReader.fileData;
-        for (int i = 0; i < Math.min(headers.size(), row.size()); i++) {
-            rowValues.put(headers.get(i), row.get(i));
+        if (participantWriter != null) {
+            addToPendingInteraction(oneParticipant, rowValues);
+        } else {
+            participants.add(oneParticipant);
         }
-        return rowValues;
     }
 
-    private Map<String, String> extractRowValues(Row row) {
-        Map<String, String> rowValues = new HashMap<>();
-        List<String> headers = fileReader.fileData;
-        for (int i = 0; i < headers.size(); i++) {
-            rowValues.put(headers.get(i), FileUtils.getCellValueAsString(row.getCell(i)));
-        }
-        return rowValues;
+    private ParticipantColumnPlan compileColumnPlan() {
+        List<String> fileHeader = fileReader.fileData == null ? Collections.emptyList() : fileReader.fileData;
+        UnaryOperator<String> organismTransform = deferredOrganismNames != null
+                ? this::deferOrganismValue : this::normalizeOrganismValue;
+        return ParticipantColumnPlan.compile(interactionData, fileHeader, organismTransform);
     }
 
-    private String resolveConfiguredValue(String configuredValue, InputData field, Map<String, String> rowValues) {
-        if (configuredValue == null || configuredValue.isEmpty()) {
-            return configuredValue;
-        }
-
-        if (!configuredValue.startsWith(ParticipantAndInteractionCreatorGui.FILE_COLUMN_PREFIX)) {
-            return configuredValue;
-        }
-
-        String columnName = configuredValue.substring(ParticipantAndInteractionCreatorGui.FILE_COLUMN_PREFIX.length());
-        String rowValue = rowValues.getOrDefault(columnName, "");
-        if (rowValue == null || rowValue.trim().isEmpty()) {
-            return "";
-        }
-
-        if (field == HOST_ORGANISM || field == PARTICIPANT_ORGANISM || field == PARTICIPANT_EXPRESSED_IN_ORGANISM) {
-            return normalizeOrganismValue(rowValue);
+    /**
+     * Keeps an organism read from the input file as it is, collecting its name to resolve it with the others
+     * once the file is formatted.
+     */
+    private String deferOrganismValue(String rowValue) {
+        String trimmed = rowValue == null ? "" : rowValue.trim();
+        // same values as the ones resolved by normalizeOrganismValue
+        if (!trimmed.isEmpty() && !trimmed.matches("-?\\d+")) {
+            deferredOrganismNames.add(trimmed);
         }
-
         return rowValue;
     }
 
+    private String getCellValue(List<String> row, int columnIndex) {
+        return columnIndex >= 0 && columnIndex < row.size() ? row.get(columnIndex) : "";
+    }
+
     private String normalizeOrganismValue(String rowValue) {
         String trimmed = rowValue == null ? "" : rowValue.trim();
         if (trimmed.isEmpty()) {
@@ -368,22 +739,27 @@ public class FileFormater {
      * otherwise, it is classified as a "physical interaction."
      */
     public void addInteractionType() {
-        for (Map<String, String> participant : participants) {
-            String interactionNumber = participant.get(INTERACTION_NUMBER.name);
-            int count = participantCountMap.getOrDefault(interactionNumber, 0);
-            if (count > 2) {
-                participant.put(INTERACTION_TYPE.name, "association");
-            } else {
-                participant.put(INTERACTION_TYPE.name, "physical association");
-            }
+        // computed once per interaction number
+        participants.deriveColumn(INTERACTION_TYPE.name, INTERACTION_NUMBER.name,
+                interactionNumber -> getInteractionType(participantCountMap.getOrDefault(interactionNumber, 0)));
+    }
+
+    private void setInteractionType(Map<String, String> participant, int participantCount) {
+        participant.put(INTERACTION_TYPE.name, getInteractionType(participantCount));
+    }
+
+    private String getInteractionType(int participantCount) {
+        if (participantCount > 2) {
+            return "association";
+        } else {
+            return "physical association";
         }
     }
 
     /**
-     * Adds feature-related information to the formatted data.
-     * This method includes adding feature columns for each participant (bait or prey) based on available features.
+     * Extends the header with the feature columns.
      */
-    private void addAllFeatures() {
+    private void addFeaturesHeader() {
         int numberOfColumnsToAdd = getNumberOfFeaturesColumns() * numberOfFeatureCells();
         ArrayList<String> featuresHeader = getFeaturesHeader();
         String[] extendedHeader = Arrays.copyOf(header, header.length + numberOfColumnsToAdd);
@@ -393,14 +769,29 @@ public class FileFormater {
         }
 
         header = extendedHeader;
+    }
 
-        for (Map<String, String> participant : participants) {
-            String participantExperimentalRole = participant.get(EXPERIMENTAL_ROLE.name);
-            if (participantExperimentalRole.trim().equals("prey")) {
-                addOneFeature(participant, preyFeatures);
-            } else if (participantExperimentalRole.trim().equals("bait")) {
-                addOneFeature(participant, baitFeatures);
-            }
+    private void addParticipantFeatures(Map<String, String> participant, List<String> row) {
+        String participantExperimentalRole = participant.get(EXPERIMENTAL_ROLE.name);
+        if (participantExperimentalRole.trim().equals("prey")) {
+            addOneFeature(participant, row, preyFeatureColumns);
+        } else if (participantExperimentalRole.trim().equals("bait")) {
+            addOneFeature(participant, row, baitFeatureColumns);
+        }
+    }
+
+    /**
+     * Resolves the columns of the bait and prey features against the header of the input file,
+     * once for all the participants.
+     */
+    private void compileFeatureColumns() {
+        baitFeatureColumns.clear();
+        preyFeatureColumns.clear();
+        for (int i = 0; i < baitFeatures.size(); i++) {
+            baitFeatureColumns.add(FeatureColumns.compile(baitFeatures.get(i), i, fileReader::getColumnIndex));
+        }
+        for (int i = 0; i < preyFeatures.size(); i++) {
+            preyFeatureColumns.add(FeatureColumns.compile(preyFeatures.get(i), i, fileReader::getColumnIndex));
         }
     }
 
@@ -415,67 +806,24 @@ public class FileFormater {
 
     /**
      * Adds feature information to a specific row based on the provided list of features.
+     * All the feature columns are filled from the input row of the participant.
      *
      * @param participant The row to which feature information will be added.
-     * @param features The list of feature data to be added to the row.
+     * @param row The values of the input row of the participant.
+     * @param features The compiled columns of the features to be added to the row.
      */
-    private void addOneFeature(Map<String, String> participant, List<Feature> features) {
-        List<InputData> featureFields = Arrays.stream(InputData.values())
-                .filter(field -> !field.initial)
-                .collect(Collectors.toList());
-
+    private void addOneFeature(Map<String, String> participant, List<String> row, List<FeatureColumns> features) {
         if (features.isEmpty()) {
-            for (InputData featureField : featureFields) {
-                participant.put(featureField.name(), "");
-            }
-        } else {
-            for (int i = 0; i < features.size(); i++) {
-                String adding = "_" + i;
-                Feature feature = features.get(i);
-                participant.put(FEATURE_SHORT_NAME.name + adding, feature.getShortName());
-                participant.put(FEATURE_TYPE.name + adding, feature.getType());
-                participant.put(FEATURE_START_LOCATION.name + adding, feature.getStartLocation());
-                participant.put(FEATURE_END_LOCATION.name + adding, feature.getEndLocation());
-                participant.put(FEATURE_RANGE_TYPE.name + adding, feature.getRangeType());
-
-                participant.put(FEATURE_XREF.name + adding, feature.getListAsString(feature.getXref()));
-                participant.put(FEATURE_XREF_DB.name + adding, feature.getListAsString(feature.getXrefDb()));
-                participant.put(FEATURE_XREF_QUALIFIER.name + adding, feature.getListAsString(feature.getXrefQualifier()));
-
-                participant.put(FEATURE_PARAM_TYPE.name + adding, feature.getParameterTypes());
-                participant.put(FEATURE_PARAM_VALUE.name + adding, feature.getParameterValues());
-                participant.put(FEATURE_PARAM_VALUE.name + adding, getValueFromFile((FEATURE_PARAM_VALUE.name + adding), participant));
-
-                participant.put(FEATURE_PARAM_UNIT.name + adding, feature.getParameterUnits());
-                participant.put(FEATURE_PARAM_BASE.name + adding, feature.getParameterBases());
-                participant.put(FEATURE_PARAM_EXPONENT.name + adding, feature.getParameterExponents());
-
-                participant.put(FEATURE_PARAM_UNCERTAINTY.name + adding, feature.getParameterUncertainties());
-                participant.put(FEATURE_PARAM_UNCERTAINTY.name + adding, getValueFromFile((FEATURE_PARAM_UNCERTAINTY.name + adding), participant));
-
-                participant.put(FEATURE_ROLE.name + adding, feature.getRole());
-
-                participant.put(FEATURE_ORIGINAL_SEQUENCE.name + adding,
-                        "Original Sequence".equalsIgnoreCase(feature.getOriginalSequence()) ? "" : feature.getOriginalSequence());
-
-                participant.put(FEATURE_NEW_SEQUENCE.name + adding,
-                        "New Sequence".equalsIgnoreCase(feature.getNewSequence()) ? "" : feature.getNewSequence());
-
-                if (feature.isFetchFromFile()){
-                    participant.put(FEATURE_SHORT_NAME.name + adding, getValueFromFile((FEATURE_SHORT_NAME.name + adding), participant));
-                    participant.put(FEATURE_TYPE.name + adding, getValueFromFile((FEATURE_TYPE.name + adding), participant));
-                    participant.put(FEATURE_START_LOCATION.name + adding, getValueFromFile((FEATURE_START_LOCATION.name + adding), participant));
-                    participant.put(FEATURE_END_LOCATION.name + adding, getValueFromFile((FEATURE_END_LOCATION.name + adding), participant));
-                    participant.put(FEATURE_RANGE_TYPE.name + adding, getValueFromFile((FEATURE_RANGE_TYPE.name + adding), participant));
-                    participant.put(FEATURE_ORIGINAL_SEQUENCE.name + adding, getValueFromFile((FEATURE_ORIGINAL_SEQUENCE.name + adding), participant));
-                    participant.put(FEATURE_NEW_SEQUENCE.name + adding, getValueFromFile((FEATURE_NEW_SEQUENCE.name + adding), participant));
-                    participant.put(FEATURE_ROLE.name + adding, getValueFromFile((FEATURE_ROLE.name + adding), participant));
-
-                    participant.put(FEATURE_XREF.name + adding, getValueFromFile((FEATURE_XREF.name + adding), participant));
-                    participant.put(FEATURE_XREF_DB.name + adding, getValueFromFile((FEATURE_XREF_DB.name + adding), participant));
-                    participant.put(FEATURE_XREF_QUALIFIER.name + adding, getValueFromFile((FEATURE_XREF_QUALIFIER.name + adding), participant));
+            for (InputData featureField : InputData.values()) {
+                if (!featureField.initial) {
+                    participant.put(featureField.name(), "");
                 }
             }
+            return;
+        }
+
+        for (FeatureColumns feature : features) {
+            feature.apply(participant, row);
         }
     }
 
@@ -529,70 +877,29 @@ public class FileFormater {
         }
     }
 
-    /**
-     * Adds parameter-related metadata (unit, base, exponent, type, uncertainty)
-     * to each participant in the interaction dataset.
-     * <p>
-     * Values are extracted directly from the participant map using column names
-     * defined in {@link Parameter} objects loaded via the GUI.
-     * </p>
-     */
-    private void addInteractionParameters() {
-        if (parametersGui == null || parametersGui.getParameters().isEmpty()) {
-            LOGGER.severe("Parameters GUI or parameters list is null");
-            return;
-        }
-
-        if (participants.isEmpty()) {
-            LOGGER.severe("Participants list is null or empty");
-            return;
-        }
-
-        List<Parameter> parameters = parametersGui.getParameters();
+    private void addParticipantParameters(Map<String, String> participant, List<String> row, List<Parameter> parameters) {
+        for (Parameter parameter : parameters) {
+            if (parameter == null) continue;
 
-        for (Map<String, String> participant : participants) {
-            if (participant == null) continue;
-
-            for (Parameter parameter : parameters) {
-                if (parameter == null) continue;
-
-                checkAndAddToCurrentString(INTERACTION_PARAM_VALUE.name, parameter.getValueColumn(), participant);
-                checkAndAddToCurrentString(INTERACTION_PARAM_UNIT.name, parameter.getUnit(), participant);
-                checkAndAddToCurrentString(INTERACTION_PARAM_EXPONENT.name, parameter.getExponent(), participant);
-                checkAndAddToCurrentString(INTERACTION_PARAM_BASE.name, parameter.getBase(), participant);
-                checkAndAddToCurrentString(INTERACTION_PARAM_TYPE.name, parameter.getType(), participant);
-                checkAndAddToCurrentString(INTERACTION_PARAM_UNCERTAINTY.name, parameter.getUncertaintyColumn(), participant);
-            }
-            participant.put(INTERACTION_PARAM_VALUE.name, getValueFromFile(INTERACTION_PARAM_VALUE.name, participant));
-            participant.put(INTERACTION_PARAM_UNCERTAINTY.name, getValueFromFile(INTERACTION_PARAM_UNCERTAINTY.name, participant));
+            checkAndAddToCurrentString(INTERACTION_PARAM_VALUE.name, parameter.getValueColumn(), participant);
+            checkAndAddToCurrentString(INTERACTION_PARAM_UNIT.name, parameter.getUnit(), participant);
+            checkAndAddToCurrentString(INTERACTION_PARAM_EXPONENT.name, parameter.getExponent(), participant);
+            checkAndAddToCurrentString(INTERACTION_PARAM_BASE.name, parameter.getBase(), participant);
+            checkAndAddToCurrentString(INTERACTION_PARAM_TYPE.name, parameter.getType(), participant);
+            checkAndAddToCurrentString(INTERACTION_PARAM_UNCERTAINTY.name, parameter.getUncertaintyColumn(), participant);
         }
+        participant.put(INTERACTION_PARAM_VALUE.name, getValueFromFile(INTERACTION_PARAM_VALUE.name, participant, row));
+        participant.put(INTERACTION_PARAM_UNCERTAINTY.name, getValueFromFile(INTERACTION_PARAM_UNCERTAINTY.name, participant, row));
     }
 
-    /**
-     * Adds variableExperimentalCondition-related metadata
-     * to each participant in the interaction dataset.
-     */
-    private void addVariableConditions(){
-        if (variableExperimentalConditionGui == null || variableExperimentalConditionGui.getExperimentalConditions().isEmpty()) {
-            LOGGER.severe("Parameters GUI or parameters list is null");
-            return;
+    private void addParticipantVariableConditions(Map<String, String> participant, List<String> row,
+                                                  List<VariableExperimentalCondition> variableExperimentalConditions) {
+        for  (VariableExperimentalCondition variableExperimentalCondition : variableExperimentalConditions) {
+            checkAndAddToCurrentString(EXPERIMENTAL_VARIABLE_CONDITION_DESCRIPTION.name, variableExperimentalCondition.getDescription(), participant);
+            checkAndAddToCurrentString(EXPERIMENTAL_VARIABLE_CONDITION_VALUE.name,  variableExperimentalCondition.getValueColumn(), participant);
+            checkAndAddToCurrentString(EXPERIMENTAL_VARIABLE_CONDITION_UNIT.name,  variableExperimentalCondition.getUnit(), participant);
         }
-        if (participants.isEmpty()) {
-            LOGGER.severe("Participants list is null or empty");
-            return;
-        }
-
-        List<VariableExperimentalCondition> variableExperimentalConditions = variableExperimentalConditionGui.getExperimentalConditions();
-
-        for (Map<String, String> participant : participants) {
-            for  (VariableExperimentalCondition variableExperimentalCondition : variableExperimentalConditions) {
-                checkAndAddToCurrentString(EXPERIMENTAL_VARIABLE_CONDITION_DESCRIPTION.name, variableExperimentalCondition.getDescription(), participant);
-                checkAndAddToCurrentString(EXPERIMENTAL_VARIABLE_CONDITION_VALUE.name,  variableExperimentalCondition.getValueColumn(), participant);
-                checkAndAddToCurrentString(EXPERIMENTAL_VARIABLE_CONDITION_UNIT.name,  variableExperimentalCondition.getUnit(), participant);
-            }
-            participant.put(EXPERIMENTAL_VARIABLE_CONDITION_VALUE.name, getValueFromFile(EXPERIMENTAL_VARIABLE_CONDITION_VALUE.name, participant));
-        }
-
+        participant.put(EXPERIMENTAL_VARIABLE_CONDITION_VALUE.name, getValueFromFile(EXPERIMENTAL_VARIABLE_CONDITION_VALUE.name, participant, row));
     }
 
     /**
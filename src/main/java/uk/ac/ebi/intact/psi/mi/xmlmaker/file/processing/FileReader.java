@@ -1,8 +1,5 @@
 package uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing;
 
-import com.opencsv.CSVParserBuilder;
-import com.opencsv.CSVReader;
-import com.opencsv.CSVReaderBuilder;
 import lombok.Getter;
 import lombok.Setter;
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
@@ -17,12 +14,11 @@ import javax.swing.*;
 import java.awt.Font;
 import java.awt.*;
 import java.io.*;
+import java.nio.charset.Charset;
 import java.util.*;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 
 import static uk.ac.ebi.intact.psi.mi.xmlmaker.utils.GuiUtils.*;
 
@@ -46,6 +42,18 @@ public class FileReader {
 
     @Getter
     private char separator;
+
+    /**
+     * Number of threads used to parse CSV/TSV files. With 1, files are parsed by a single opencsv reader.
+     */
+    @Getter
+    private int parsingParallelism = 1;
+
+    /**
+     * Whether CSV/TSV files are memory-mapped and indexed on open instead of being parsed into memory.
+     */
+    @Getter
+    private boolean memoryMappedInput;
     private final JLabel currentFileLabel;
     private final List<String> columns = new ArrayList<>();
 
@@ -57,7 +65,10 @@ public class FileReader {
 
     @Getter @Setter String sheetSelectedUpdate;
 
-    @Getter private Workbook workbook;
+    private Workbook workbook;
+
+    private ParsedFileSession session;
+    private final Map<String, List<String>> sheetHeaders = new HashMap<>();
 
     public List<String> fileData;
     public final List<String> sheets = new ArrayList<>();
@@ -84,11 +95,15 @@ public class FileReader {
         fileData = new ArrayList<>();
         sheets.clear();
         columns.clear();
+        workbook = null;
+        session = null;
+        sheetHeaders.clear();
 
         try {
             if (!handleFileByType(fileType, filePath)) {
                 LOGGER.warning("Unsupported file format: " + fileType);
-                showErrorDialog("Unsupported file format! Supported formats: .csv, .tsv, .xls, .xlsx");
+                showErrorDialog("Unsupported file format! Supported formats: .csv, .tsv, .xls, .xlsx, "
+                        + "and .csv or .tsv compressed with gzip (.gz), zstd (.zst) or xz (.xz)");
                 return;
             }
             fireInputSelectedEvent(new InputSelectedEvent(file));
@@ -99,7 +114,8 @@ public class FileReader {
     }
 
     /**
-     * Processes the file based on its extension.
+     * Processes the file based on its extension. CSV and TSV files can be compressed,
+     * their content is then decompressed while it is read.
      *
      * @param fileType the file extension (e.g. "csv", "xlsx")
      * @param filePath the full path to the file
@@ -108,6 +124,9 @@ public class FileReader {
      */
     private boolean handleFileByType(String fileType, String filePath) throws IOException {
         LOGGER.info("Reading " + fileType + " file: " + fileName);
+        if (isExcelFile() && FileUtils.isCompressed(filePath)) {
+            return false;
+        }
         switch (fileType) {
             case "xlsx":
                 readXlsxFile(filePath);
@@ -117,11 +136,11 @@ public class FileReader {
                 return true;
             case "csv":
                 separator = ',';
-                readFileWithSeparator();
+                readSeparatedFileHeader();
                 return true;
             case "tsv":
                 separator = '\t';
-                readFileWithSeparator();
+                readSeparatedFileHeader();
                 return true;
             default:
                 return false;
@@ -129,39 +148,71 @@ public class FileReader {
     }
 
     /**
-     * Reads an XLS file using Apache POI.
+     * Reads the sheet list of an XLS file from its workbook records.
+     * The content of the sheets is not loaded, rows are streamed with {@link #readSheetRows(String)}.
      *
      * @param filePath The path to the XLS file.
      * @throws IOException If the file cannot be read.
      */
     public void readXlsFile(String filePath) throws IOException {
-        try (POIFSFileSystem poifsFileSystem = new POIFSFileSystem(new File(filePath))) {
-            workbook = new HSSFWorkbook(poifsFileSystem);
-            getSheets();
-        }
+        sheets.clear();
+        sheets.addAll(XlsRowIterator.readSheetNames(filePath));
     }
 
     /**
-     * Reads an XLSX file using Apache POI.
+     * Reads the sheet list of an XLSX file using the Apache POI event API.
+     * The content of the sheets is not loaded, rows are streamed with {@link #readSheetRows(String)}.
      *
      * @param filePath The path to the XLSX file.
      * @throws IOException If the file cannot be read.
      */
     public void readXlsxFile(String filePath) throws IOException {
-        try (FileInputStream fileInputStream = new FileInputStream(filePath)) {
-            workbook = new XSSFWorkbook(fileInputStream);
-            getSheets();
+        sheets.clear();
+        sheets.addAll(XlsxRowIterator.readSheetNames(filePath));
+    }
+
+    /**
+     * Gets the workbook model of the current Excel file, loading it on the first call.
+     * Reading rows does not need the workbook, it is only loaded when the file has to be modified.
+     *
+     * @return the workbook, or {@code null} if the current file is not an Excel file or cannot be read.
+     */
+    public Workbook getWorkbook() {
+        if (workbook == null && isExcelFile()) {
+            try {
+                if ("xlsx".equalsIgnoreCase(fileType)) {
+                    try (FileInputStream fileInputStream = new FileInputStream(currentFilePath)) {
+                        workbook = new XSSFWorkbook(fileInputStream);
+                    }
+                } else {
+                    try (POIFSFileSystem poifsFileSystem = new POIFSFileSystem(new File(currentFilePath))) {
+                        workbook = new HSSFWorkbook(poifsFileSystem);
+                    }
+                }
+            } catch (IOException e) {
+                LOGGER.log(Level.SEVERE, "Error reading file: " + fileName, e);
+                showErrorDialog("Unable to read file: " + e);
+            }
         }
+        return workbook;
+    }
+
+    /**
+     * @return {@code true} if the current file is an Excel file (XLS, XLSX), {@code false} otherwise.
+     */
+    public boolean isExcelFile() {
+        return "xlsx".equalsIgnoreCase(fileType) || "xls".equalsIgnoreCase(fileType);
     }
 
     /**
      * Reads the specified sheet from the workbook and returns an iterator over its rows.
+     * This loads the whole workbook, use {@link #readSheetRows(String)} to only read the rows.
      *
      * @param sheetSelected the name of the sheet to read.
      * @return an iterator of rows from the selected sheet. If the sheet does not exist, returns an empty iterator.
      */
     public Iterator<Row> readWorkbookSheet(String sheetSelected) {
-        Sheet sheet = workbook.getSheet(sheetSelected);
+        Sheet sheet = getWorkbook() == null ? null : workbook.getSheet(sheetSelected);
         if (sheet == null) {
             LOGGER.severe("Sheet '" + sheetSelected + "' does not exist.");
             return Collections.emptyIterator();
@@ -181,37 +232,207 @@ public class FileReader {
     }
 
     /**
-         * Reads the CSV/TSV file and store its content.
-         *
-         * @return the file data
-         */
-    public Iterator<List<String>> readFileWithSeparator() {
-        Iterator<List<String>> iterator = null;
-
-        try (InputStream fileStream = new FileInputStream(currentFilePath);
-             BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(fileStream));
-             CSVReader csvReader = new CSVReaderBuilder(bufferedReader)
-                     .withCSVParser(new CSVParserBuilder()
-                             .withSeparator(separator)
-                             .withIgnoreQuotations(false)
-                             .build())
-                     .build()) {
-
-            iterator = StreamSupport.stream(
-                            Spliterators.spliteratorUnknownSize(csvReader.iterator(), Spliterator.ORDERED), false)
-                    .map(row -> Arrays.stream(row).map(String::trim).collect(Collectors.toList()))
-                    .collect(Collectors.toList()).iterator();
+     * Opens the specified sheet of the Excel file as a lazy row stream and stores its header in {@code fileData}.
+     * The returned iterator must be closed once it is no longer needed.
+     *
+     * @param sheetSelected the name of the sheet to read.
+     * @return an iterator over the rows following the header, or {@code null} if the sheet cannot be read.
+     */
+    public RowIterator readSheetRows(String sheetSelected) {
+        return readRows(sheetSelected);
+    }
 
+    /**
+     * Opens the rows of the current file and stores its header in {@code fileData}.
+     * The rows come from the parsed session when it is still valid for this file and sheet,
+     * otherwise they are streamed from the file.
+     *
+     * @param sheetSelected the name of the sheet to read, or {@code null} for a separated file.
+     * @return an iterator over the rows following the header, or {@code null} if the file cannot be read.
+     */
+    private RowIterator readRows(String sheetSelected) {
+        validateSession();
+        if (session != null && session.matches(currentFilePath, sheetSelected)) {
+            fileData = new ArrayList<>(session.getHeader());
+            return session.rowIterator();
+        }
+
+        RowIterator iterator = null;
+        try {
+            iterator = openRows(sheetSelected);
             if (iterator.hasNext()) {
                 fileData = iterator.next();
             }
             return iterator;
-
-        } catch (IOException e) {
-            LOGGER.log(Level.SEVERE, "Unable to read file with separator", e);
+        } catch (IOException | UncheckedIOException e) {
+            if (iterator != null) {
+                iterator.close();
+            }
+            LOGGER.log(Level.SEVERE, "Unable to read file: " + fileName, e);
             showErrorDialog("Error reading file: " + e.getMessage());
         }
-        return iterator;
+        return null;
+    }
+
+    /**
+     * Opens an iterator over all the rows of the current file, header included.
+     *
+     * @param sheetSelected the name of the sheet to read, or {@code null} for a separated file.
+     * @return the row iterator of the file.
+     * @throws IOException if the file or the sheet cannot be read.
+     */
+    private RowIterator openRows(String sheetSelected) throws IOException {
+        if ("xlsx".equalsIgnoreCase(fileType)) {
+            return XlsxRowIterator.open(currentFilePath, sheetSelected);
+        }
+        if ("xls".equalsIgnoreCase(fileType)) {
+            return XlsRowIterator.open(currentFilePath, sheetSelected);
+        }
+        InputStream input = FileUtils.openInputStream(currentFilePath);
+        if (parsingParallelism > 1) {
+            return new ParallelSeparatedRowIterator(input, Charset.defaultCharset(), separator, parsingParallelism);
+        }
+        return new SeparatedRowIterator(new BufferedReader(new InputStreamReader(input)), separator);
+    }
+
+    /**
+     * Sets the number of threads used to parse CSV/TSV files.
+     *
+     * @param parsingParallelism the number of threads, 1 to parse the files on the calling thread.
+     */
+    public void setParsingParallelism(int parsingParallelism) {
+        if (parsingParallelism < 1) {
+            throw new IllegalArgumentException("The parsing parallelism must be at least 1: " + parsingParallelism);
+        }
+        this.parsingParallelism = parsingParallelism;
+    }
+
+    /**
+     * Enables or disables the memory-mapped mode for CSV/TSV files. Compressed files cannot be mapped,
+     * they are parsed into memory whatever the mode.
+     * The current session is dropped, so the file is opened again with the new mode.
+     *
+     * @param memoryMappedInput {@code true} to memory-map the files, {@code false} to parse them into memory.
+     */
+    public void setMemoryMappedInput(boolean memoryMappedInput) {
+        this.memoryMappedInput = memoryMappedInput;
+        session = null;
+    }
+
+    /**
+     * Gets the header of a sheet, reading only its first row. Headers are kept until another file is opened.
+     *
+     * @param sheetSelected the name of the sheet.
+     * @return the header of the sheet, or an empty list if it cannot be read.
+     */
+    private List<String> getSheetHeader(String sheetSelected) {
+        List<String> header = sheetHeaders.get(sheetSelected);
+        if (header == null) {
+            header = new ArrayList<>();
+            try (RowIterator iterator = openRows(sheetSelected)) {
+                if (iterator.hasNext()) {
+                    header = iterator.next();
+                }
+                sheetHeaders.put(sheetSelected, header);
+            } catch (IOException | UncheckedIOException e) {
+                LOGGER.warning("Unable to read the header of the sheet " + sheetSelected + ": " + e.getMessage());
+            }
+        }
+        return header;
+    }
+
+    /**
+     * Opens the CSV/TSV file as a lazy row stream and stores its header in {@code fileData}.
+     * The rows are parsed on demand, the returned iterator must be closed once it is no longer needed.
+     *
+     * @return an iterator over the rows following the header, or {@code null} if the file cannot be opened.
+     */
+    public RowIterator readFileWithSeparator() {
+        return readRows(null);
+    }
+
+    /**
+     * Reads only the header of the CSV/TSV file and stores it in {@code fileData}.
+     * In memory-mapped mode, the file is mapped and indexed here so that the following reads use the index.
+     */
+    private void readSeparatedFileHeader() {
+        if (isMemoryMapped() && getSession() == null) {
+            return;
+        }
+        RowIterator iterator = readFileWithSeparator();
+        if (iterator != null) {
+            iterator.close();
+        }
+    }
+
+    /**
+     * Gets the parsed content of the current CSV/TSV file, or of the selected sheet of the Excel file.
+     * The file is parsed on the first call only, the following calls reuse the same session
+     * until another file or sheet is selected, or until {@link #validateSession()} finds that the file changed on disk.
+     *
+     * @return the session of the current file, or {@code null} if the file cannot be read.
+     */
+    public ParsedFileSession getSession() {
+        if (currentFilePath == null) {
+            return null;
+        }
+        String sheetSelected = isExcelFile() ? sheetSelectedUpdate : null;
+        if (session == null || !session.matches(currentFilePath, sheetSelected)) {
+            session = null;
+            if (isMemoryMapped()) {
+                try {
+                    session = ParsedFileSession.map(currentFilePath, separator);
+                } catch (IOException | UncheckedIOException e) {
+                    LOGGER.log(Level.SEVERE, "Unable to map file: " + fileName, e);
+                    showErrorDialog("Error reading file: " + e.getMessage());
+                }
+                return session;
+            }
+            try (RowIterator iterator = openRows(sheetSelected)) {
+                session = ParsedFileSession.load(currentFilePath, sheetSelected, iterator);
+            } catch (IOException | UncheckedIOException e) {
+                LOGGER.log(Level.SEVERE, "Unable to parse file: " + fileName, e);
+                showErrorDialog("Error reading file: " + e.getMessage());
+            }
+        }
+        return session;
+    }
+
+    /**
+     * Drops the current session if the file changed on disk since it was parsed, so that the next access parses
+     * it again. The file attributes are read here only, once at the start of each operation reading the file,
+     * rather than on each access to the session.
+     */
+    public void validateSession() {
+        if (session != null && !session.isUnchanged()) {
+            LOGGER.info("File changed on disk, it will be parsed again: " + fileName);
+            session = null;
+        }
+    }
+
+    /**
+     * Drops the current session if it reads a memory-mapped file, so that the following reads stream the file.
+     * This is done before the file is replaced on disk: the mapping is then no longer used,
+     * and it is released once garbage collected.
+     */
+    public void releaseMappedSession() {
+        if (session != null && session.getRows() instanceof MappedRowStore) {
+            session = null;
+        }
+    }
+
+    private boolean isMemoryMapped() {
+        return memoryMappedInput && !isExcelFile() && !FileUtils.isCompressed(currentFilePath);
+    }
+
+    /**
+     * Gets the rows of the current file indexed by their position.
+     *
+     * @return the row store of the current session, or {@code null} if the file cannot be read.
+     */
+    public RowStore getRowStore() {
+        ParsedFileSession currentSession = getSession();
+        return currentSession == null ? null : currentSession.getRows();
     }
 
     // GUI data
@@ -221,10 +442,14 @@ public class FileReader {
      */
     public void getSheets() {
         sheets.clear();
-        if (workbook != null) {
-            for (int i = 0; i < workbook.getNumberOfSheets(); i++) {
-                sheets.add(workbook.getSheetName(i));
+        try {
+            if ("xlsx".equalsIgnoreCase(fileType)) {
+                sheets.addAll(XlsxRowIterator.readSheetNames(currentFilePath));
+            } else if ("xls".equalsIgnoreCase(fileType)) {
+                sheets.addAll(XlsRowIterator.readSheetNames(currentFilePath));
             }
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Unable to read the sheets of " + fileName, e);
         }
     }
 
@@ -243,24 +468,8 @@ public class FileReader {
             return columns;
         }
 
-        if (fileType.equalsIgnoreCase("xlsx") || fileType.equalsIgnoreCase("xls")) {
-            if (workbook == null) {
-                LOGGER.warning("No Excel workbook data loaded.");
-                return columns;
-            }
-            Sheet sheet = workbook.getSheet(sheetSelected);
-            if (sheet == null) {
-                LOGGER.warning("Sheet not found: " + sheetSelected);
-                return columns;
-            }
-            Row headerRow = sheet.getRow(0);
-            if (headerRow == null) {
-                LOGGER.warning("Header row is missing in the sheet: " + sheetSelected);
-                return columns;
-            }
-            for (Cell cell : headerRow) {
-                columns.add(formatter.formatCellValue(cell));
-            }
+        if (isExcelFile()) {
+            columns.addAll(getSheetHeader(sheetSelected));
 
         } else if (fileType.equalsIgnoreCase("csv") || fileType.equalsIgnoreCase("tsv")) {
             if (fileData == null || fileData.isEmpty()) {
@@ -281,6 +490,23 @@ public class FileReader {
         return columns;
     }
 
+    /**
+     * Gets the index of a column of the current file, or of the selected sheet of the Excel file, from its name.
+     * When the file is parsed, the index is looked up in the column dictionary of its session,
+     * otherwise it is searched in the header of the file, without parsing the file.
+     *
+     * @param columnName the name of the column.
+     * @return the index of the first column with this name, or -1 if not found.
+     */
+    public int getColumnIndex(String columnName) {
+        String sheetSelected = isExcelFile() ? sheetSelectedUpdate : null;
+        if (session != null && session.matches(currentFilePath, sheetSelected)) {
+            return session.getColumnIndex(columnName);
+        }
+        List<String> header = isExcelFile() ? getSheetHeader(sheetSelected) : fileData;
+        return header == null ? -1 : header.indexOf(columnName);
+    }
+
     /**
      * Returns the file label for the GUI.
      *
@@ -303,6 +529,7 @@ public class FileReader {
 
     /**
      * Retrieves the first few lines from the specified sheet or separated file.
+     * Only the requested rows are read, the rest of the file is not parsed.
      *
      * @param sheetSelected the name of the sheet (if applicable).
      * @param numberOfRows  the number of rows to retrieve.
@@ -312,22 +539,11 @@ public class FileReader {
         List<List<String>> firstLines = new ArrayList<>();
         int i = 0;
 
-        if (workbook == null){
-            Iterator<List<String>> iteratorSeparated = readFileWithSeparator();
-            while (iteratorSeparated.hasNext() && i < numberOfRows) {
-                firstLines.add(iteratorSeparated.next());
+        try (RowIterator iterator = isExcelFile() ? readSheetRows(sheetSelected) : readFileWithSeparator()) {
+            while (iterator != null && iterator.hasNext() && i < numberOfRows) {
+                firstLines.add(iterator.next());
                 i++;
             }
-            return firstLines;
-        }
-        Iterator<Row> iteratorWorkbook = readWorkbookSheet(sheetSelected);
-        while (iteratorWorkbook.hasNext() && i < numberOfRows) {
-            Row row = iteratorWorkbook.next();
-            List<String> currentLine = new ArrayList<>();
-            for (int j = 0; j < row.getLastCellNum(); j++) {
-                currentLine.add(FileUtils.getCellValueAsString(row.getCell(j)));
-            }
-            firstLines.add(currentLine);
         }
         return firstLines;
     }
@@ -2,19 +2,27 @@ package uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing;
 
 import com.opencsv.CSVWriter;
 import lombok.Getter;
+import lombok.Setter;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import uk.ac.ebi.intact.psi.mi.xmlmaker.models.UniprotResult;
 import uk.ac.ebi.intact.psi.mi.xmlmaker.uniprot.mapping.MoleculeSetChecker;
 import uk.ac.ebi.intact.psi.mi.xmlmaker.uniprot.mapping.UniprotGeneralMapper;
 import uk.ac.ebi.intact.psi.mi.xmlmaker.uniprot.mapping.UniprotGeneralMapperGui;
+import uk.ac.ebi.intact.psi.mi.xmlmaker.uniprot.mapping.UniprotResultCache;
 import uk.ac.ebi.intact.psi.mi.xmlmaker.utils.FileUtils;
 
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -23,12 +31,21 @@ import static uk.ac.ebi.intact.psi.mi.xmlmaker.utils.GuiUtils.showErrorDialog;
 
 public class FileWriter {
     private final FileReader fileReader;
+    @Getter
     private final UniprotGeneralMapper uniprotGeneralMapper = new UniprotGeneralMapper();
     private final MoleculeSetChecker moleculeSetChecker = new MoleculeSetChecker();
 
     private final Map<String, UniprotResult> alreadyParsed = new HashMap<>();
     private final Map<String, ArrayList<UniprotResult>> batchParsed = new HashMap<>();
 
+    /**
+     * The UniProt entries found in previous runs, kept on disk so that they are not looked up again.
+     * Its time to live and size can be set through {@link UniprotResultCache#setTimeToLive} and
+     * {@link UniprotResultCache#setMaxEntries}.
+     */
+    @Getter @Setter
+    private UniprotResultCache uniprotResultCache = new UniprotResultCache();
+
     @Getter
     private final List<String> proteinsPartOfMoleculeSet = new ArrayList<>();
     @Getter
@@ -36,6 +53,14 @@ public class FileWriter {
     @Getter
     private final List<String> uniprotFilterWarnings = new ArrayList<>();
 
+    /**
+     * Number of rows kept in memory when writing an XLSX file. Older rows are flushed to compressed
+     * temporary files, so the memory used does not depend on the number of rows.
+     * With 0 or less, the whole XLSX workbook is built in memory before being written.
+     */
+    @Getter @Setter
+    private int excelRowWindow = SXSSFWorkbook.DEFAULT_WINDOW_SIZE;
+
     private final Logger LOGGER = Logger.getLogger(FileWriter.class.getName());
 
     public FileWriter(FileReader fileReader) {
@@ -43,71 +68,94 @@ public class FileWriter {
     }
 
     /**
-     * Writes interaction data to a delimited file (CSV or TSV).
+     * Opens a delimited file (CSV or TSV) for writing participants one at a time, and writes its header.
      *
-     * @param data       List of participant maps to write.
      * @param filePath   Output file path.
      * @param delimiter  Field delimiter (e.g., ',' for CSV or '\t' for TSV).
      * @param header     Array of column headers to include.
+     * @return the writer of the file, to be closed once all the participants are written.
+     * @throws IOException if the file cannot be created.
      */
-    public void writeToFile(List<Map<String, String>> data, String filePath, char delimiter, String[] header) {
-        try (CSVWriter writer = new CSVWriter(
+    public ParticipantWriter openSeparatedWriter(String filePath, char delimiter, String[] header) throws IOException {
+        CSVWriter writer = new CSVWriter(
                 new OutputStreamWriter(new FileOutputStream(filePath), StandardCharsets.UTF_8),
                 delimiter,
                 CSVWriter.DEFAULT_QUOTE_CHARACTER,
                 CSVWriter.DEFAULT_ESCAPE_CHARACTER,
-                CSVWriter.DEFAULT_LINE_END)) {
-
-            writer.writeNext(header);
+                CSVWriter.DEFAULT_LINE_END);
+        writer.writeNext(header);
 
-            for (Map<String, String> row : data) {
+        return new ParticipantWriter() {
+            @Override
+            public void write(Map<String, String> participant) {
                 String[] line = Arrays.stream(header)
-                        .map(h -> row.getOrDefault(h, ""))
+                        .map(h -> participant.getOrDefault(h, ""))
                         .toArray(String[]::new);
                 writer.writeNext(line);
             }
 
-        } catch (IOException e) {
-            LOGGER.warning("Error writing to file: " + e.getMessage());
-            throw new RuntimeException(e);
-        }
+            @Override
+            public void close() throws IOException {
+                // the writer keeps the write errors, they are checked once all the rows are flushed
+                boolean failed = writer.checkError();
+                writer.close();
+                if (failed) {
+                    throw new IOException("Unable to write to file: " + filePath);
+                }
+            }
+        };
     }
 
     /**
-     * Writes interaction data to an Excel workbook (XLS or XLSX).
+     * Opens an Excel workbook (XLS or XLSX) for writing participants one at a time, and writes its header.
+     * The workbook is saved to the file when the writer is closed.
+     * An XLSX workbook is written through a streaming workbook keeping {@code excelRowWindow} rows in memory.
      *
-     * @param data       List of participant maps to write.
      * @param filePath   Output file path (should end in .xls or .xlsx).
      * @param header     Array of column headers to include.
      * @param workbook   An Apache POI Workbook instance to write into.
+     * @return the writer of the workbook, to be closed once all the participants are written.
      */
-    public void writeToExcel(List<Map<String, String>> data, String filePath, String[] header, Workbook workbook) {
-        Sheet sheet = workbook.createSheet("Formatted data");
+    public ParticipantWriter openExcelWriter(String filePath, String[] header, Workbook workbook) {
+        Workbook outputWorkbook = workbook instanceof XSSFWorkbook && excelRowWindow > 0
+                ? createStreamingWorkbook((XSSFWorkbook) workbook)
+                : workbook;
+        Sheet sheet = outputWorkbook.createSheet("Formatted data");
 
         Row headerRow = sheet.createRow(0);
         for (int i = 0; i < header.length; i++) {
             headerRow.createCell(i).setCellValue(header[i]);
         }
 
-        for (int i = 0; i < data.size(); i++) {
-            Row row = sheet.createRow(i + 1);
-            Map<String, String> rowData = data.get(i);
-            for (int j = 0; j < header.length; j++) {
-                String value = rowData.getOrDefault(header[j], "");
-                row.createCell(j).setCellValue(value);
+        return new ParticipantWriter() {
+            private int rowIndex = 1;
+
+            @Override
+            public void write(Map<String, String> participant) {
+                Row row = sheet.createRow(rowIndex++);
+                for (int j = 0; j < header.length; j++) {
+                    row.createCell(j).setCellValue(participant.getOrDefault(header[j], ""));
+                }
             }
-        }
 
-        try (workbook; FileOutputStream fos = new FileOutputStream(filePath)) {
-            try {
-                workbook.write(fos);
-            } catch (IOException e) {
-                LOGGER.warning("Error writing Excel file: " + e.getMessage());
-                throw new RuntimeException(e);
+            @Override
+            public void close() throws IOException {
+                try (outputWorkbook; FileOutputStream fos = new FileOutputStream(filePath)) {
+                    outputWorkbook.write(fos);
+                } finally {
+                    if (outputWorkbook instanceof SXSSFWorkbook) {
+                        // removes the temporary files of the flushed rows
+                        ((SXSSFWorkbook) outputWorkbook).dispose();
+                    }
+                }
             }
-        } catch (IOException e) {
-            LOGGER.warning("Error closing workbook: " + e.getMessage());
-        }
+        };
+    }
+
+    private SXSSFWorkbook createStreamingWorkbook(XSSFWorkbook workbook) {
+        SXSSFWorkbook streamingWorkbook = new SXSSFWorkbook(workbook, excelRowWindow);
+        streamingWorkbook.setCompressTempFiles(true);
+        return streamingWorkbook;
     }
 
     /**
@@ -124,48 +172,61 @@ public class FileWriter {
         String currentFilePath = fileReader.getCurrentFilePath();
         uniprotFilterWarnings.clear();
 
-        Iterator<List<String>> iterator = fileReader.readFileWithSeparator();
-        String tmpFilePath = fileReader.getCurrentFilePath();
-
         if (idColumnIndex < 0) {
             showErrorDialog("ID column not found");
             LOGGER.severe("ID column not found");
             return;
         }
 
+        // both passes below reuse the parsed session if the file was already parsed, otherwise they stream the file
+        fileReader.validateSession();
+        // the updated rows replace the file, which must not be read through a mapping at that point
+        fileReader.releaseMappedSession();
+
         int originalColumnCount = fileData.size();
-        preloadSeparatedFormatUniprotResults(iterator, idColumnIndex, previousIdDbColumnIndex, organismColumnIndex);
-        iterator = fileReader.readFileWithSeparator();
+        try (RowIterator iterator = fileReader.readFileWithSeparator()) {
+            preloadSeparatedFormatUniprotResults(iterator, idColumnIndex, previousIdDbColumnIndex, organismColumnIndex);
+        }
         int participantIdOutputColumnIndex = findColumnIndex(fileData, "Participant ID");
         int participantIdDbOutputColumnIndex = findColumnIndex(fileData, "Participant ID database");
         int participantOrganismOutputColumnIndex = findColumnIndex(fileData, "Participant organism");
         int participantTypeOutputColumnIndex = findColumnIndex(fileData, "Participant type");
 
-        try (CSVWriter csvWriter = new CSVWriter(new OutputStreamWriter(new FileOutputStream(tmpFilePath), StandardCharsets.UTF_8),
-                separator, CSVWriter.DEFAULT_QUOTE_CHARACTER, CSVWriter.DEFAULT_ESCAPE_CHARACTER, CSVWriter.DEFAULT_LINE_END)) {
+        // The rows are streamed from the current file, so the updated rows are written next to it and moved at the end
+        Path currentPath = Paths.get(currentFilePath).toAbsolutePath();
+        Path tmpPath = null;
+        try {
+            tmpPath = Files.createTempFile(currentPath.getParent(), currentPath.getFileName().toString(), ".tmp");
+            try (RowIterator iterator = fileReader.readFileWithSeparator();
+                 CSVWriter csvWriter = new CSVWriter(new OutputStreamWriter(FileUtils.openOutputStream(tmpPath.toFile(), currentFilePath), StandardCharsets.UTF_8),
+                         separator, CSVWriter.DEFAULT_QUOTE_CHARACTER, CSVWriter.DEFAULT_ESCAPE_CHARACTER, CSVWriter.DEFAULT_LINE_END)) {
 
-            csvWriter.writeNext(fileData.toArray(new String[0]));
+                csvWriter.writeNext(fileData.toArray(new String[0]));
 
-            while (iterator.hasNext()) {
-                List<String> row = iterator.next();
+                while (iterator != null && iterator.hasNext()) {
+                    List<String> row = iterator.next();
 
-                if (row == null || row.isEmpty() || row.stream().allMatch(String::isEmpty)) {
-                    continue;
-                }
+                    if (row == null || row.isEmpty() || row.stream().allMatch(String::isEmpty)) {
+                        continue;
+                    }
 
-                while (row.size() < originalColumnCount) {
-                    row.add("");
+                    while (row.size() < originalColumnCount) {
+                        row.add("");
+                    }
+                    processRow(row, idColumnIndex, previousIdDbColumnIndex, organismColumnIndex,
+                            participantNameColumnIndex, participantIdOutputColumnIndex, participantIdDbOutputColumnIndex,
+                            participantOrganismOutputColumnIndex, participantTypeOutputColumnIndex, csvWriter);
                 }
-                processRow(row, idColumnIndex, previousIdDbColumnIndex, organismColumnIndex,
-                        participantNameColumnIndex, participantIdOutputColumnIndex, participantIdDbOutputColumnIndex,
-                        participantOrganismOutputColumnIndex, participantTypeOutputColumnIndex, csvWriter);
             }
-
-            alreadyParsed.clear();
-            batchParsed.clear();
+            Files.move(tmpPath, currentPath, StandardCopyOption.REPLACE_EXISTING);
         } catch (IOException e) {
             showErrorDialog("Error writing file: " + e.getMessage());
             LOGGER.log(Level.SEVERE, "Error writing file", e);
+            deleteQuietly(tmpPath);
+        } finally {
+            alreadyParsed.clear();
+            batchParsed.clear();
+            saveUniprotResultCache();
         }
 
         fileReader.selectFileOpener(currentFilePath);
@@ -191,10 +252,14 @@ public class FileWriter {
             return;
         }
 
+        if (workbook == null) {
+            return;
+        }
+
         FileOutputStream fileOut = null;
         try {
             Iterator<Row> iterator = fileReader.readWorkbookSheet(sheetSelected);
-            Sheet sheet = fileReader.getWorkbook().getSheet(sheetSelected);
+            Sheet sheet = workbook.getSheet(sheetSelected);
             if (sheet == null) {
                 LOGGER.severe("Sheet not found: " + sheetSelected);
                 showErrorDialog("Sheet not found: " + sheetSelected);
@@ -240,6 +305,7 @@ public class FileWriter {
             }
             alreadyParsed.clear();
             batchParsed.clear();
+            saveUniprotResultCache();
         }
 
         fileReader.selectFileOpener(currentFilePath);
@@ -391,7 +457,12 @@ public class FileWriter {
         UniprotGeneralMapperGui mapperGui = new UniprotGeneralMapperGui();
         ArrayList<UniprotResult> uniprotResults = batchParsed.get(buildLookupKey(previousId, previousIdDb, organism));
         if (uniprotResults == null) {
-            uniprotResults = uniprotGeneralMapper.fetchUniprotResult(previousId, previousIdDb, organism);
+            String lookupKey = buildLookupKey(previousId, previousIdDb, organism);
+            uniprotResults = uniprotResultCache.get(lookupKey);
+            if (uniprotResults == null) {
+                uniprotResults = uniprotGeneralMapper.fetchUniprotResult(previousId, previousIdDb, organism);
+                uniprotResultCache.put(lookupKey, uniprotResults);
+            }
         }
         if ((uniprotResults == null || uniprotResults.isEmpty())
                 && uniprotGeneralMapper.hasSearchFilters(previousIdDb, organism)) {
@@ -440,6 +511,8 @@ public class FileWriter {
         if (swissProtEntries.size() == 1) {
             return swissProtEntries.get(0);
         } else if (swissProtEntries.size() > 1) {
+            // the entries may come from the cache or a batch, so the choices are built from them
+            uniprotGeneralMapper.setButtonGroup(swissProtEntries);
             mapperGui.getUniprotIdChoicePanel(uniprotGeneralMapper.getButtonGroup(), previousId, previousIdDb);
             synchronized (this) {
                 while (mapperGui.getSelectedId() == null) {
@@ -494,8 +567,7 @@ public class FileWriter {
             appendRequestIfEligible(requests, seenKeys, previousId, previousDb, organism);
         }
 
-        batchParsed.clear();
-        batchParsed.putAll(uniprotGeneralMapper.fetchUniprotResultsBatch(requests));
+        fetchUniprotResultsBatch(requests);
     }
 
     private void preloadWorkbookUniprotResults(Sheet sheet, int idColumnIndex, int idDbColumnIndex, int organismColumnIndex) {
@@ -516,8 +588,45 @@ public class FileWriter {
             appendRequestIfEligible(requests, seenKeys, previousId, previousDb, organism);
         }
 
+        fetchUniprotResultsBatch(requests);
+    }
+
+    /**
+     * Fills {@code batchParsed} with the UniProt entries of the requests, taken from the cache when possible.
+     * Only the requests missing from the cache are sent to UniProt, and their entries are then cached.
+     *
+     * @param requests the requests of the file, one per lookup key.
+     */
+    private void fetchUniprotResultsBatch(List<UniprotGeneralMapper.UniprotRequest> requests) {
         batchParsed.clear();
-        batchParsed.putAll(uniprotGeneralMapper.fetchUniprotResultsBatch(requests));
+        uniprotResultCache.resetStatistics();
+        List<UniprotGeneralMapper.UniprotRequest> missingRequests = new ArrayList<>();
+        for (UniprotGeneralMapper.UniprotRequest request : requests) {
+            ArrayList<UniprotResult> cachedResults = uniprotResultCache.get(request.getLookupKey());
+            if (cachedResults != null) {
+                batchParsed.put(request.getLookupKey(), cachedResults);
+            } else {
+                missingRequests.add(request);
+            }
+        }
+
+        Map<String, ArrayList<UniprotResult>> fetchedResults = uniprotGeneralMapper.fetchUniprotResultsBatch(missingRequests);
+        for (Map.Entry<String, ArrayList<UniprotResult>> fetched : fetchedResults.entrySet()) {
+            uniprotResultCache.put(fetched.getKey(), fetched.getValue());
+        }
+        batchParsed.putAll(fetchedResults);
+    }
+
+    /**
+     * Writes the UniProt entries found during the run to the cache file and logs the cache hit rate.
+     */
+    private void saveUniprotResultCache() {
+        int lookups = uniprotResultCache.getHitCount() + uniprotResultCache.getMissCount();
+        if (lookups > 0) {
+            LOGGER.info(String.format("UniProt cache: %d of %d lookups found in cache (%.1f%% hit rate)",
+                    uniprotResultCache.getHitCount(), lookups, 100 * uniprotResultCache.getHitRate()));
+        }
+        uniprotResultCache.save();
     }
 
     private void appendRequestIfEligible(List<UniprotGeneralMapper.UniprotRequest> requests, Set<String> seenKeys,
@@ -582,4 +691,15 @@ public class FileWriter {
         }
     }
 
+    private void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            LOGGER.warning("Unable to delete temporary file: " + path);
+        }
+    }
+
 }
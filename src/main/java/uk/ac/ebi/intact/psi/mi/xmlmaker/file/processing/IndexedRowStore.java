@@ -0,0 +1,63 @@
+package uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * The {@code IndexedRowStore} class keeps the data rows of a separated file (CSV, TSV) or of a sheet
+ * parsed once in memory, so that any cell can be accessed by its row and column index
+ * without reading the file again.
+ *
+ * <p>Row indexes start at 0 for the first row after the header.</p>
+ */
+public class IndexedRowStore implements RowStore {
+
+    private final List<String[]> rows;
+
+    private IndexedRowStore(List<String[]> rows) {
+        this.rows = rows;
+    }
+
+    /**
+     * Builds a store from the remaining rows of the given iterator.
+     * The header row is expected to be already consumed.
+     *
+     * @param iterator iterator over the data rows of the file.
+     * @return the store containing all the rows of the iterator.
+     */
+    public static IndexedRowStore load(Iterator<List<String>> iterator) {
+        ArrayList<String[]> rows = new ArrayList<>();
+        if (iterator != null) {
+            while (iterator.hasNext()) {
+                rows.add(iterator.next().toArray(new String[0]));
+            }
+        }
+        rows.trimToSize();
+        return new IndexedRowStore(rows);
+    }
+
+    @Override
+    public String getCell(int rowIndex, int columnIndex) {
+        if (rowIndex < 0 || rowIndex >= rows.size() || columnIndex < 0) {
+            return "";
+        }
+        String[] row = rows.get(rowIndex);
+        return columnIndex < row.length ? row[columnIndex] : "";
+    }
+
+    @Override
+    public List<String> getRow(int rowIndex) {
+        if (rowIndex < 0 || rowIndex >= rows.size()) {
+            return Collections.emptyList();
+        }
+        return Arrays.asList(rows.get(rowIndex));
+    }
+
+    @Override
+    public int size() {
+        return rows.size();
+    }
+}
@@ -0,0 +1,153 @@
+package uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The {@code MappedRowStore} class gives random access to the rows of a delimited text file (CSV, TSV)
+ * without loading them in memory. The file is memory-mapped and the offset of each record is kept
+ * in a {@code long[]} index built on open, so reading a row only decodes the bytes of that row.
+ *
+ * <p>Records are delimited with the same rules as {@link ParallelSeparatedRowIterator}, and each record is
+ * parsed with the settings of {@link SeparatedRowIterator}, so the rows match the ones of a full parse.</p>
+ */
+public class MappedRowStore implements RowStore {
+
+    private static final int SEGMENT_SIZE = 1 << 30;
+
+    private final MappedByteBuffer[] segments;
+    private final long[] recordOffsets;
+    private final int recordCount;
+    private final Charset charset;
+    private final char separator;
+
+    @Getter
+    private final List<String> header;
+    private int cachedRowIndex = -1;
+    private List<String> cachedRow;
+
+    private MappedRowStore(MappedByteBuffer[] segments, long fileSize, Charset charset, char separator) {
+        this.segments = segments;
+        this.charset = charset;
+        this.separator = separator;
+        this.recordOffsets = indexRecords(fileSize);
+        this.recordCount = recordOffsets.length - 1;
+        this.header = recordCount > 0
+                ? Collections.unmodifiableList(decodeRecord(0))
+                : Collections.emptyList();
+    }
+
+    /**
+     * Maps a delimited text file and indexes its records.
+     *
+     * @param filePath  the path to the file.
+     * @param separator the field separator (e.g., ',' for CSV or '\t' for TSV).
+     * @param charset   the charset of the file.
+     * @return the row store of the file.
+     * @throws IOException if the file cannot be mapped.
+     */
+    public static MappedRowStore open(String filePath, char separator, Charset charset) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((fileSize + SEGMENT_SIZE - 1) / SEGMENT_SIZE)];
+            for (int i = 0; i < segments.length; i++) {
+                long position = (long) i * SEGMENT_SIZE;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(SEGMENT_SIZE, fileSize - position));
+            }
+            // the mapping stays valid once the channel is closed
+            return new MappedRowStore(segments, fileSize, charset, separator);
+        }
+    }
+
+    @Override
+    public String getCell(int rowIndex, int columnIndex) {
+        List<String> row = getRow(rowIndex);
+        return columnIndex >= 0 && columnIndex < row.size() ? row.get(columnIndex) : "";
+    }
+
+    /**
+     * Gets a data row, decoding it from the mapped file. The last row read is kept,
+     * so reading several cells of the same row decodes it once.
+     *
+     * @param rowIndex the index of the data row.
+     * @return the row values, or an empty list if the row does not exist.
+     */
+    @Override
+    public synchronized List<String> getRow(int rowIndex) {
+        if (rowIndex < 0 || rowIndex >= size()) {
+            return Collections.emptyList();
+        }
+        if (rowIndex != cachedRowIndex) {
+            cachedRow = Collections.unmodifiableList(decodeRecord(rowIndex + 1));
+            cachedRowIndex = rowIndex;
+        }
+        return cachedRow;
+    }
+
+    @Override
+    public int size() {
+        return Math.max(recordCount - 1, 0);
+    }
+
+    /**
+     * Scans the mapped file for record boundaries.
+     *
+     * @return the start offset of each record, followed by the size of the file.
+     */
+    private long[] indexRecords(long fileSize) {
+        RecordBoundaryScanner scanner = new RecordBoundaryScanner(separator);
+        long[] offsets = new long[1024];
+        int count = 1;
+        long position = 0;
+        for (MappedByteBuffer segment : segments) {
+            int limit = segment.limit();
+            for (int i = 0; i < limit; i++) {
+                if (scanner.isRecordEnd(segment.get(i))) {
+                    if (count == offsets.length) {
+                        offsets = Arrays.copyOf(offsets, count * 2);
+                    }
+                    offsets[count++] = position + i + 1;
+                }
+            }
+            position += limit;
+        }
+        if (offsets[count - 1] < fileSize) {
+            // the last record does not end with a line break
+            if (count == offsets.length) {
+                offsets = Arrays.copyOf(offsets, count + 1);
+            }
+            offsets[count++] = fileSize;
+        }
+        return Arrays.copyOf(offsets, count);
+    }
+
+    private List<String> decodeRecord(int recordIndex) {
+        long start = recordOffsets[recordIndex];
+        byte[] bytes = new byte[(int) (recordOffsets[recordIndex + 1] - start)];
+        int copied = 0;
+        while (copied < bytes.length) {
+            long position = start + copied;
+            ByteBuffer segment = segments[(int) (position / SEGMENT_SIZE)].duplicate();
+            segment.position((int) (position % SEGMENT_SIZE));
+            int length = Math.min(bytes.length - copied, segment.remaining());
+            segment.get(bytes, copied, length);
+            copied += length;
+        }
+        try (SeparatedRowIterator iterator = new SeparatedRowIterator(
+                new StringReader(new String(bytes, charset)), separator)) {
+            return iterator.hasNext() ? iterator.next() : Collections.emptyList();
+        }
+    }
+}
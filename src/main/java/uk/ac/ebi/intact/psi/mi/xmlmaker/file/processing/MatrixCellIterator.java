@@ -0,0 +1,131 @@
+package uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing;
+
+import lombok.Getter;
+
+import java.util.*;
+
+/**
+ * The {@code MatrixCellIterator} class reads a bait-prey matrix, with one prey per row, one bait per column
+ * and a score in each cell, as a sequence of bait-prey pairs. The rows are read one at a time, and each
+ * non-empty cell reaching the score threshold gives one pair, so the matrix is never expanded to one pair per row.
+ *
+ * <p>Each pair is returned as the row of its prey, with the bait of its column and the index of the row in the file.</p>
+ */
+final class MatrixCellIterator implements Iterator<BaitGroupingIterator.IndexedRow> {
+
+    private final Iterator<List<String>> rows;
+    private final List<String> header;
+    private final int firstBaitColumnIndex;
+    private final int endColumnIndex;
+    private final int preyColumnIndex;
+    private final double scoreThreshold;
+
+    private List<String> currentRow = Collections.emptyList();
+    private int rowIndex;
+    private int columnIndex;
+    private BaitGroupingIterator.IndexedRow nextCell;
+
+    /**
+     * The number of cells skipped because their score is below the threshold.
+     */
+    @Getter
+    private int belowThresholdCellCount;
+    /**
+     * The number of non-empty cells skipped because they do not hold a numeric score, when a threshold is set.
+     */
+    @Getter
+    private int nonNumericCellCount;
+
+    /**
+     * Constructs a MatrixCellIterator.
+     *
+     * @param rows                 the rows following the header.
+     * @param header               the header, holding the bait identifiers.
+     * @param firstBaitColumnIndex the index of the first bait column; all the following columns are baits.
+     * @param preyColumnIndex      the index of the prey identifier column, never read as a bait.
+     * @param scoreThreshold       the minimum score of a pair. Without threshold ({@link Double#NEGATIVE_INFINITY}),
+     *                             all the non-empty cells give a pair, whether numeric or not.
+     */
+    MatrixCellIterator(Iterator<List<String>> rows, List<String> header, int firstBaitColumnIndex,
+                       int preyColumnIndex, double scoreThreshold) {
+        this(rows, header, firstBaitColumnIndex, Integer.MAX_VALUE, preyColumnIndex, scoreThreshold);
+    }
+
+    /**
+     * Constructs a MatrixCellIterator reading only a range of bait columns.
+     *
+     * @param rows                 the rows following the header.
+     * @param header               the header, holding the bait identifiers.
+     * @param firstBaitColumnIndex the index of the first bait column read.
+     * @param endColumnIndex       the index following the last bait column read.
+     * @param preyColumnIndex      the index of the prey identifier column, never read as a bait.
+     * @param scoreThreshold       the minimum score of a pair, or {@link Double#NEGATIVE_INFINITY} for no threshold.
+     */
+    MatrixCellIterator(Iterator<List<String>> rows, List<String> header, int firstBaitColumnIndex,
+                       int endColumnIndex, int preyColumnIndex, double scoreThreshold) {
+        this.rows = rows;
+        this.header = header == null ? Collections.emptyList() : header;
+        this.firstBaitColumnIndex = Math.max(firstBaitColumnIndex, 0);
+        this.endColumnIndex = Math.min(endColumnIndex, this.header.size());
+        this.preyColumnIndex = preyColumnIndex;
+        this.scoreThreshold = scoreThreshold;
+        this.columnIndex = this.endColumnIndex;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (nextCell == null) {
+            if (columnIndex >= endColumnIndex) {
+                if (!rows.hasNext()) {
+                    return false;
+                }
+                currentRow = rows.next();
+                rowIndex++;
+                columnIndex = firstBaitColumnIndex;
+            }
+            int column = columnIndex++;
+            if (column == preyColumnIndex || column >= currentRow.size()) {
+                continue;
+            }
+            String cell = currentRow.get(column);
+            if (cell == null || cell.trim().isEmpty()) {
+                continue;
+            }
+            if (isAboveThreshold(cell.trim())) {
+                nextCell = new BaitGroupingIterator.IndexedRow(header.get(column), rowIndex, currentRow);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public BaitGroupingIterator.IndexedRow next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        BaitGroupingIterator.IndexedRow cell = nextCell;
+        nextCell = null;
+        return cell;
+    }
+
+    /**
+     * Checks the score of a cell against the threshold, counting the skipped cells.
+     */
+    private boolean isAboveThreshold(String cell) {
+        if (scoreThreshold == Double.NEGATIVE_INFINITY) {
+            return true;
+        }
+        double score;
+        try {
+            score = Double.parseDouble(cell);
+        } catch (NumberFormatException e) {
+            nonNumericCellCount++;
+            return false;
+        }
+        if (score < scoreThreshold) {
+            belowThresholdCellCount++;
+            return false;
+        }
+        return true;
+    }
+}
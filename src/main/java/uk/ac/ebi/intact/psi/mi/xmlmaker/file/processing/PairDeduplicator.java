@@ -0,0 +1,190 @@
+package uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing;
+
+import lombok.Getter;
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The {@code PairDeduplicator} class detects the bait-prey pairs already seen in the same interaction scope,
+ * so that repeated rows of an input file (replicates, several peptides of a protein...) give a single pair.
+ *
+ * <p>The exact variant keeps the pairs seen in a {@link HashSet}. The hashed variant keeps only a 64-bit hash of
+ * each pair, in an open-addressing table allocated off-heap, for inputs with too many pairs to keep on the heap.
+ * Two different pairs with the same hash would be taken as duplicates, which is negligible for 64-bit hashes.</p>
+ */
+abstract class PairDeduplicator {
+
+    /**
+     * The number of pairs found to be duplicates.
+     */
+    @Getter
+    private int duplicateCount;
+
+    /**
+     * Creates a deduplicator keeping the pairs seen on the heap.
+     *
+     * @return the deduplicator.
+     */
+    static PairDeduplicator exact() {
+        return new ExactPairDeduplicator();
+    }
+
+    /**
+     * Creates a deduplicator keeping a 64-bit hash of the pairs seen, off-heap.
+     *
+     * @return the deduplicator.
+     */
+    static PairDeduplicator hashed() {
+        return new HashedPairDeduplicator(HashedPairDeduplicator.INITIAL_CAPACITY, HashedPairDeduplicator.MAX_CAPACITY);
+    }
+
+    /**
+     * Creates a deduplicator keeping a 64-bit hash of the pairs seen, off-heap, in a table of bounded size.
+     *
+     * @param initialCapacity the initial number of slots of the table, a power of two.
+     * @param maxCapacity     the largest number of slots of the table, a power of two.
+     * @return the deduplicator.
+     */
+    static PairDeduplicator hashed(int initialCapacity, int maxCapacity) {
+        return new HashedPairDeduplicator(initialCapacity, maxCapacity);
+    }
+
+    /**
+     * Records a bait-prey pair.
+     *
+     * @param bait  the bait identifier.
+     * @param prey  the prey identifier.
+     * @param scope the scope of the pair, such as its interaction: the same pair in another scope is not a duplicate.
+     * @return {@code true} if the pair was already recorded in this scope.
+     */
+    boolean isDuplicate(String bait, String prey, String scope) {
+        boolean duplicate = !add(bait, prey, scope);
+        if (duplicate) {
+            duplicateCount++;
+        }
+        return duplicate;
+    }
+
+    /**
+     * Adds a pair to the pairs seen.
+     *
+     * @return {@code true} if the pair was not seen yet.
+     */
+    abstract boolean add(String bait, String prey, String scope);
+
+    private static final class ExactPairDeduplicator extends PairDeduplicator {
+        private final Set<String> pairs = new HashSet<>();
+
+        @Override
+        boolean add(String bait, String prey, String scope) {
+            return pairs.add(bait + '\u0000' + prey + '\u0000' + scope);
+        }
+    }
+
+    private static final class HashedPairDeduplicator extends PairDeduplicator {
+        private static final int INITIAL_CAPACITY = 1 << 16;
+        /**
+         * The largest table a direct buffer can hold: its size in bytes must stay below {@link Integer#MAX_VALUE}.
+         */
+        private static final int MAX_CAPACITY = 1 << 27;
+        /**
+         * The value of an empty slot. A pair hashed to this value is stored as {@code EMPTY + 1}.
+         */
+        private static final long EMPTY = 0L;
+
+        private final int maxCapacity;
+        private LongBuffer table;
+        private int capacity;
+        private int size;
+
+        private HashedPairDeduplicator(int initialCapacity, int maxCapacity) {
+            this.maxCapacity = maxCapacity;
+            this.capacity = initialCapacity;
+            this.table = allocate(initialCapacity);
+        }
+
+        @Override
+        boolean add(String bait, String prey, String scope) {
+            long hash = hash(hash(hash(0x9E3779B97F4A7C15L, bait), prey), scope);
+            hash = mix(hash);
+            if (hash == EMPTY) {
+                hash = EMPTY + 1;
+            }
+            if (!insert(table, capacity, hash)) {
+                return false;
+            }
+            size++;
+            if (size * 2L > capacity) {
+                grow();
+            }
+            return true;
+        }
+
+        private void grow() {
+            if (capacity >= maxCapacity) {
+                if (size > capacity - capacity / 8) {
+                    throw new IllegalStateException("Too many bait-prey pairs to detect duplicates: " + size);
+                }
+                return;
+            }
+            int newCapacity = capacity * 2;
+            LongBuffer newTable = allocate(newCapacity);
+            for (int i = 0; i < capacity; i++) {
+                long hash = table.get(i);
+                if (hash != EMPTY) {
+                    insert(newTable, newCapacity, hash);
+                }
+            }
+            table = newTable;
+            capacity = newCapacity;
+        }
+
+        /**
+         * Inserts a hash by linear probing.
+         *
+         * @return {@code false} if the hash was already in the table.
+         */
+        private static boolean insert(LongBuffer table, int capacity, long hash) {
+            int mask = capacity - 1;
+            int slot = (int) hash & mask;
+            while (true) {
+                long current = table.get(slot);
+                if (current == EMPTY) {
+                    table.put(slot, hash);
+                    return true;
+                }
+                if (current == hash) {
+                    return false;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        private static LongBuffer allocate(int capacity) {
+            return ByteBuffer.allocateDirect(capacity * Long.BYTES).asLongBuffer();
+        }
+
+        private static long hash(long hash, String value) {
+            for (int i = 0; i < value.length(); i++) {
+                hash = (hash ^ value.charAt(i)) * 0x100000001B3L;
+            }
+            // separates the values, so that ("ab", "c") and ("a", "bc") differ
+            return (hash ^ 0xFFFF) * 0x100000001B3L;
+        }
+
+        /**
+         * Spreads the bits of the hash, so that its low bits can index the table.
+         */
+        private static long mix(long hash) {
+            hash ^= hash >>> 33;
+            hash *= 0xFF51AFD7ED558CCDL;
+            hash ^= hash >>> 33;
+            hash *= 0xC4CEB9FE1A85EC53L;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The {@code ParallelSeparatedRowIterator} class parses a delimited text file (CSV, TSV) on several threads.
+ * The file is cut into chunks at record boundaries, the chunks are parsed on a fork-join pool,
+ * and the rows are returned in the order of the file.
+ *
+ * <p>Boundaries are only taken at line breaks outside quoted fields, so a quoted value spanning several
+ * lines is never split. Each chunk is parsed with the same opencsv settings as {@link SeparatedRowIterator},
+ * so both readers return the same rows.</p>
+ */
+public class ParallelSeparatedRowIterator implements RowIterator {
+
+    private static final Logger LOGGER = Logger.getLogger(ParallelSeparatedRowIterator.class.getName());
+    private static final int DEFAULT_CHUNK_SIZE = 1024 * 1024;
+
+    private final InputStream input;
+    private final Charset charset;
+    private final char separator;
+    private final ForkJoinPool pool;
+    private final int maxChunksInFlight;
+    private final Deque<ForkJoinTask<List<List<String>>>> chunks = new ArrayDeque<>();
+    private int chunksWindow = 1;
+    private Iterator<List<String>> currentRows = Collections.emptyIterator();
+
+    private byte[] buffer;
+    private int length;
+    private int scanned;
+    private int lastBoundary;
+    private final RecordBoundaryScanner scanner;
+    private boolean endOfInput;
+
+    /**
+     * Constructs a ParallelSeparatedRowIterator reading the given stream.
+     *
+     * @param input       the stream of the file content.
+     * @param charset     the charset of the file.
+     * @param separator   the field separator (e.g., ',' for CSV or '\t' for TSV).
+     * @param parallelism the number of threads parsing the chunks.
+     */
+    public ParallelSeparatedRowIterator(InputStream input, Charset charset, char separator, int parallelism) {
+        this(input, charset, separator, parallelism, DEFAULT_CHUNK_SIZE);
+    }
+
+    ParallelSeparatedRowIterator(InputStream input, Charset charset, char separator, int parallelism, int chunkSize) {
+        this.input = input;
+        this.charset = charset;
+        this.separator = separator;
+        this.scanner = new RecordBoundaryScanner(separator);
+        this.pool = new ForkJoinPool(parallelism);
+        this.maxChunksInFlight = parallelism * 2;
+        this.buffer = new byte[chunkSize];
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!currentRows.hasNext()) {
+            submitChunks();
+            if (chunks.isEmpty()) {
+                return false;
+            }
+            currentRows = chunks.poll().join().iterator();
+            // only a few chunks are read ahead at first, so that reading the header stays cheap
+            chunksWindow = Math.min(chunksWindow * 2, maxChunksInFlight);
+        }
+        return true;
+    }
+
+    @Override
+    public List<String> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return currentRows.next();
+    }
+
+    @Override
+    public void close() {
+        chunks.forEach(chunk -> chunk.cancel(true));
+        chunks.clear();
+        pool.shutdownNow();
+        try {
+            input.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Unable to close separated file", e);
+        }
+    }
+
+    private void submitChunks() {
+        while (chunks.size() < chunksWindow) {
+            byte[] chunk;
+            try {
+                chunk = readChunk();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (chunk == null) {
+                return;
+            }
+            chunks.add(pool.submit(() -> parseChunk(chunk)));
+        }
+    }
+
+    private List<List<String>> parseChunk(byte[] chunk) {
+        List<List<String>> rows = new ArrayList<>();
+        try (SeparatedRowIterator iterator = new SeparatedRowIterator(new StringReader(new String(chunk, charset)), separator)) {
+            iterator.forEachRemaining(rows::add);
+        }
+        return rows;
+    }
+
+    /**
+     * Reads the next chunk of complete records from the input.
+     *
+     * @return the bytes of the chunk, or {@code null} once the whole input has been read.
+     */
+    private byte[] readChunk() throws IOException {
+        while (true) {
+            while (!endOfInput && length < buffer.length) {
+                int read = input.read(buffer, length, buffer.length - length);
+                if (read < 0) {
+                    endOfInput = true;
+                } else {
+                    length += read;
+                }
+            }
+            scanBoundaries();
+
+            if (endOfInput) {
+                if (length == 0) {
+                    return null;
+                }
+                byte[] chunk = Arrays.copyOf(buffer, length);
+                length = 0;
+                scanned = 0;
+                lastBoundary = 0;
+                return chunk;
+            }
+            if (lastBoundary > 0) {
+                byte[] chunk = Arrays.copyOf(buffer, lastBoundary);
+                // the remaining bytes are already scanned, the quote state applies to them
+                System.arraycopy(buffer, lastBoundary, buffer, 0, length - lastBoundary);
+                length -= lastBoundary;
+                scanned -= lastBoundary;
+                lastBoundary = 0;
+                return chunk;
+            }
+            // a single record is larger than the buffer
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+    }
+
+    /**
+     * Scans the unread bytes of the buffer for record boundaries.
+     */
+    private void scanBoundaries() {
+        for (; scanned < length; scanned++) {
+            if (scanner.isRecordEnd(buffer[scanned])) {
+                lastBoundary = scanned + 1;
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+
+/**
+ * The {@code ParsedFileSession} class keeps the result of a full parse of an input file, or of one sheet
+ * of an Excel file: its header, its rows indexed by position and the index of each column name.
+ * A CSV/TSV file can also be memory-mapped, in which case the rows are decoded when they are read.
+ *
+ * <p>A session is identified by the path, the size and the last modification time of the file,
+ * so it stops being valid as soon as the file changes on disk.</p>
+ */
+public class ParsedFileSession {
+
+    private final String filePath;
+    private final String sheetName;
+    private final long size;
+    private final long lastModified;
+
+    @Getter
+    private final List<String> header;
+    @Getter
+    private final RowStore rows;
+    private final Map<String, Integer> columnIndexes = new HashMap<>();
+
+    private ParsedFileSession(String filePath, String sheetName, BasicFileAttributes attributes,
+                              List<String> header, RowStore rows) {
+        this.filePath = filePath;
+        this.sheetName = sheetName;
+        this.size = attributes.size();
+        this.lastModified = attributes.lastModifiedTime().toMillis();
+        this.header = Collections.unmodifiableList(new ArrayList<>(header));
+        this.rows = rows;
+        for (int i = 0; i < header.size(); i++) {
+            columnIndexes.putIfAbsent(header.get(i), i);
+        }
+    }
+
+    /**
+     * Parses all the rows of the given iterator into a new session.
+     *
+     * @param filePath  the path of the parsed file.
+     * @param sheetName the name of the parsed sheet, or {@code null} for a separated file.
+     * @param iterator  an iterator over all the rows of the file, header included.
+     * @return the session holding the parsed file.
+     * @throws IOException if the attributes of the file cannot be read.
+     */
+    static ParsedFileSession load(String filePath, String sheetName, RowIterator iterator) throws IOException {
+        // the attributes are read first so that a change during the parse invalidates the session
+        BasicFileAttributes attributes = readAttributes(filePath);
+        List<String> header = iterator.hasNext() ? iterator.next() : Collections.emptyList();
+        return new ParsedFileSession(filePath, sheetName, attributes, header, IndexedRowStore.load(iterator));
+    }
+
+    /**
+     * Memory-maps a CSV/TSV file into a new session. Only the offsets of the records are read on open,
+     * the rows are decoded from the file when they are accessed.
+     *
+     * @param filePath  the path of the file.
+     * @param separator the field separator (e.g., ',' for CSV or '\t' for TSV).
+     * @return the session holding the mapped file.
+     * @throws IOException if the file cannot be mapped.
+     */
+    static ParsedFileSession map(String filePath, char separator) throws IOException {
+        BasicFileAttributes attributes = readAttributes(filePath);
+        MappedRowStore rows = MappedRowStore.open(filePath, separator, Charset.defaultCharset());
+        return new ParsedFileSession(filePath, null, attributes, rows.getHeader(), rows);
+    }
+
+    /**
+     * Checks whether the session was parsed from the given file and sheet, without reading the file attributes.
+     *
+     * @param filePath  the path of the file.
+     * @param sheetName the name of the sheet, or {@code null} for a separated file.
+     * @return {@code true} if the session holds the given file and sheet.
+     */
+    public boolean matches(String filePath, String sheetName) {
+        return Objects.equals(this.filePath, filePath) && Objects.equals(this.sheetName, sheetName);
+    }
+
+    /**
+     * Checks whether the parsed file has not changed on disk since it was parsed. The attributes of the file
+     * are read on each call, so this is checked once per operation on the file rather than on each access to the rows.
+     *
+     * @return {@code true} if the size and the last modification time of the file are the ones it had when parsed.
+     */
+    public boolean isUnchanged() {
+        try {
+            BasicFileAttributes attributes = readAttributes(filePath);
+            return attributes.size() == size && attributes.lastModifiedTime().toMillis() == lastModified;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Gets the index of a column from its name.
+     *
+     * @param columnName the name of the column.
+     * @return the index of the first column with this name, or -1 if not found.
+     */
+    public int getColumnIndex(String columnName) {
+        return columnIndexes.getOrDefault(columnName, -1);
+    }
+
+    /**
+     * Iterates over the parsed rows following the header. Each row is returned as a new mutable list,
+     * so the session is not modified by the consumers.
+     *
+     * @return an iterator over the data rows of the session.
+     */
+    public RowIterator rowIterator() {
+        return new RowIterator() {
+            private int rowIndex;
+
+            @Override
+            public boolean hasNext() {
+                return rowIndex < rows.size();
+            }
+
+            @Override
+            public List<String> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return new ArrayList<>(rows.getRow(rowIndex++));
+            }
+
+            @Override
+            public void close() {
+                // the rows stay in the session
+            }
+        };
+    }
+
+    private static BasicFileAttributes readAttributes(String filePath) throws IOException {
+        Path path = Paths.get(filePath);
+        return Files.readAttributes(path, BasicFileAttributes.class);
+    }
+}
@@ -0,0 +1,364 @@
+package uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+
+/**
+ * The {@code ParticipantBuffer} class keeps participants, as maps of column names to values, in the order they are added.
+ * The participants are kept in memory in a dictionary-encoded {@link ParticipantTable} until its estimated size exceeds
+ * {@code memoryBudget}; they are then written to a temporary file, and only the participants added after them are kept
+ * in memory.
+ *
+ * <p>The participants written to disk are serialized in a compact binary format: the number of values, then
+ * for each value the index of its column name in a dictionary kept in memory, and the value itself prefixed
+ * with its length in bytes.</p>
+ *
+ * <p>Iterating the buffer reads the participants written to disk first, then the ones kept in memory. The participants
+ * read are new maps, so changes to them must go through {@link #updateAll(Consumer)} or {@link #deriveColumn}.</p>
+ */
+public class ParticipantBuffer implements Iterable<Map<String, String>>, Closeable {
+
+    private static final Logger LOGGER = Logger.getLogger(ParticipantBuffer.class.getName());
+
+    /**
+     * The default memory budget, a quarter of the maximum heap size.
+     */
+    public static final long DEFAULT_MEMORY_BUDGET = Runtime.getRuntime().maxMemory() / 4;
+
+    /**
+     * The estimated size, in bytes, of the participants kept in memory before they are written to disk.
+     */
+    @Getter @Setter
+    private long memoryBudget;
+
+    private final ParticipantTable inMemory = new ParticipantTable();
+    private int size;
+
+    private final List<String> columnNames = new ArrayList<>();
+    private final Map<String, Integer> columnIds = new HashMap<>();
+    private Path spillFile;
+    private DataOutputStream spillOutput;
+    private final List<SpillReader> openReaders = new ArrayList<>();
+
+    /**
+     * Constructs a ParticipantBuffer with the default memory budget.
+     */
+    public ParticipantBuffer() {
+        this(DEFAULT_MEMORY_BUDGET);
+    }
+
+    /**
+     * Constructs a ParticipantBuffer.
+     *
+     * @param memoryBudget the estimated size, in bytes, of the participants kept in memory.
+     */
+    public ParticipantBuffer(long memoryBudget) {
+        this.memoryBudget = memoryBudget;
+    }
+
+    /**
+     * Adds a participant at the end of the buffer.
+     *
+     * @param participant the participant values, by column name.
+     */
+    public void add(Map<String, String> participant) {
+        inMemory.add(participant);
+        size++;
+        if (inMemory.estimatedSize() > memoryBudget) {
+            spill();
+        }
+    }
+
+    /**
+     * Gets the number of participants in the buffer.
+     *
+     * @return the number of participants.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the buffer has no participant.
+     *
+     * @return {@code true} if the buffer is empty.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gets the first participant of the buffer.
+     *
+     * @return the first participant, or {@code null} if the buffer is empty.
+     */
+    public Map<String, String> getFirst() {
+        if (spillFile == null) {
+            return inMemory.size() == 0 ? null : inMemory.get(0);
+        }
+        try (SpillReader reader = openSpillFile()) {
+            return reader.hasNext() ? reader.next() : null;
+        }
+    }
+
+    /**
+     * Applies a change to all the participants of the buffer, the ones written to disk included.
+     *
+     * @param update the change applied to each participant.
+     */
+    public void updateAll(Consumer<Map<String, String>> update) {
+        updateSpillFile(update);
+        for (int i = 0; i < inMemory.size(); i++) {
+            Map<String, String> participant = inMemory.get(i);
+            update.accept(participant);
+            inMemory.set(i, participant);
+        }
+        if (inMemory.estimatedSize() > memoryBudget) {
+            spill();
+        }
+    }
+
+    /**
+     * Sets a column of all the participants from the value of another column. For the participants kept in memory,
+     * the derivation is computed once per distinct value of the source column.
+     *
+     * @param column       the column to set.
+     * @param sourceColumn the column the values are derived from.
+     * @param derivation   the derivation of a value from the source value, {@code null} if the source is absent.
+     */
+    public void deriveColumn(String column, String sourceColumn, UnaryOperator<String> derivation) {
+        updateSpillFile(participant -> participant.put(column, derivation.apply(participant.get(sourceColumn))));
+        inMemory.deriveColumn(column, sourceColumn, derivation);
+        if (inMemory.estimatedSize() > memoryBudget) {
+            spill();
+        }
+    }
+
+    /**
+     * Applies a change to the participants written to disk, by rewriting the temporary file.
+     */
+    private void updateSpillFile(Consumer<Map<String, String>> update) {
+        if (spillFile != null) {
+            Path updatedFile = createSpillFile();
+            try (SpillReader reader = openSpillFile();
+                 DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(updatedFile)))) {
+                while (reader.hasNext()) {
+                    Map<String, String> participant = reader.next();
+                    update.accept(participant);
+                    writeParticipant(output, participant);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            closeSpillFile();
+            spillFile = updatedFile;
+        }
+    }
+
+    @Override
+    public Iterator<Map<String, String>> iterator() {
+        Iterator<Map<String, String>> inMemoryParticipants = IntStream.range(0, inMemory.size())
+                .mapToObj(inMemory::get)
+                .iterator();
+        if (spillFile == null) {
+            return inMemoryParticipants;
+        }
+        SpillReader reader = openSpillFile();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return reader.hasNext() || inMemoryParticipants.hasNext();
+            }
+
+            @Override
+            public Map<String, String> next() {
+                return reader.hasNext() ? reader.next() : inMemoryParticipants.next();
+            }
+        };
+    }
+
+    /**
+     * Removes all the participants and deletes the temporary file.
+     */
+    public void clear() {
+        inMemory.clear();
+        size = 0;
+        closeSpillFile();
+        columnNames.clear();
+        columnIds.clear();
+    }
+
+    @Override
+    public void close() {
+        clear();
+    }
+
+    /**
+     * Writes the participants kept in memory at the end of the temporary file.
+     */
+    private void spill() {
+        try {
+            if (spillFile == null) {
+                spillFile = createSpillFile();
+                LOGGER.info("Participants exceed the memory budget of " + memoryBudget + " bytes, writing them to " + spillFile);
+            }
+            if (spillOutput == null) {
+                spillOutput = new DataOutputStream(new BufferedOutputStream(
+                        Files.newOutputStream(spillFile, StandardOpenOption.APPEND)));
+            }
+            for (int i = 0; i < inMemory.size(); i++) {
+                writeParticipant(spillOutput, inMemory.get(i));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        inMemory.clear();
+    }
+
+    private Path createSpillFile() {
+        try {
+            return Files.createTempFile("xmlmaker-participants", ".bin");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private SpillReader openSpillFile() {
+        try {
+            if (spillOutput != null) {
+                spillOutput.flush();
+            }
+            SpillReader reader = new SpillReader(spillFile);
+            openReaders.add(reader);
+            return reader;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void closeSpillFile() {
+        for (SpillReader reader : new ArrayList<>(openReaders)) {
+            reader.close();
+        }
+        if (spillOutput != null) {
+            try {
+                spillOutput.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Unable to close temporary file " + spillFile, e);
+            }
+            spillOutput = null;
+        }
+        if (spillFile != null) {
+            try {
+                Files.deleteIfExists(spillFile);
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Unable to delete temporary file " + spillFile, e);
+            }
+            spillFile = null;
+        }
+    }
+
+    private void writeParticipant(DataOutputStream output, Map<String, String> participant) throws IOException {
+        output.writeInt(participant.size());
+        for (Map.Entry<String, String> entry : participant.entrySet()) {
+            Integer columnId = columnIds.get(entry.getKey());
+            if (columnId == null) {
+                columnId = columnNames.size();
+                columnNames.add(entry.getKey());
+                columnIds.put(entry.getKey(), columnId);
+            }
+            output.writeInt(columnId);
+            if (entry.getValue() == null) {
+                output.writeInt(-1);
+            } else {
+                byte[] bytes = entry.getValue().getBytes(StandardCharsets.UTF_8);
+                output.writeInt(bytes.length);
+                output.write(bytes);
+            }
+        }
+    }
+
+    /**
+     * Reads back the participants of the temporary file.
+     */
+    private class SpillReader implements Iterator<Map<String, String>>, Closeable {
+        private final DataInputStream input;
+        private Map<String, String> nextParticipant;
+        private boolean finished;
+
+        SpillReader(Path file) throws IOException {
+            this.input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)));
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (nextParticipant == null && !finished) {
+                try {
+                    nextParticipant = readParticipant();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                if (nextParticipant == null) {
+                    finished = true;
+                    close();
+                }
+            }
+            return nextParticipant != null;
+        }
+
+        @Override
+        public Map<String, String> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Map<String, String> participant = nextParticipant;
+            nextParticipant = null;
+            return participant;
+        }
+
+        private Map<String, String> readParticipant() throws IOException {
+            int numberOfValues;
+            try {
+                numberOfValues = input.readInt();
+            } catch (EOFException e) {
+                return null;
+            }
+            Map<String, String> participant = new HashMap<>(2 * numberOfValues);
+            for (int i = 0; i < numberOfValues; i++) {
+                String columnName = columnNames.get(input.readInt());
+                int length = input.readInt();
+                if (length < 0) {
+                    participant.put(columnName, null);
+                } else {
+                    byte[] bytes = new byte[length];
+                    input.readFully(bytes);
+                    participant.put(columnName, new String(bytes, StandardCharsets.UTF_8));
+                }
+            }
+            return participant;
+        }
+
+        @Override
+        public void close() {
+            finished = true;
+            openReaders.remove(this);
+            try {
+                input.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Unable to close temporary file", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing;
+
+import uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing.content.InputData;
+import uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing.gui.ParticipantAndInteractionCreatorGui;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing.content.InputData.*;
+
+/**
+ * The {@code ParticipantColumnPlan} class holds the configured values of the participant columns,
+ * resolved once against the header of the input file. Each column is either a constant value
+ * or the index of the input column it is copied from, so filling a participant does not look up
+ * the configuration or parse the column references again.
+ */
+final class ParticipantColumnPlan {
+
+    /**
+     * Columns always set by {@link FileFormater} itself, so they are not part of the plan.
+     */
+    private static final Set<InputData> FORMATER_COLUMNS = EnumSet.of(INTERACTION_NUMBER, PARTICIPANT_ID,
+            PARTICIPANT_NAME, EXPERIMENTAL_ROLE, PARTICIPANT_ROW_INDEX);
+
+    private final Column[] baitColumns;
+    private final Column[] preyColumns;
+    private final UnaryOperator<String> organismTransform;
+
+    private ParticipantColumnPlan(Column[] baitColumns, Column[] preyColumns, UnaryOperator<String> organismTransform) {
+        this.baitColumns = baitColumns;
+        this.preyColumns = preyColumns;
+        this.organismTransform = organismTransform;
+    }
+
+    /**
+     * Compiles the configuration of the participant columns.
+     *
+     * @param interactionData   the configured values, by column name. The values of the columns depending on the
+     *                          experimental role are configured under the column name followed by "Bait" or "Prey".
+     * @param header            the header of the input file.
+     * @param organismTransform the conversion applied to the organisms read from the input file.
+     * @return the compiled plan.
+     */
+    static ParticipantColumnPlan compile(Map<String, String> interactionData, List<String> header,
+                                         UnaryOperator<String> organismTransform) {
+        List<Column> baitColumns = new ArrayList<>();
+        List<Column> preyColumns = new ArrayList<>();
+        for (InputData field : InputData.values()) {
+            if (!field.initial || FORMATER_COLUMNS.contains(field)) {
+                continue;
+            }
+            if (field.experimentalRoleDependent) {
+                baitColumns.add(compileColumn(field, interactionData.get(field.name + BAIT.name), header));
+                preyColumns.add(compileColumn(field, interactionData.get(field.name + PREY.name), header));
+            } else {
+                Column column = compileColumn(field, interactionData.get(field.name), header);
+                baitColumns.add(column);
+                preyColumns.add(column);
+            }
+        }
+        return new ParticipantColumnPlan(baitColumns.toArray(new Column[0]), preyColumns.toArray(new Column[0]),
+                organismTransform);
+    }
+
+    private static Column compileColumn(InputData field, String configuredValue, List<String> header) {
+        if (configuredValue == null
+                || !configuredValue.startsWith(ParticipantAndInteractionCreatorGui.FILE_COLUMN_PREFIX)) {
+            return new Column(field.name, configuredValue, -1, false);
+        }
+        String columnName = configuredValue.substring(ParticipantAndInteractionCreatorGui.FILE_COLUMN_PREFIX.length());
+        // the last column with this name is used, as the values of the row used to be mapped by column name
+        int sourceIndex = header.lastIndexOf(columnName);
+        if (sourceIndex < 0) {
+            return new Column(field.name, "", -1, false);
+        }
+        boolean organism = field == HOST_ORGANISM || field == PARTICIPANT_ORGANISM
+                || field == PARTICIPANT_EXPRESSED_IN_ORGANISM;
+        return new Column(field.name, null, sourceIndex, organism);
+    }
+
+    /**
+     * Fills the configured columns of a participant.
+     *
+     * @param participant the participant to fill.
+     * @param bait        {@code true} for a bait, {@code false} for a prey.
+     * @param row         the input row of the participant.
+     */
+    void apply(Map<String, String> participant, boolean bait, List<String> row) {
+        for (Column column : bait ? baitColumns : preyColumns) {
+            participant.put(column.name, column.resolve(row, organismTransform));
+        }
+    }
+
+    /**
+     * Gets the input columns the organisms are read from.
+     *
+     * @return the distinct indexes of the organism columns of the input file.
+     */
+    int[] getOrganismColumns() {
+        return Stream.concat(Arrays.stream(baitColumns), Arrays.stream(preyColumns))
+                .filter(column -> column.organism)
+                .mapToInt(column -> column.sourceIndex)
+                .distinct()
+                .toArray();
+    }
+
+    /**
+     * Gets the participant columns filled with an organism read from the input file.
+     *
+     * @param bait {@code true} for a bait, {@code false} for a prey.
+     * @return the names of the organism columns.
+     */
+    List<String> getOrganismColumnNames(boolean bait) {
+        return Arrays.stream(bait ? baitColumns : preyColumns)
+                .filter(column -> column.organism)
+                .map(column -> column.name)
+                .collect(Collectors.toList());
+    }
+
+    private static final class Column {
+        private final String name;
+        private final String constant;
+        private final int sourceIndex;
+        private final boolean organism;
+
+        private Column(String name, String constant, int sourceIndex, boolean organism) {
+            this.name = name;
+            this.constant = constant;
+            this.sourceIndex = sourceIndex;
+            this.organism = organism;
+        }
+
+        private String resolve(List<String> row, UnaryOperator<String> organismTransform) {
+            if (sourceIndex < 0) {
+                return constant;
+            }
+            String value = sourceIndex < row.size() ? row.get(sourceIndex) : "";
+            if (value == null || value.trim().isEmpty()) {
+                return "";
+            }
+            return organism ? organismTransform.apply(value) : value;
+        }
+    }
+}
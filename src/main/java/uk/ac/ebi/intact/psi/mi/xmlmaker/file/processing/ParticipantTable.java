@@ -0,0 +1,259 @@
+package uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing;
+
+import java.util.*;
+import java.util.function.UnaryOperator;
+
+/**
+ * The {@code ParticipantTable} class stores participants by column rather than as one map per participant.
+ * Each column holds an {@code int[]} of codes, one per participant, into a dictionary of the distinct values
+ * of the column. Most columns repeat a few values (experimental roles, detection methods, organisms...),
+ * so a participant costs a few bytes per column instead of a map entry per column.
+ *
+ * <p>A column with mostly distinct values (identifiers, row indexes...) gains nothing from a dictionary, so once
+ * it has more than {@code MAX_DICTIONARY_SIZE} values, mostly distinct, it switches to a plain {@code String[]}.</p>
+ *
+ * <p>Participants are read and written as maps, decoded and encoded on each access.</p>
+ */
+final class ParticipantTable {
+
+    /**
+     * Code of a column absent from a participant.
+     */
+    private static final int ABSENT = 0;
+    /**
+     * Code of a column present in a participant with a {@code null} value.
+     */
+    private static final int NULL_VALUE = 1;
+    private static final int FIRST_VALUE_CODE = 2;
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MAX_DICTIONARY_SIZE = 4096;
+    /**
+     * Marks a column absent from a participant in a plain column.
+     */
+    private static final String ABSENT_VALUE = new String("");
+    /**
+     * Estimated memory used by a dictionary entry, excluding the characters of its value.
+     */
+    private static final int DICTIONARY_ENTRY_OVERHEAD = 96;
+    /**
+     * Estimated memory used by a string, excluding its characters.
+     */
+    private static final int STRING_OVERHEAD = 40;
+
+    private final List<Column> columns = new ArrayList<>();
+    private final Map<String, Column> columnsByName = new HashMap<>();
+    private int capacity = INITIAL_CAPACITY;
+    private int size;
+
+    /**
+     * Adds a participant at the end of the table.
+     *
+     * @param participant the participant values, by column name.
+     */
+    void add(Map<String, String> participant) {
+        if (size == capacity) {
+            capacity = capacity * 2;
+            for (Column column : columns) {
+                column.grow(capacity);
+            }
+        }
+        for (Map.Entry<String, String> entry : participant.entrySet()) {
+            getOrCreateColumn(entry.getKey()).set(size, entry.getValue());
+        }
+        size++;
+    }
+
+    /**
+     * Decodes a participant.
+     *
+     * @param index the index of the participant in the table.
+     * @return a new map of the participant values, by column name.
+     */
+    Map<String, String> get(int index) {
+        Map<String, String> participant = new HashMap<>(2 * columns.size());
+        for (Column column : columns) {
+            if (column.isPresent(index)) {
+                participant.put(column.name, column.get(index));
+            }
+        }
+        return participant;
+    }
+
+    /**
+     * Replaces the values of a participant.
+     *
+     * @param index       the index of the participant in the table.
+     * @param participant the new participant values, by column name.
+     */
+    void set(int index, Map<String, String> participant) {
+        for (Column column : columns) {
+            if (!participant.containsKey(column.name)) {
+                column.remove(index);
+            }
+        }
+        for (Map.Entry<String, String> entry : participant.entrySet()) {
+            getOrCreateColumn(entry.getKey()).set(index, entry.getValue());
+        }
+    }
+
+    /**
+     * Sets a column of all the participants from the value of another column. The derivation is computed
+     * once per distinct value of a dictionary-encoded source column, then the column is filled from the codes of
+     * the source column.
+     *
+     * @param columnName       the column to set.
+     * @param sourceColumnName the column the values are derived from.
+     * @param derivation       the derivation of a value from the source value, {@code null} if the source is absent.
+     */
+    void deriveColumn(String columnName, String sourceColumnName, UnaryOperator<String> derivation) {
+        Column source = columnsByName.get(sourceColumnName);
+        Column column = getOrCreateColumn(columnName);
+        if (source == column || (source != null && source.plainValues != null)) {
+            for (int i = 0; i < size; i++) {
+                column.set(i, derivation.apply(source.get(i)));
+            }
+            return;
+        }
+        String[] derivedValues = new String[FIRST_VALUE_CODE + (source == null ? 0 : source.values.size())];
+        boolean[] derived = new boolean[derivedValues.length];
+        for (int i = 0; i < size; i++) {
+            int sourceCode = source == null ? ABSENT : source.codes[i];
+            if (!derived[sourceCode]) {
+                derivedValues[sourceCode] = derivation.apply(source == null ? null : source.decode(sourceCode));
+                derived[sourceCode] = true;
+            }
+            column.set(i, derivedValues[sourceCode]);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Estimates the memory used by the table: the codes or values of all the columns and the dictionaries.
+     *
+     * @return the estimated size in bytes.
+     */
+    long estimatedSize() {
+        long estimatedSize = 0;
+        for (Column column : columns) {
+            estimatedSize += (column.plainValues != null ? 8L : 4L) * capacity + column.valuesSize;
+        }
+        return estimatedSize;
+    }
+
+    /**
+     * Removes all the participants, columns and dictionaries.
+     */
+    void clear() {
+        columns.clear();
+        columnsByName.clear();
+        capacity = INITIAL_CAPACITY;
+        size = 0;
+    }
+
+    private Column getOrCreateColumn(String name) {
+        Column column = columnsByName.get(name);
+        if (column == null) {
+            column = new Column(name, capacity);
+            columns.add(column);
+            columnsByName.put(name, column);
+        }
+        return column;
+    }
+
+    private final class Column {
+        private final String name;
+        private int[] codes;
+        private final List<String> values = new ArrayList<>();
+        private final Map<String, Integer> valueCodes = new HashMap<>();
+        /**
+         * The values of the participants once the column is no longer dictionary-encoded.
+         */
+        private String[] plainValues;
+        /**
+         * The estimated size of the dictionary, or of the plain values.
+         */
+        private long valuesSize;
+
+        private Column(String name, int capacity) {
+            this.name = name;
+            this.codes = new int[capacity];
+        }
+
+        private void grow(int capacity) {
+            if (plainValues != null) {
+                int previousCapacity = plainValues.length;
+                plainValues = Arrays.copyOf(plainValues, capacity);
+                Arrays.fill(plainValues, previousCapacity, capacity, ABSENT_VALUE);
+            } else {
+                codes = Arrays.copyOf(codes, capacity);
+            }
+        }
+
+        private boolean isPresent(int index) {
+            return plainValues != null ? plainValues[index] != ABSENT_VALUE : codes[index] != ABSENT;
+        }
+
+        private String get(int index) {
+            return plainValues != null ? plainValues[index] : decode(codes[index]);
+        }
+
+        private void set(int index, String value) {
+            if (plainValues != null) {
+                valuesSize += plainSize(value) - plainSize(plainValues[index]);
+                plainValues[index] = value;
+            } else {
+                codes[index] = encode(value);
+                if (values.size() > MAX_DICTIONARY_SIZE && values.size() > size / 2) {
+                    toPlainValues();
+                }
+            }
+        }
+
+        private void remove(int index) {
+            if (plainValues != null) {
+                valuesSize -= plainSize(plainValues[index]);
+                plainValues[index] = ABSENT_VALUE;
+            } else {
+                codes[index] = ABSENT;
+            }
+        }
+
+        private int encode(String value) {
+            if (value == null) {
+                return NULL_VALUE;
+            }
+            Integer code = valueCodes.get(value);
+            if (code == null) {
+                code = FIRST_VALUE_CODE + values.size();
+                values.add(value);
+                valueCodes.put(value, code);
+                valuesSize += DICTIONARY_ENTRY_OVERHEAD + value.length();
+            }
+            return code;
+        }
+
+        private String decode(int code) {
+            return code < FIRST_VALUE_CODE ? null : values.get(code - FIRST_VALUE_CODE);
+        }
+
+        private void toPlainValues() {
+            plainValues = new String[codes.length];
+            valuesSize = 0;
+            for (int i = 0; i < codes.length; i++) {
+                plainValues[i] = codes[i] == ABSENT ? ABSENT_VALUE : decode(codes[i]);
+                valuesSize += plainSize(plainValues[i]);
+            }
+            codes = null;
+            values.clear();
+            valueCodes.clear();
+        }
+
+        private long plainSize(String value) {
+            return value == null || value == ABSENT_VALUE ? 0 : STRING_OVERHEAD + value.length();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * The {@code ParticipantWriter} interface writes formatted participants to an output file, one row per participant.
+ * The values of a participant are written in the order of the header given when the writer is opened.
+ *
+ * <p>The writer must be closed to complete the output file.</p>
+ */
+public interface ParticipantWriter extends Closeable {
+
+    /**
+     * Writes one participant as a new row.
+     *
+     * @param participant the participant values, by column name.
+     * @throws IOException if the row cannot be written.
+     */
+    void write(Map<String, String> participant) throws IOException;
+
+    /**
+     * Opens a {@link ParticipantWriter} once the header of the output is known.
+     */
+    @FunctionalInterface
+    interface Factory {
+
+        /**
+         * Opens the writer and writes the header.
+         *
+         * @param header the column names of the output.
+         * @return the opened writer.
+         * @throws IOException if the output file cannot be created.
+         */
+        ParticipantWriter open(String[] header) throws IOException;
+    }
+}
@@ -0,0 +1,78 @@
+package uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing;
+
+/**
+ * The {@code RecordBoundaryScanner} class finds the ends of the records of a delimited text file
+ * read byte by byte. A line break only ends a record when it is outside a quoted field,
+ * following the quote and escape rules of the opencsv parser: like opencsv, the scanner tracks whether it is
+ * inside a field, since an escape or a doubled quote is also honoured in an unquoted field.
+ *
+ * <p>opencsv looks at the character following a quote or an escape to decide how to read it,
+ * so these two characters are only resolved when the next byte is read.</p>
+ */
+class RecordBoundaryScanner {
+
+    private static final byte QUOTE = '"';
+    private static final byte ESCAPE = '\\';
+
+    private final byte separator;
+    private boolean inQuotes;
+    private boolean inField;
+    private boolean pendingQuote;
+    private boolean pendingEscape;
+    /**
+     * Whether the pending quote can be the first of a doubled quote, as decided by opencsv when it reads the quote.
+     */
+    private boolean quoteCanBeDoubled;
+
+    /**
+     * Constructs a scanner for the given field separator.
+     *
+     * @param separator the field separator (e.g., ',' for CSV or '\t' for TSV).
+     */
+    RecordBoundaryScanner(char separator) {
+        this.separator = (byte) separator;
+    }
+
+    /**
+     * Reads the next byte of the file.
+     *
+     * @param current the byte read.
+     * @return {@code true} if the byte is the line break ending a record, {@code false} otherwise.
+     */
+    boolean isRecordEnd(byte current) {
+        if (pendingEscape) {
+            pendingEscape = false;
+            // an escape is only taken before a quote, an escape or a separator, the next character is then literal
+            if (current == QUOTE || current == ESCAPE || current == separator) {
+                return false;
+            }
+        } else if (pendingQuote) {
+            pendingQuote = false;
+            inField = !inField;
+            if (quoteCanBeDoubled && current == QUOTE) {
+                return false;
+            }
+            inQuotes = !inQuotes;
+        }
+
+        if (current == ESCAPE) {
+            inField = true;
+            pendingEscape = true;
+        } else if (current == QUOTE) {
+            quoteCanBeDoubled = inQuotes || inField;
+            pendingQuote = true;
+        } else if (current == '\n') {
+            if (inQuotes) {
+                return false;
+            }
+            inField = false;
+            return true;
+        } else if (current == separator && !inQuotes) {
+            inField = false;
+        } else if (current != '\r') {
+            // a carriage return before a line break is removed by opencsv with the line break
+            inField = true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,21 @@
+package uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * The {@code RowIterator} interface represents a lazy iterator over the rows of an input file.
+ * Each row is returned as the list of its cell values, and the underlying file is only read
+ * when the next row is requested.
+ *
+ * <p>The iterator must be closed once it is no longer needed to release the file.</p>
+ */
+public interface RowIterator extends Iterator<List<String>>, Closeable {
+
+    /**
+     * Releases the file read by the iterator.
+     */
+    @Override
+    void close();
+}
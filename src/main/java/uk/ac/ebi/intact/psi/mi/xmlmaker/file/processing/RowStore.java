@@ -0,0 +1,33 @@
+package uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing;
+
+import java.util.List;
+
+/**
+ * The {@code RowStore} interface gives random access to the data rows of a parsed file.
+ *
+ * <p>Row indexes start at 0 for the first row after the header.</p>
+ */
+public interface RowStore {
+
+    /**
+     * Gets the value of a cell.
+     *
+     * @param rowIndex    the index of the data row.
+     * @param columnIndex the index of the column.
+     * @return the cell value, or an empty string if the row or the column does not exist.
+     */
+    String getCell(int rowIndex, int columnIndex);
+
+    /**
+     * Gets a full data row.
+     *
+     * @param rowIndex the index of the data row.
+     * @return the row values, or an empty list if the row does not exist.
+     */
+    List<String> getRow(int rowIndex);
+
+    /**
+     * @return the number of data rows in the store.
+     */
+    int size();
+}
@@ -0,0 +1,97 @@
+package uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing;
+
+import com.opencsv.CSVParserBuilder;
+import com.opencsv.CSVReader;
+import com.opencsv.CSVReaderBuilder;
+import com.opencsv.exceptions.CsvValidationException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The {@code SeparatedRowIterator} class streams the rows of a delimited text file (CSV, TSV)
+ * using opencsv. Rows are parsed one at a time when requested, so the memory used does not
+ * depend on the size of the file.
+ */
+public class SeparatedRowIterator implements RowIterator {
+
+    private static final Logger LOGGER = Logger.getLogger(SeparatedRowIterator.class.getName());
+
+    private final CSVReader csvReader;
+    private List<String> nextRow;
+    private boolean finished;
+
+    /**
+     * Constructs a SeparatedRowIterator reading from the given reader.
+     *
+     * @param reader    the reader of the file content.
+     * @param separator the field separator (e.g., ',' for CSV or '\t' for TSV).
+     */
+    public SeparatedRowIterator(Reader reader, char separator) {
+        this.csvReader = new CSVReaderBuilder(reader)
+                .withCSVParser(new CSVParserBuilder()
+                        .withSeparator(separator)
+                        .withIgnoreQuotations(false)
+                        .build())
+                .build();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (nextRow == null && !finished) {
+            nextRow = readNextRow();
+            finished = nextRow == null;
+        }
+        return nextRow != null;
+    }
+
+    @Override
+    public List<String> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        List<String> row = nextRow;
+        nextRow = null;
+        return row;
+    }
+
+    /**
+     * Parses the next row of the file and trims its values.
+     *
+     * @return the row values, or {@code null} if the end of the file is reached.
+     */
+    private List<String> readNextRow() {
+        try {
+            String[] line = csvReader.readNext();
+            if (line == null) {
+                return null;
+            }
+            List<String> row = new ArrayList<>(line.length);
+            for (String value : line) {
+                row.add(value.trim());
+            }
+            return row;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (CsvValidationException e) {
+            throw new UncheckedIOException(new IOException(e));
+        }
+    }
+
+    @Override
+    public void close() {
+        finished = true;
+        nextRow = null;
+        try {
+            csvReader.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Unable to close file with separator", e);
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing;
+
+import org.apache.poi.hssf.record.BOFRecord;
+import org.apache.poi.hssf.record.BoolErrRecord;
+import org.apache.poi.hssf.record.BoundSheetRecord;
+import org.apache.poi.hssf.record.CellValueRecordInterface;
+import org.apache.poi.hssf.record.EOFRecord;
+import org.apache.poi.hssf.record.FormulaRecord;
+import org.apache.poi.hssf.record.LabelRecord;
+import org.apache.poi.hssf.record.LabelSSTRecord;
+import org.apache.poi.hssf.record.NumberRecord;
+import org.apache.poi.hssf.record.Record;
+import org.apache.poi.hssf.record.RecordFactoryInputStream;
+import org.apache.poi.hssf.record.SSTRecord;
+import org.apache.poi.hssf.record.StringRecord;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.ss.usermodel.CellType;
+import uk.ac.ebi.intact.psi.mi.xmlmaker.utils.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The {@code XlsRowIterator} class streams the rows of one sheet of an XLS file by reading the
+ * BIFF records of the workbook stream one at a time, as the POI HSSF event API does.
+ * No workbook model is built, only the shared string table is kept in memory.
+ *
+ * <p>Rows missing from the sheet are returned as empty lists and missing cells as empty strings,
+ * so that the position of a row and of a cell matches its position in the sheet.
+ * Formula cells are read from their cached result.</p>
+ */
+public class XlsRowIterator implements RowIterator {
+
+    private static final Logger LOGGER = Logger.getLogger(XlsRowIterator.class.getName());
+
+    private final POIFSFileSystem fileSystem;
+    private final InputStream workbookStream;
+    private final RecordFactoryInputStream records;
+    private final SSTRecord sharedStrings;
+
+    private List<String> buildingRow;
+    private int buildingRowNumber;
+    private int formulaStringColumn = -1;
+    private int nestedDepth;
+    private boolean sheetFinished;
+
+    private List<String> pendingRow;
+    private int pendingRowNumber;
+    private int nextRowNumber;
+
+    private XlsRowIterator(POIFSFileSystem fileSystem, InputStream workbookStream,
+                           RecordFactoryInputStream records, SSTRecord sharedStrings) {
+        this.fileSystem = fileSystem;
+        this.workbookStream = workbookStream;
+        this.records = records;
+        this.sharedStrings = sharedStrings;
+    }
+
+    /**
+     * Opens the given sheet of an XLS file.
+     *
+     * @param filePath  the path to the XLS file.
+     * @param sheetName the name of the sheet to read.
+     * @return an iterator over all the rows of the sheet, header included.
+     * @throws IOException if the file cannot be read or the sheet does not exist.
+     */
+    public static XlsRowIterator open(String filePath, String sheetName) throws IOException {
+        POIFSFileSystem fileSystem = new POIFSFileSystem(new File(filePath), true);
+        InputStream workbookStream = null;
+        try {
+            workbookStream = fileSystem.createDocumentInputStream(HSSFWorkbook.getWorkbookDirEntryName(fileSystem.getRoot()));
+            RecordFactoryInputStream records = new RecordFactoryInputStream(workbookStream, false);
+            List<BoundSheetRecord> boundSheets = new ArrayList<>();
+            SSTRecord sharedStrings = readWorkbookGlobals(records, boundSheets);
+
+            // the sheet streams follow the globals in the order of their position in the file
+            List<BoundSheetRecord> sheetsInFileOrder = Arrays.asList(BoundSheetRecord.orderByBofPosition(boundSheets));
+            int sheetPosition = -1;
+            for (int i = 0; i < sheetsInFileOrder.size(); i++) {
+                if (sheetsInFileOrder.get(i).getSheetname().equals(sheetName)) {
+                    sheetPosition = i;
+                    break;
+                }
+            }
+            if (sheetPosition < 0) {
+                throw new IOException("Sheet '" + sheetName + "' does not exist.");
+            }
+            skipToSheet(records, sheetPosition);
+            return new XlsRowIterator(fileSystem, workbookStream, records, sharedStrings);
+        } catch (IOException | RuntimeException e) {
+            closeQuietly(workbookStream);
+            fileSystem.close();
+            throw e instanceof IOException ? (IOException) e : new IOException("Unable to read XLS file: " + filePath, e);
+        }
+    }
+
+    /**
+     * Reads the names of the sheets of an XLS file from the workbook globals, without reading their content.
+     *
+     * @param filePath the path to the XLS file.
+     * @return the sheet names, in workbook order.
+     * @throws IOException if the file cannot be read.
+     */
+    public static List<String> readSheetNames(String filePath) throws IOException {
+        try (POIFSFileSystem fileSystem = new POIFSFileSystem(new File(filePath), true);
+             InputStream workbookStream = fileSystem.createDocumentInputStream(
+                     HSSFWorkbook.getWorkbookDirEntryName(fileSystem.getRoot()))) {
+            List<BoundSheetRecord> boundSheets = new ArrayList<>();
+            readWorkbookGlobals(new RecordFactoryInputStream(workbookStream, false), boundSheets);
+            List<String> sheetNames = new ArrayList<>();
+            for (BoundSheetRecord boundSheet : boundSheets) {
+                sheetNames.add(boundSheet.getSheetname());
+            }
+            return sheetNames;
+        } catch (RuntimeException e) {
+            throw new IOException("Unable to read XLS file: " + filePath, e);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (pendingRow == null && !sheetFinished) {
+            try {
+                readNextRow();
+            } catch (RuntimeException e) {
+                throw new UncheckedIOException(new IOException("Unable to read XLS sheet", e));
+            }
+        }
+        return pendingRow != null;
+    }
+
+    @Override
+    public List<String> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        if (nextRowNumber < pendingRowNumber) {
+            nextRowNumber++;
+            return new ArrayList<>();
+        }
+        List<String> row = pendingRow;
+        pendingRow = null;
+        nextRowNumber++;
+        return row;
+    }
+
+    @Override
+    public void close() {
+        closeQuietly(workbookStream);
+        try {
+            fileSystem.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Unable to close XLS file", e);
+        }
+    }
+
+    /**
+     * Reads the workbook globals up to their end of file record.
+     *
+     * @param records     the record stream, positioned at the start of the workbook stream.
+     * @param boundSheets the list filled with the sheet records, in workbook order.
+     * @return the shared string table, or an empty one if the workbook has none.
+     */
+    private static SSTRecord readWorkbookGlobals(RecordFactoryInputStream records, List<BoundSheetRecord> boundSheets) {
+        SSTRecord sharedStrings = new SSTRecord();
+        Record record;
+        while ((record = records.nextRecord()) != null && !(record instanceof EOFRecord)) {
+            if (record instanceof BoundSheetRecord) {
+                boundSheets.add((BoundSheetRecord) record);
+            } else if (record instanceof SSTRecord) {
+                sharedStrings = (SSTRecord) record;
+            }
+        }
+        return sharedStrings;
+    }
+
+    /**
+     * Skips the sheet streams preceding the wanted one, leaving the record stream after its BOF record.
+     */
+    private static void skipToSheet(RecordFactoryInputStream records, int sheetPosition) throws IOException {
+        int currentSheet = -1;
+        int depth = 0;
+        Record record;
+        while ((record = records.nextRecord()) != null) {
+            if (record instanceof BOFRecord) {
+                if (depth == 0 && ++currentSheet == sheetPosition) {
+                    return;
+                }
+                depth++;
+            } else if (record instanceof EOFRecord) {
+                depth--;
+            }
+        }
+        throw new IOException("Sheet stream not found in the workbook.");
+    }
+
+    /**
+     * Reads the records of the sheet until a full row is available in {@code pendingRow}.
+     * Cell records are stored by row, so a row is complete when a cell of another row is found.
+     */
+    private void readNextRow() {
+        Record record;
+        while ((record = records.nextRecord()) != null) {
+            if (record instanceof BOFRecord) {
+                nestedDepth++;
+            } else if (record instanceof EOFRecord) {
+                if (nestedDepth == 0) {
+                    break;
+                }
+                nestedDepth--;
+            } else if (nestedDepth > 0) {
+                continue;
+            } else if (record instanceof StringRecord) {
+                if (formulaStringColumn >= 0 && buildingRow != null) {
+                    buildingRow.set(formulaStringColumn, ((StringRecord) record).getString());
+                }
+                formulaStringColumn = -1;
+            } else if (record instanceof CellValueRecordInterface) {
+                CellValueRecordInterface cell = (CellValueRecordInterface) record;
+                boolean rowCompleted = buildingRow != null && cell.getRow() != buildingRowNumber;
+                if (rowCompleted) {
+                    pendingRow = buildingRow;
+                    pendingRowNumber = buildingRowNumber;
+                    buildingRow = null;
+                }
+                addCell(cell);
+                if (rowCompleted) {
+                    return;
+                }
+            }
+        }
+        sheetFinished = true;
+        if (buildingRow != null) {
+            pendingRow = buildingRow;
+            pendingRowNumber = buildingRowNumber;
+            buildingRow = null;
+        }
+    }
+
+    private void addCell(CellValueRecordInterface cell) {
+        if (buildingRow == null) {
+            buildingRow = new ArrayList<>();
+            buildingRowNumber = cell.getRow();
+        }
+        int columnIndex = cell.getColumn();
+        while (buildingRow.size() <= columnIndex) {
+            buildingRow.add("");
+        }
+        buildingRow.set(columnIndex, getCellValue(cell));
+        formulaStringColumn = cell instanceof FormulaRecord && ((FormulaRecord) cell).hasCachedResultString()
+                ? columnIndex : -1;
+    }
+
+    /**
+     * Converts a cell record like {@link FileUtils#getCellValueAsString} does for a workbook cell.
+     */
+    private String getCellValue(CellValueRecordInterface cell) {
+        if (cell instanceof LabelSSTRecord) {
+            return sharedStrings.getString(((LabelSSTRecord) cell).getSSTIndex()).getString();
+        }
+        if (cell instanceof NumberRecord) {
+            return FileUtils.formatNumericValue(((NumberRecord) cell).getValue());
+        }
+        if (cell instanceof BoolErrRecord) {
+            BoolErrRecord boolErr = (BoolErrRecord) cell;
+            return boolErr.isBoolean() ? String.valueOf(boolErr.getBooleanValue()) : "";
+        }
+        if (cell instanceof LabelRecord) {
+            return ((LabelRecord) cell).getValue();
+        }
+        if (cell instanceof FormulaRecord) {
+            FormulaRecord formula = (FormulaRecord) cell;
+            CellType resultType = formula.getCachedResultTypeEnum();
+            if (resultType == CellType.NUMERIC) {
+                return FileUtils.formatNumericValue(formula.getValue());
+            }
+            if (resultType == CellType.BOOLEAN) {
+                return String.valueOf(formula.getCachedBooleanValue());
+            }
+        }
+        return "";
+    }
+
+    private static void closeQuietly(InputStream stream) {
+        if (stream == null) {
+            return;
+        }
+        try {
+            stream.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Unable to close XLS workbook stream", e);
+        }
+    }
+}
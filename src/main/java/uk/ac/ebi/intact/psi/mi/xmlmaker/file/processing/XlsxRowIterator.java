@@ -0,0 +1,259 @@
+package uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import uk.ac.ebi.intact.psi.mi.xmlmaker.utils.FileUtils;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The {@code XlsxRowIterator} class streams the rows of one sheet of an XLSX file using the
+ * POI XSSF event API. The sheet XML is pulled row by row and the shared strings are parsed
+ * on demand, so no workbook model is built and reading the first rows of a large sheet is fast.
+ *
+ * <p>Rows missing from the sheet are returned as empty lists and missing cells as empty strings,
+ * so that the position of a row and of a cell matches its position in the sheet.
+ * Formula cells are read from their cached result.</p>
+ */
+public class XlsxRowIterator implements RowIterator {
+
+    private static final Logger LOGGER = Logger.getLogger(XlsxRowIterator.class.getName());
+
+    private final OPCPackage opcPackage;
+    private final XlsxSharedStrings sharedStrings;
+    private final InputStream sheetStream;
+    private final XMLStreamReader xmlReader;
+
+    private List<String> pendingRow;
+    private int pendingRowNumber;
+    private int nextRowNumber;
+    private boolean finished;
+
+    private XlsxRowIterator(OPCPackage opcPackage, XlsxSharedStrings sharedStrings,
+                            InputStream sheetStream) throws XMLStreamException {
+        this.opcPackage = opcPackage;
+        this.sharedStrings = sharedStrings;
+        this.sheetStream = sheetStream;
+        this.xmlReader = createInputFactory().createXMLStreamReader(sheetStream);
+    }
+
+    /**
+     * Opens the given sheet of an XLSX file.
+     *
+     * @param filePath  the path to the XLSX file.
+     * @param sheetName the name of the sheet to read.
+     * @return an iterator over all the rows of the sheet, header included.
+     * @throws IOException if the file cannot be read or the sheet does not exist.
+     */
+    public static XlsxRowIterator open(String filePath, String sheetName) throws IOException {
+        OPCPackage opcPackage = openPackage(filePath);
+        InputStream sheetStream = null;
+        try {
+            XSSFReader xssfReader = new XSSFReader(opcPackage);
+            XSSFReader.SheetIterator sheetIterator = (XSSFReader.SheetIterator) xssfReader.getSheetsData();
+            while (sheetIterator.hasNext() && sheetStream == null) {
+                InputStream stream = sheetIterator.next();
+                if (sheetIterator.getSheetName().equals(sheetName)) {
+                    sheetStream = stream;
+                } else {
+                    stream.close();
+                }
+            }
+            if (sheetStream == null) {
+                throw new IOException("Sheet '" + sheetName + "' does not exist.");
+            }
+            return new XlsxRowIterator(opcPackage, new XlsxSharedStrings(opcPackage), sheetStream);
+        } catch (IOException | OpenXML4JException | XMLStreamException | RuntimeException e) {
+            closeQuietly(sheetStream);
+            opcPackage.revert();
+            throw e instanceof IOException ? (IOException) e : new IOException("Unable to read XLSX file: " + filePath, e);
+        }
+    }
+
+    /**
+     * Reads the names of the sheets of an XLSX file without reading their content.
+     *
+     * @param filePath the path to the XLSX file.
+     * @return the sheet names, in workbook order.
+     * @throws IOException if the file cannot be read.
+     */
+    public static List<String> readSheetNames(String filePath) throws IOException {
+        OPCPackage opcPackage = openPackage(filePath);
+        try {
+            List<String> sheetNames = new ArrayList<>();
+            XSSFReader.SheetIterator sheetIterator = (XSSFReader.SheetIterator) new XSSFReader(opcPackage).getSheetsData();
+            while (sheetIterator.hasNext()) {
+                sheetIterator.next().close();
+                sheetNames.add(sheetIterator.getSheetName());
+            }
+            return sheetNames;
+        } catch (OpenXML4JException | RuntimeException e) {
+            throw new IOException("Unable to read XLSX file: " + filePath, e);
+        } finally {
+            opcPackage.revert();
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (pendingRow == null && !finished) {
+            try {
+                readNextRow();
+            } catch (XMLStreamException e) {
+                throw new UncheckedIOException(new IOException("Unable to read XLSX sheet", e));
+            }
+        }
+        return pendingRow != null;
+    }
+
+    @Override
+    public List<String> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        if (nextRowNumber < pendingRowNumber) {
+            nextRowNumber++;
+            return new ArrayList<>();
+        }
+        List<String> row = pendingRow;
+        pendingRow = null;
+        nextRowNumber++;
+        return row;
+    }
+
+    @Override
+    public void close() {
+        try {
+            xmlReader.close();
+        } catch (XMLStreamException e) {
+            LOGGER.log(Level.WARNING, "Unable to close XLSX sheet reader", e);
+        }
+        closeQuietly(sheetStream);
+        sharedStrings.close();
+        opcPackage.revert();
+    }
+
+    /**
+     * Moves the XML reader to the next row element and reads its cells into {@code pendingRow}.
+     */
+    private void readNextRow() throws XMLStreamException {
+        while (xmlReader.hasNext()) {
+            int event = xmlReader.next();
+            if (event == XMLStreamConstants.START_ELEMENT && "row".equals(xmlReader.getLocalName())) {
+                String reference = xmlReader.getAttributeValue(null, "r");
+                pendingRowNumber = reference == null ? nextRowNumber : Integer.parseInt(reference) - 1;
+                pendingRow = readCells();
+                return;
+            }
+            if (event == XMLStreamConstants.END_ELEMENT && "sheetData".equals(xmlReader.getLocalName())) {
+                break;
+            }
+        }
+        finished = true;
+    }
+
+    private List<String> readCells() throws XMLStreamException {
+        List<String> row = new ArrayList<>();
+        while (xmlReader.hasNext()) {
+            int event = xmlReader.next();
+            if (event == XMLStreamConstants.START_ELEMENT && "c".equals(xmlReader.getLocalName())) {
+                String reference = xmlReader.getAttributeValue(null, "r");
+                int columnIndex = reference == null ? row.size() : new CellReference(reference).getCol();
+                String type = xmlReader.getAttributeValue(null, "t");
+                String value = readCellValue(type);
+                while (row.size() < columnIndex) {
+                    row.add("");
+                }
+                row.add(value);
+            } else if (event == XMLStreamConstants.END_ELEMENT && "row".equals(xmlReader.getLocalName())) {
+                break;
+            }
+        }
+        return row;
+    }
+
+    /**
+     * Reads the content of the current cell element and converts it like
+     * {@link FileUtils#getCellValueAsString} does for a workbook cell.
+     */
+    private String readCellValue(String type) throws XMLStreamException {
+        StringBuilder inlineText = new StringBuilder();
+        String rawValue = null;
+        while (xmlReader.hasNext()) {
+            int event = xmlReader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String name = xmlReader.getLocalName();
+                if ("v".equals(name)) {
+                    rawValue = xmlReader.getElementText();
+                } else if ("t".equals(name)) {
+                    inlineText.append(xmlReader.getElementText());
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT && "c".equals(xmlReader.getLocalName())) {
+                break;
+            }
+        }
+
+        if ("inlineStr".equals(type)) {
+            return inlineText.toString();
+        }
+        if (rawValue == null || rawValue.isEmpty()) {
+            return "";
+        }
+        switch (type == null ? "n" : type) {
+            case "s":
+                return sharedStrings.getString(Integer.parseInt(rawValue));
+            case "b":
+                return String.valueOf("1".equals(rawValue));
+            case "str":
+                return rawValue;
+            case "e":
+                return "";
+            default:
+                try {
+                    return FileUtils.formatNumericValue(Double.parseDouble(rawValue));
+                } catch (NumberFormatException e) {
+                    return rawValue;
+                }
+        }
+    }
+
+    private static OPCPackage openPackage(String filePath) throws IOException {
+        try {
+            return OPCPackage.open(filePath, PackageAccess.READ);
+        } catch (OpenXML4JException | RuntimeException e) {
+            throw new IOException("Unable to open XLSX file: " + filePath, e);
+        }
+    }
+
+    static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    private static void closeQuietly(InputStream stream) {
+        if (stream == null) {
+            return;
+        }
+        try {
+            stream.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Unable to close XLSX sheet stream", e);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.xssf.usermodel.XSSFRelation;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The {@code XlsxSharedStrings} class reads the shared string table of an XLSX file on demand.
+ * Strings are only parsed up to the highest index requested so far, so reading the first rows
+ * of a sheet does not require parsing the strings of the whole workbook.
+ */
+class XlsxSharedStrings implements Closeable {
+
+    private static final Logger LOGGER = Logger.getLogger(XlsxSharedStrings.class.getName());
+
+    private final List<String> strings = new ArrayList<>();
+    private final InputStream stream;
+    private final XMLStreamReader xmlReader;
+    private boolean finished;
+
+    XlsxSharedStrings(OPCPackage opcPackage) throws IOException, XMLStreamException {
+        List<PackagePart> parts = opcPackage.getPartsByContentType(XSSFRelation.SHARED_STRINGS.getContentType());
+        if (parts.isEmpty()) {
+            stream = null;
+            xmlReader = null;
+            finished = true;
+        } else {
+            stream = parts.get(0).getInputStream();
+            xmlReader = XlsxRowIterator.createInputFactory().createXMLStreamReader(stream);
+        }
+    }
+
+    /**
+     * Gets a shared string, parsing the table until its index is reached.
+     *
+     * @param index the index of the string in the table.
+     * @return the string, or an empty string if the table has no string at this index.
+     * @throws XMLStreamException if the shared string table cannot be parsed.
+     */
+    String getString(int index) throws XMLStreamException {
+        while (strings.size() <= index && !finished) {
+            readNextString();
+        }
+        return index >= 0 && index < strings.size() ? strings.get(index) : "";
+    }
+
+    /**
+     * Reads the next string item, ignoring the phonetic runs like the workbook model does.
+     */
+    private void readNextString() throws XMLStreamException {
+        while (xmlReader.hasNext()) {
+            if (xmlReader.next() == XMLStreamConstants.START_ELEMENT && "si".equals(xmlReader.getLocalName())) {
+                StringBuilder text = new StringBuilder();
+                int phoneticDepth = 0;
+                while (xmlReader.hasNext()) {
+                    int event = xmlReader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        String name = xmlReader.getLocalName();
+                        if ("rPh".equals(name)) {
+                            phoneticDepth++;
+                        } else if ("t".equals(name) && phoneticDepth == 0) {
+                            text.append(xmlReader.getElementText());
+                        }
+                    } else if (event == XMLStreamConstants.END_ELEMENT) {
+                        String name = xmlReader.getLocalName();
+                        if ("rPh".equals(name)) {
+                            phoneticDepth--;
+                        } else if ("si".equals(name)) {
+                            break;
+                        }
+                    }
+                }
+                strings.add(text.toString());
+                return;
+            }
+        }
+        finished = true;
+    }
+
+    @Override
+    public void close() {
+        if (xmlReader == null) {
+            return;
+        }
+        try {
+            xmlReader.close();
+            stream.close();
+        } catch (XMLStreamException | IOException e) {
+            LOGGER.log(Level.WARNING, "Unable to close XLSX shared strings", e);
+        }
+    }
+}
@@ -22,6 +22,7 @@ import static uk.ac.ebi.intact.psi.mi.xmlmaker.utils.GuiUtils.*;
  * <ul>
  *   <li>Dropdowns for sheet and column selection</li>
  *   <li>Checkbox for binary interaction formatting</li>
+ *   <li>Formatting options, such as streaming the output for large files</li>
  *   <li>Button to trigger file formatting</li>
  * </ul>
  *
@@ -37,6 +38,16 @@ public class FileFormaterGui {
     private final JComboBox<String> preyColumn = new JComboBox<>();
     private final JComboBox<String> baitNameColumn = new JComboBox<>();
     private final JComboBox<String> preyNameColumn = new JComboBox<>();
+    private final JCheckBox streamingOutputCheckBox = new JCheckBox("Stream the output");
+    private final JCheckBox removeDuplicatePairsCheckBox = new JCheckBox("Remove duplicate pairs");
+    private final JCheckBox hashedDuplicateDetectionCheckBox = new JCheckBox("Hashed detection");
+    private final JCheckBox matrixInputCheckBox = new JCheckBox("Matrix input");
+    private final JTextField matrixScoreThresholdField = new JTextField(6);
+    private final JSpinner parsingParallelismSpinner = new JSpinner(
+            new SpinnerNumberModel(1, 1, Runtime.getRuntime().availableProcessors(), 1));
+    private final JCheckBox memoryMappedInputCheckBox = new JCheckBox("Memory-mapped input");
+    private final JSpinner excelRowWindowSpinner = new JSpinner(new SpinnerNumberModel(0, 0, 1_000_000, 100));
+    private final JSpinner organismLookupParallelismSpinner = new JSpinner(new SpinnerNumberModel(4, 1, 16, 1));
 
     private final int HEIGHT = 100;
     private final int WIDTH = getDefaultToolkit().getScreenSize().width - HEIGHT;
@@ -210,11 +221,11 @@ public class FileFormaterGui {
     }
 
     /**
-     * Creates a panel for file processing which includes a checkbox for creating binary interactions
-     * and a button to trigger the file formatting process. When the button is clicked, it uses the
+     * Creates a panel for file processing which includes a checkbox for creating binary interactions,
+     * the formatting options and a button to trigger the file formatting process. When the button is clicked, it uses the
      * user-selected features and interaction data to format the file accordingly.
      *
-     * @return A {@link JPanel} containing a checkbox and button for file processing.
+     * @return A {@link JPanel} containing the formatting options and button for file processing.
      */
     public JPanel createFileProcessingPanel() {
         JCheckBox fileFormaterCheckBox = new JCheckBox("Create binary interactions");
@@ -230,9 +241,9 @@ public class FileFormaterGui {
         gbc.gridwidth = 1;
         gbc.weighty = 0.5;
 
-        //Checkbox position
+        //Options position
         gbc.gridy = 0; //row num
-        processPanel.add(fileFormaterCheckBox, gbc);
+        processPanel.add(createFormattingOptionsPanel(fileFormaterCheckBox), gbc);
 
         //Button position
         gbc.gridy = 1;
@@ -241,13 +252,99 @@ public class FileFormaterGui {
         return processPanel;
     }
 
+    /**
+     * Creates the row of formatting options, next to the binary interactions checkbox.
+     *
+     * @param fileFormaterCheckBox the checkbox creating binary interactions.
+     * @return A {@link JPanel} containing the formatting options.
+     */
+    private JPanel createFormattingOptionsPanel(JCheckBox fileFormaterCheckBox) {
+        JPanel optionsPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        optionsPanel.add(fileFormaterCheckBox);
+
+        streamingOutputCheckBox.setToolTipText("Write the participants as their interactions are complete, " +
+                "instead of keeping the whole file in memory");
+        optionsPanel.add(streamingOutputCheckBox);
+
+        removeDuplicatePairsCheckBox.setToolTipText("Skip the rows repeating a bait-prey pair of the same interaction");
+        hashedDuplicateDetectionCheckBox.setToolTipText("Detect the duplicate pairs from a hash of the pairs, " +
+                "for very large files");
+        hashedDuplicateDetectionCheckBox.setEnabled(false);
+        removeDuplicatePairsCheckBox.addActionListener(e ->
+                hashedDuplicateDetectionCheckBox.setEnabled(removeDuplicatePairsCheckBox.isSelected()));
+        optionsPanel.add(removeDuplicatePairsCheckBox);
+        optionsPanel.add(hashedDuplicateDetectionCheckBox);
+
+        matrixInputCheckBox.setToolTipText("One prey per row and one bait per column from the baits id column on, " +
+                "each cell holding a score");
+        matrixScoreThresholdField.setToolTipText("Minimum score of the matrix cells giving a pair, empty to keep all the scores");
+        matrixScoreThresholdField.setEnabled(false);
+        matrixInputCheckBox.addActionListener(e -> matrixScoreThresholdField.setEnabled(matrixInputCheckBox.isSelected()));
+        optionsPanel.add(matrixInputCheckBox);
+        optionsPanel.add(new JLabel("Minimum score:"));
+        optionsPanel.add(matrixScoreThresholdField);
+
+        parsingParallelismSpinner.setValue(fileReader.getParsingParallelism());
+        parsingParallelismSpinner.setToolTipText("Number of threads parsing the CSV/TSV files");
+        parsingParallelismSpinner.addChangeListener(e ->
+                fileReader.setParsingParallelism((Integer) parsingParallelismSpinner.getValue()));
+        optionsPanel.add(new JLabel("Parsing threads:"));
+        optionsPanel.add(parsingParallelismSpinner);
+
+        memoryMappedInputCheckBox.setSelected(fileReader.isMemoryMappedInput());
+        memoryMappedInputCheckBox.setToolTipText("Map the CSV/TSV files in memory instead of parsing them on open, " +
+                "for files larger than the available memory");
+        memoryMappedInputCheckBox.addActionListener(e ->
+                fileReader.setMemoryMappedInput(memoryMappedInputCheckBox.isSelected()));
+        optionsPanel.add(memoryMappedInputCheckBox);
+
+        excelRowWindowSpinner.setValue(fileFormater.getFileWriter().getExcelRowWindow());
+        excelRowWindowSpinner.setToolTipText("Number of rows of an XLSX output kept in memory, " +
+                "0 to build the whole workbook in memory");
+        optionsPanel.add(new JLabel("Excel row window:"));
+        optionsPanel.add(excelRowWindowSpinner);
+
+        organismLookupParallelismSpinner.setValue(fileFormater.getOrganismLookupParallelism());
+        organismLookupParallelismSpinner.setToolTipText("Number of organisms looked up at the same time before formatting");
+        optionsPanel.add(new JLabel("Organism lookups:"));
+        optionsPanel.add(organismLookupParallelismSpinner);
+
+        return optionsPanel;
+    }
+
+    /**
+     * Applies the formatting options selected in the GUI to the {@code fileFormater}.
+     *
+     * @return {@code true} if the options are valid, {@code false} if an error was shown.
+     */
+    private boolean applyFormattingOptions() {
+        double matrixScoreThreshold = Double.NEGATIVE_INFINITY;
+        String threshold = matrixScoreThresholdField.getText().trim();
+        if (matrixInputCheckBox.isSelected() && !threshold.isEmpty()) {
+            try {
+                matrixScoreThreshold = Double.parseDouble(threshold);
+            } catch (NumberFormatException e) {
+                showErrorDialog("The minimum score must be a number: " + threshold);
+                return false;
+            }
+        }
+        fileFormater.setStreamingOutput(streamingOutputCheckBox.isSelected());
+        fileFormater.setRemoveDuplicatePairs(removeDuplicatePairsCheckBox.isSelected());
+        fileFormater.setHashedDuplicateDetection(hashedDuplicateDetectionCheckBox.isSelected());
+        fileFormater.setMatrixInput(matrixInputCheckBox.isSelected());
+        fileFormater.setMatrixScoreThreshold(matrixScoreThreshold);
+        fileFormater.getFileWriter().setExcelRowWindow((Integer) excelRowWindowSpinner.getValue());
+        fileFormater.setOrganismLookupParallelism((Integer) organismLookupParallelismSpinner.getValue());
+        return true;
+    }
+
     /**
      * Creates and returns a {@link JButton} labeled "Format file" with an attached action listener.
      * <p>
      * When clicked, the button:
      * <ul>
      *     <li>Retrieves participant interaction data from the GUI.</li>
-     *     <li>Configures the {@code fileFormater} instance with parameters and feature data from the GUI.</li>
+     *     <li>Configures the {@code fileFormater} instance with parameters, feature data and formatting options from the GUI.</li>
      *     <li>Triggers the file formatting process based on whether the associated checkbox is selected.</li>
      * </ul>
      *
@@ -262,7 +359,9 @@ public class FileFormaterGui {
             fileFormater.setAddParameters(participantAndInteractionCreatorGui.getMultipleInteractionParameters().isSelected());
             fileFormater.setBaitFeatures(participantAndInteractionCreatorGui.getBaitFeatureCreator().getBaitFeatures());
             fileFormater.setPreyFeatures(participantAndInteractionCreatorGui.getPreyFeatureCreator().getPreyFeatures());
-            formatFile(fileFormaterCheckBox.isSelected(), interactionData);
+            if (applyFormattingOptions()) {
+                formatFile(fileFormaterCheckBox.isSelected(), interactionData);
+            }
         });
         return fileFormaterButton;
     }
@@ -2,15 +2,14 @@ package uk.ac.ebi.intact.psi.mi.xmlmaker.jami.creators;
 
 import lombok.Getter;
 import lombok.Setter;
-import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.ss.usermodel.Row;
 import psidev.psi.mi.jami.model.*;
 import psidev.psi.mi.jami.xml.model.extension.xml300.*;
 import uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing.content.InputData;
 import uk.ac.ebi.intact.psi.mi.xmlmaker.jami.XmlFileWriter;
-import uk.ac.ebi.intact.psi.mi.xmlmaker.utils.FileUtils;
 import uk.ac.ebi.intact.psi.mi.xmlmaker.utils.XmlMakerUtils;
 import uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing.FileReader;
+import uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing.ParticipantBuffer;
+import uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing.RowIterator;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
@@ -48,7 +47,11 @@ public class XmlInteractionsCreator {
 
     private boolean isFileFinished;
     private final List<XmlInteractionEvidence> xmlModelledInteractions = new ArrayList<>();
-    private final List<Map<String, String>> dataList = new ArrayList<>();
+    /**
+     * The participants of the interaction being read, written to a temporary file beyond the memory budget of the buffer.
+     */
+    @Getter
+    private final ParticipantBuffer dataList = new ParticipantBuffer();
 
     private final FileReader fileReader;
     private final XmlFileWriter xmlFileWriter;
@@ -76,7 +79,7 @@ public class XmlInteractionsCreator {
         xmlModelledInteractions.clear();
         dataList.clear();
 
-        if (fileReader.getWorkbook() == null) {
+        if (!fileReader.isExcelFile()) {
             fetchDataFileWithSeparator(columnAndIndex);
         } else {
             fetchDataWithWorkbook(columnAndIndex);
@@ -304,50 +307,9 @@ public class XmlInteractionsCreator {
      * @param columnAndIndex the mapping of column names to their corresponding indices in the dataset.
      */
     public void fetchDataFileWithSeparator(Map<String, Integer> columnAndIndex) {
-        Iterator<List<String>> data = fileReader.readFileWithSeparator();
-        int expectedNumberOfColumns = fileReader.fileData.size();
-        int interactionNumberColumn = columnAndIndex.get(INTERACTION_NUMBER.name);
-        String currentInteractionNumber = "0";
-
-        if (data.hasNext()) {
-            List<String> firstRow = data.next();
-            currentInteractionNumber = firstRow.get(interactionNumberColumn);
-            Iterator<List<String>> finalData = data;
-            data = new Iterator<>() {
-                boolean firstRowProcessed = false;
-
-                @Override
-                public boolean hasNext() {
-                    return !firstRowProcessed || finalData.hasNext();
-                }
-
-                @Override
-                public List<String> next() {
-                    if (!firstRowProcessed) {
-                        firstRowProcessed = true;
-                        return firstRow;
-                    } else {
-                        return finalData.next();
-                    }
-                }
-            };
-        }
-
-        while (data.hasNext()) {
-            isFileFinished = false;
-            List<String> datum = data.next();
-
-            if (datum.size() < expectedNumberOfColumns) {
-                LOGGER.warning("Row has fewer cells than expected. Skipping row: " + datum + "\n Size expected: " + expectedNumberOfColumns + "Row size: " + datum.size());
-                continue;
-            }
-
-            currentInteractionNumber = getInteractionNumber(columnAndIndex, interactionNumberColumn, currentInteractionNumber, datum);
+        try (RowIterator rows = fileReader.readFileWithSeparator()) {
+            fetchRows(rows, columnAndIndex);
         }
-
-        isFileFinished = true;
-        createInteractions();
-        dataList.clear();
     }
 
     /**
@@ -356,29 +318,28 @@ public class XmlInteractionsCreator {
      * @param columnAndIndex a map containing column names and their corresponding indices.
      */
     public void fetchDataWithWorkbook(Map<String, Integer> columnAndIndex) {
-        Iterator<Row> data = fileReader.readWorkbookSheet(sheetSelected);
+        try (RowIterator rows = fileReader.readSheetRows(sheetSelected)) {
+            fetchRows(rows, columnAndIndex);
+        }
+    }
+
+    /**
+     * Groups the streamed rows by interaction number and creates the interactions.
+     *
+     * @param data           the rows following the header of the file or sheet.
+     * @param columnAndIndex a map containing column names and their corresponding indices.
+     */
+    private void fetchRows(Iterator<List<String>> data, Map<String, Integer> columnAndIndex) {
         int expectedNumberOfColumns = fileReader.fileData.size();
         int interactionNumberColumn = columnAndIndex.get(INTERACTION_NUMBER.name);
         String currentInteractionNumber = "0";
 
-        if (data.hasNext()) {
-            Row firstRow = data.next();
-            List<String> firstRowData = new ArrayList<>();
-            int firstCellNum = firstRow.getFirstCellNum();
-            int lastCellNum = firstRow.getLastCellNum();
-
-            for (int cellNum = firstCellNum; cellNum < lastCellNum; cellNum++) {
-                Cell cell = firstRow.getCell(cellNum, Row.MissingCellPolicy.RETURN_BLANK_AS_NULL);
-                if (cell == null) {
-                    firstRowData.add("");
-                } else {
-                    firstRowData.add(FileUtils.getCellValueAsString(cell));
-                }
+        if (data != null && data.hasNext()) {
+            List<String> firstRow = data.next();
+            if (interactionNumberColumn < firstRow.size()) {
+                currentInteractionNumber = firstRow.get(interactionNumberColumn);
             }
-
-            currentInteractionNumber = firstRowData.get(interactionNumberColumn);
-
-            Iterator<Row> finalData = data;
+            Iterator<List<String>> finalData = data;
             data = new Iterator<>() {
                 boolean firstRowProcessed = false;
 
@@ -388,7 +349,7 @@ public class XmlInteractionsCreator {
                 }
 
                 @Override
-                public Row next() {
+                public List<String> next() {
                     if (!firstRowProcessed) {
                         firstRowProcessed = true;
                         return firstRow;
@@ -399,22 +360,9 @@ public class XmlInteractionsCreator {
             };
         }
 
-        while (data.hasNext()) {
+        while (data != null && data.hasNext()) {
             isFileFinished = false;
-            Row row = data.next();
-
-            List<String> datum = new ArrayList<>();
-            int firstCellNum = row.getFirstCellNum();
-            int lastCellNum = row.getLastCellNum();
-
-            for (int cellNum = firstCellNum; cellNum < lastCellNum; cellNum++) {
-                Cell cell = row.getCell(cellNum, Row.MissingCellPolicy.RETURN_BLANK_AS_NULL);
-                if (cell == null) {
-                    datum.add("");
-                } else {
-                    datum.add(FileUtils.getCellValueAsString(cell));
-                }
-            }
+            List<String> datum = data.next();
 
             if (datum.size() < expectedNumberOfColumns) {
                 LOGGER.warning("Row has fewer cells than expected. Skipping row: " + datum + "\n Size expected: " + expectedNumberOfColumns + "Row size: " + datum.size());
@@ -642,11 +590,11 @@ public class XmlInteractionsCreator {
      * Creates an experiment configuration from the first participant in batch,
      * collecting variable parameters from all participants.
      *
-     * @param dataList List of participant data maps
+     * @param dataList Buffer of participant data maps
      * @return Configured experiment with aggregated variable parameters
      */
-    private XmlExperiment createExperimentForBatch(List<Map<String, String>> dataList) {
-        Map<String, String> firstParticipant = dataList.get(0);
+    private XmlExperiment createExperimentForBatch(ParticipantBuffer dataList) {
+        Map<String, String> firstParticipant = dataList.getFirst();
 
         String interactionDetectionMethod = firstParticipant.get(INTERACTION_DETECTION_METHOD.name);
         String participantIdentificationMethod = firstParticipant.get(PARTICIPANT_IDENTIFICATION_METHOD.name);
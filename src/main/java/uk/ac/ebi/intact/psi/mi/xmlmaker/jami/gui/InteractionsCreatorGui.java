@@ -1,15 +1,11 @@
 package uk.ac.ebi.intact.psi.mi.xmlmaker.jami.gui;
 
 import lombok.Getter;
-import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
 import uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing.FileReader;
 import uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing.content.InputData;
 import uk.ac.ebi.intact.psi.mi.xmlmaker.jami.XmlFileWriter;
 import uk.ac.ebi.intact.psi.mi.xmlmaker.jami.creators.XmlInteractionsCreator;
 import uk.ac.ebi.intact.psi.mi.xmlmaker.uniprot.mapping.UniprotMapperGui;
-import uk.ac.ebi.intact.psi.mi.xmlmaker.utils.FileUtils;
 
 import javax.swing.*;
 import javax.swing.table.*;
@@ -252,11 +248,11 @@ public class InteractionsCreatorGui extends JPanel {
      */
     public Map<String, Integer> getDataAndIndexes() {
         List<String> tableColumnsNames = getTableColumnNames();
-        if (fileReader.getWorkbook() == null) {
+        if (!fileReader.isExcelFile()) {
             getDataAndIndexesSeparatedFile(tableColumnsNames);
         } else {
-            Sheet sheet = fileReader.getWorkbook().getSheetAt(sheets.getSelectedIndex()-1);
-            getDataAndIndexesWorkbook(tableColumnsNames, sheet);
+            List<String> header = fileReader.getColumns(fileReader.sheets.get(sheets.getSelectedIndex() - 1));
+            getDataAndIndexesWorkbook(tableColumnsNames, header);
         }
         return dataAndIndexes;
     }
@@ -265,18 +261,16 @@ public class InteractionsCreatorGui extends JPanel {
      * Maps column names to their corresponding indexes in an Excel workbook sheet.
      *
      * @param tableColumnsNames The list of column names in the table.
-     * @param sheet             The Excel sheet to extract data from.
+     * @param header            The header of the Excel sheet to extract data from.
      */
-    private void getDataAndIndexesWorkbook(List<String> tableColumnsNames, Sheet sheet) {
-        Row row = sheet.getRow(0); // get the header
+    private void getDataAndIndexesWorkbook(List<String> tableColumnsNames, List<String> header) {
         for (int i = 0; i < table.getColumnCount(); i++) {
-            for (int j = 0; j < row.getLastCellNum(); j++) {
-                Cell cell = row.getCell(j);
+            for (int j = 0; j < header.size(); j++) {
                 if (table.getValueAt(0, i).equals("No data")) {
                     dataAndIndexes.put(tableColumnsNames.get(i), fileReader.fileData.size() + 1);
                 }
-                if (FileUtils.getCellValueAsString(cell).equals(table.getValueAt(0, i).toString())) {
-                    dataAndIndexes.put(tableColumnsNames.get(i), cell.getColumnIndex());
+                if (header.get(j).equals(table.getValueAt(0, i).toString())) {
+                    dataAndIndexes.put(tableColumnsNames.get(i), j);
                 }
             }
         }
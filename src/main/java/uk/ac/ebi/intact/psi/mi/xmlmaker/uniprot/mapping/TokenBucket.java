@@ -0,0 +1,60 @@
+package uk.ac.ebi.intact.psi.mi.xmlmaker.uniprot.mapping;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class limits the rate of the requests sent to an API, shared by all the threads sending them.
+ * Tokens are added at a fixed rate, up to a burst capacity, and each request takes one, waiting for it if needed.
+ * The requests can also be paused altogether, when the API asks to retry later.
+ */
+final class TokenBucket {
+    private final double tokensPerNano;
+    private final double capacity;
+    private double tokens;
+    private long lastRefill = System.nanoTime();
+    private long pausedUntil = lastRefill;
+
+    /**
+     * Constructs a TokenBucket, initially full.
+     *
+     * @param tokensPerSecond the number of requests allowed per second.
+     * @param capacity        the number of requests that can be sent at once after a quiet period.
+     */
+    TokenBucket(double tokensPerSecond, int capacity) {
+        if (tokensPerSecond <= 0) {
+            throw new IllegalArgumentException("The request rate must be positive: " + tokensPerSecond);
+        }
+        this.tokensPerNano = tokensPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.capacity = Math.max(capacity, 1);
+        this.tokens = this.capacity;
+    }
+
+    /**
+     * Takes a token, waiting until one is available and any pause is over.
+     *
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     */
+    void acquire() throws InterruptedException {
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+            lastRefill = now;
+            // the token is reserved now, so the waiting threads are served in order
+            tokens -= 1;
+            waitNanos = Math.max(tokens < 0 ? (long) (-tokens / tokensPerNano) : 0, pausedUntil - now);
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Holds back all the requests for a while.
+     *
+     * @param delayMillis the time to wait before the next request, in milliseconds.
+     */
+    synchronized void pause(long delayMillis) {
+        pausedUntil = Math.max(pausedUntil, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis));
+    }
+}
@@ -1,24 +1,31 @@
 package uk.ac.ebi.intact.psi.mi.xmlmaker.uniprot.mapping;
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import uk.ac.ebi.intact.psi.mi.xmlmaker.models.UniprotResult;
+import uk.ac.ebi.intact.psi.mi.xmlmaker.utils.HttpUtils;
 
 import javax.swing.*;
-import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.net.HttpURLConnection;
 import java.net.URLEncoder;
-import java.net.URL;
+import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static uk.ac.ebi.intact.psi.mi.xmlmaker.utils.GuiUtils.*;
 
@@ -33,15 +40,51 @@ public class UniprotGeneralMapper {
 
     @Setter
     private Map<String, String> alreadyParsed = new HashMap<>();
-    private static final String ACCEPT_HEADER = "Accept";
     private static final String ACCEPT_JSON = "application/json";
 
     @Setter
     private UniprotResult selectedUniprot;
     private ButtonGroup buttonGroup  = new ButtonGroup();
     @Getter
-    private final List<String> uniprotIdNotFound = new ArrayList<>();
+    private final List<String> uniprotIdNotFound = Collections.synchronizedList(new ArrayList<>());
     private static final int BATCH_SIZE = 25;
+    /**
+     * The fields of the entries read into a {@link UniprotResult}, requested instead of the full entries.
+     */
+    private static final String RESULT_FIELDS = "accession,id,reviewed,protein_name,gene_names,organism_id,length,sec_acc";
+    /**
+     * Returned by {@link #sendSearchRequest(String)} when UniProt rejects the request as invalid (400),
+     * to tell it apart from the other failures, returned as {@code null}.
+     */
+    private static final List<UniprotSearchReader.Entry> REJECTED_REQUEST = Collections.unmodifiableList(new ArrayList<>());
+
+    public static final int DEFAULT_BATCH_CONCURRENCY = 4;
+    public static final double DEFAULT_REQUESTS_PER_SECOND = 10;
+    private static final int MAX_RETRIES = 5;
+    private static final long MAX_RETRY_DELAY_MILLIS = Duration.ofMinutes(2).toMillis();
+
+    /**
+     * The number of batch requests sent to UniProt at the same time. It is also the burst capacity of the rate limiter,
+     * so that all the threads can send their first request at once.
+     */
+    private int batchConcurrency = DEFAULT_BATCH_CONCURRENCY;
+
+    /**
+     * The maximum number of requests per second sent to UniProt, by all the threads together.
+     */
+    private double requestsPerSecond = DEFAULT_REQUESTS_PER_SECOND;
+    /**
+     * Replaced by the setters, while the threads of a batch fetch may be reading it.
+     */
+    @Getter(AccessLevel.NONE)
+    private volatile TokenBucket rateLimiter = new TokenBucket(DEFAULT_REQUESTS_PER_SECOND, DEFAULT_BATCH_CONCURRENCY);
+
+    /**
+     * Sends the GET requests to the UniProt API.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.PACKAGE)
+    private RequestSender requestSender = urlString -> HttpUtils.getStream(urlString, ACCEPT_JSON);
 
     /**
      * Fetches UniProt results for the given protein, previous database, and organism.
@@ -84,70 +127,190 @@ public class UniprotGeneralMapper {
             groupedRequests.computeIfAbsent(buildGroupKey(request), ignored -> new ArrayList<>()).add(request);
         }
 
+        List<List<UniprotRequest>> batches = new ArrayList<>();
         for (List<UniprotRequest> group : groupedRequests.values()) {
             for (int start = 0; start < group.size(); start += BATCH_SIZE) {
-                List<UniprotRequest> batch = group.subList(start, Math.min(start + BATCH_SIZE, group.size()));
-                JsonObject response = getBatchUniprotResponse(batch);
-                ArrayList<UniprotResult> batchResults = getUniprotIds(response);
+                batches.add(group.subList(start, Math.min(start + BATCH_SIZE, group.size())));
+            }
+        }
+
+        // the batches are fetched concurrently, and their results merged on this thread in the order of the batches
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(batchConcurrency, batches.size())));
+        try {
+            List<Future<ArrayList<UniprotResult>>> batchLookups = new ArrayList<>();
+            for (List<UniprotRequest> batch : batches) {
+                batchLookups.add(executor.submit(() -> parseUniprotResults(getBatchUniprotResponse(batch))));
+            }
+
+            for (int i = 0; i < batches.size(); i++) {
+                ArrayList<UniprotResult> batchResults;
+                try {
+                    batchResults = batchLookups.get(i).get();
+                } catch (ExecutionException e) {
+                    LOGGER.error("Error fetching UniProt batch: {}", e.getCause().getMessage(), e.getCause());
+                    continue;
+                }
 
                 for (UniprotResult result : batchResults) {
-                    for (UniprotRequest request : batch) {
+                    for (UniprotRequest request : batches.get(i)) {
                         if (matchesRequest(result, request)) {
                             resultsByRequest.computeIfAbsent(request.getLookupKey(), ignored -> new ArrayList<>()).add(result);
                         }
                     }
                 }
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.warn("Interrupted while fetching UniProt batches");
+        } finally {
+            executor.shutdownNow();
         }
 
         return resultsByRequest;
     }
 
     /**
-     * Sends a GET request to the UniProt API and retrieves the raw response.
+     * Sets the number of batch requests sent to UniProt at the same time, and the burst capacity of the rate limiter.
+     *
+     * @param batchConcurrency the number of concurrent batches, at least 1.
+     */
+    public void setBatchConcurrency(int batchConcurrency) {
+        if (batchConcurrency < 1) {
+            throw new IllegalArgumentException("The batch concurrency must be at least 1: " + batchConcurrency);
+        }
+        this.batchConcurrency = batchConcurrency;
+        this.rateLimiter = new TokenBucket(requestsPerSecond, batchConcurrency);
+    }
+
+    /**
+     * Sets the maximum number of requests per second sent to UniProt.
+     *
+     * @param requestsPerSecond the request rate, shared by all the concurrent batches.
+     */
+    public void setRequestsPerSecond(double requestsPerSecond) {
+        this.rateLimiter = new TokenBucket(requestsPerSecond, batchConcurrency);
+        this.requestsPerSecond = requestsPerSecond;
+    }
+
+    /**
+     * Sends a search request to the UniProt API and reads the entries of the response.
      *
      * @param protein The protein to search for.
      * @param previousDb The previous database to search in (can be {@code null}).
      * @param organism The organism's taxon ID to filter by (can be {@code null}).
-     * @return A {@link JsonObject} representing the response from the UniProt API.
+     * @return The entries found, or {@code null} if the request failed.
      */
-    public JsonObject getUniprotResponse(String protein, String previousDb, String organism){
-        String urlString = buildUrl(protein, previousDb, organism);
+    private List<UniprotSearchReader.Entry> getUniprotResponse(String protein, String previousDb, String organism){
+        String urlString = buildUrl(protein, previousDb, organism) + "&fields=" + encode(RESULT_FIELDS);
         return executeRequest(urlString);
     }
 
-    private JsonObject getBatchUniprotResponse(List<UniprotRequest> requests) {
-        String urlString = buildBatchUrl(requests);
-        return executeRequest(urlString);
+    private List<UniprotSearchReader.Entry> getBatchUniprotResponse(List<UniprotRequest> requests) {
+        String fields = buildBatchFields(requests.get(0).getPreviousDb());
+        List<UniprotSearchReader.Entry> entries = sendSearchRequest(buildBatchUrl(requests, fields));
+        if (entries == REJECTED_REQUEST && fields != null && !fields.equals(RESULT_FIELDS)) {
+            // the cross-reference field is derived from the database name, which UniProt may not know
+            LOGGER.warn("UniProt rejected the fields '{}', requesting full entries", fields);
+            entries = sendSearchRequest(buildBatchUrl(requests, null));
+        }
+        return entries == REJECTED_REQUEST ? null : entries;
     }
 
-    private JsonObject executeRequest(String urlString) {
-        try {
-            URL url = new URL(urlString);
-            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-            StringBuilder content = new StringBuilder();
+    /**
+     * Builds the fields requested for a batch of identifiers of the same database: the fields read into a
+     * {@link UniprotResult}, plus the cross-references of the database when the identifiers are matched against them.
+     *
+     * @param previousDb the database of the identifiers of the batch.
+     * @return the fields, or {@code null} to request the full entries when the database name cannot be a field name.
+     */
+    String buildBatchFields(String previousDb) {
+        String normalizedDb = normalizeDb(previousDb);
+        if (normalizedDb.isEmpty() || "uniprotkb".equals(normalizedDb) || "gene name".equals(normalizedDb)) {
+            return RESULT_FIELDS;
+        }
+        if (!normalizedDb.matches("[a-z0-9_-]+")) {
+            return null;
+        }
+        return RESULT_FIELDS + ",xref_" + normalizedDb;
+    }
 
-            connection.setRequestMethod("GET");
-            connection.setRequestProperty(ACCEPT_HEADER, ACCEPT_JSON);
+    /**
+     * Sends a GET request, within the request rate. When UniProt answers that it is overloaded (429 or 503),
+     * all the requests are held back for the time given in its Retry-After header, then the request is sent again.
+     * The entries of the response are read as the body is received, keeping only the fields used.
+     *
+     * @param urlString the URL of the request.
+     * @return the entries of the response, or {@code null} if the request failed.
+     */
+    private List<UniprotSearchReader.Entry> executeRequest(String urlString) {
+        List<UniprotSearchReader.Entry> entries = sendSearchRequest(urlString);
+        return entries == REJECTED_REQUEST ? null : entries;
+    }
 
-            try (BufferedReader queryResults = new BufferedReader(new InputStreamReader(connection.getInputStream()))) {
-                String inputLine;
-                while ((inputLine = queryResults.readLine()) != null) {
-                    content.append(inputLine);
+    /**
+     * Sends a GET request like {@link #executeRequest(String)}, telling apart the requests rejected as invalid.
+     *
+     * @param urlString the URL of the request.
+     * @return the entries of the response, {@link #REJECTED_REQUEST} if UniProt answered 400 (Bad Request),
+     * or {@code null} if the request failed otherwise.
+     */
+    private List<UniprotSearchReader.Entry> sendSearchRequest(String urlString) {
+        try {
+            for (int attempt = 0; ; attempt++) {
+                TokenBucket limiter = rateLimiter;
+                limiter.acquire();
+                HttpResponse<InputStream> response = requestSender.send(urlString);
+
+                try (Reader body = new InputStreamReader(response.body(), StandardCharsets.UTF_8)) {
+                    int responseCode = response.statusCode();
+                    if ((responseCode == 429 || responseCode == HttpURLConnection.HTTP_UNAVAILABLE) && attempt < MAX_RETRIES) {
+                        long delayMillis = getRetryDelayMillis(response.headers().firstValue("Retry-After").orElse(null), attempt);
+                        LOGGER.warn("UniProt answered {}, retrying in {} ms", responseCode, delayMillis);
+                        limiter.pause(delayMillis);
+                        continue;
+                    }
+                    if (responseCode != HttpURLConnection.HTTP_OK) {
+                        LOGGER.error("Error fetching Uniprot response: HTTP {} for {}", responseCode, urlString);
+                        return responseCode == HttpURLConnection.HTTP_BAD_REQUEST ? REJECTED_REQUEST : null;
+                    }
+                    return UniprotSearchReader.read(body);
                 }
-                return JsonParser.parseString(content.toString()).getAsJsonObject();
-            } catch (Exception e) {
-                LOGGER.error("Error fetching Uniprot response: {}", e.getMessage(), e);
-                return null;
-            } finally {
-                connection.disconnect();
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.warn("Interrupted while fetching Uniprot response");
+            return null;
         } catch (Exception e) {
             LOGGER.error("Error fetching Uniprot response: {}", e.getMessage(), e);
             return null;
         }
     }
 
+    /**
+     * Gets the time to wait before sending a request again, from a Retry-After header in seconds or as an HTTP date.
+     * Without a readable header, the delay doubles with each attempt.
+     *
+     * @param retryAfter the Retry-After header, can be {@code null}.
+     * @param attempt    the number of attempts already retried.
+     * @return the delay in milliseconds.
+     */
+    static long getRetryDelayMillis(String retryAfter, int attempt) {
+        long delayMillis = Duration.ofSeconds(1L << Math.min(attempt, 6)).toMillis();
+        if (retryAfter != null && !retryAfter.trim().isEmpty()) {
+            try {
+                delayMillis = Duration.ofSeconds(Long.parseLong(retryAfter.trim())).toMillis();
+            } catch (NumberFormatException e) {
+                try {
+                    ZonedDateTime retryDate = ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                    delayMillis = Duration.between(ZonedDateTime.now(retryDate.getZone()), retryDate).toMillis();
+                } catch (DateTimeParseException ignored) {
+                    LOGGER.warn("Unreadable Retry-After header: {}", retryAfter);
+                }
+            }
+        }
+        return Math.min(Math.max(delayMillis, 0), MAX_RETRY_DELAY_MILLIS);
+    }
+
     /**
      * Builds the UniProt API search URL based on the provided participant ID, previous database, and organism.
      *
@@ -199,9 +362,10 @@ public class UniprotGeneralMapper {
         return baseUrl;
     }
 
-    private String buildBatchUrl(List<UniprotRequest> requests) {
+    private String buildBatchUrl(List<UniprotRequest> requests, String fields) {
         String query = buildBatchQuery(requests);
-        return "https://rest.uniprot.org/uniprotkb/search?size=500&query=" + encode(query);
+        String fieldsParameter = fields == null ? "" : "&fields=" + encode(fields);
+        return "https://rest.uniprot.org/uniprotkb/search?size=500" + fieldsParameter + "&query=" + encode(query);
     }
 
     private String buildBatchQuery(List<UniprotRequest> requests) {
@@ -237,218 +401,86 @@ public class UniprotGeneralMapper {
     }
 
     /**
-     * Extracts UniProt results from the JSON response and returns a list of {@link UniprotResult} objects.
+     * Builds the {@link UniprotResult} objects of the entries of a UniProt response.
      *
-     * @param results The JSON response from the UniProt API.
+     * @param entries The entries of the UniProt response, can be {@code null}.
      * @return A list of {@link UniprotResult} objects representing the UniProt entries.
      */
-    public ArrayList<UniprotResult> getUniprotIds(JsonObject results) {
+    private ArrayList<UniprotResult> getUniprotIds(List<UniprotSearchReader.Entry> entries) {
+        ArrayList<UniprotResult> uniprotResults = parseUniprotResults(entries);
+        setButtonGroup(uniprotResults);
+        return uniprotResults;
+    }
+
+    /**
+     * Builds the {@link UniprotResult} objects of the entries, without building the radio buttons.
+     * Safe to call from the threads fetching the batches.
+     *
+     * @param entries The entries of the UniProt response, can be {@code null}.
+     * @return A list of {@link UniprotResult} objects representing the UniProt entries.
+     */
+    private ArrayList<UniprotResult> parseUniprotResults(List<UniprotSearchReader.Entry> entries) {
         ArrayList<UniprotResult> uniprotResults = new ArrayList<>();
 
-        if (results == null || results.isJsonNull() || !results.has("results")){
+        if (entries == null) {
             return uniprotResults;
         }
 
-        JsonArray resultsAsJson = results.get("results").getAsJsonArray();
-
-        for (JsonElement element : resultsAsJson) {
-            JsonObject result = element.getAsJsonObject();
-            String entryType = result.get("entryType").getAsString();
+        for (UniprotSearchReader.Entry entry : entries) {
             UniprotResult oneResult;
 
-            if (!Objects.equals(entryType, "Inactive")){
-                oneResult = getUniprotResultFromActiveID(result);
+            if (!Objects.equals(entry.entryType, "Inactive")){
+                oneResult = getUniprotResultFromActiveID(entry);
             } else {
-                oneResult = getUniprotResultFromInactiveID(result);
+                oneResult = getUniprotResultFromInactiveID(entry);
             }
 
             if (oneResult != null) {
                 uniprotResults.add(oneResult);
             }
         }
-
-        setButtonGroup(uniprotResults);
         return uniprotResults;
     }
 
     /**
-     * Constructs a {@link UniprotResult} object from a JSON object representing an active UniProt entry.
+     * Processes an inactive UniProt entry and retrieves the merged active entry if available.
      *
-     * @param result The JSON object containing the UniProt entry data.
-     * @return A {@code UniprotResult} object populated with entry details.
+     * @param entry The inactive UniProt entry.
+     * @return A {@code UniprotResult} for the merged entry, or {@code null} if deleted or unresolvable.
      */
-    private UniprotResult getUniprotResultFromInactiveID(JsonObject result) {
-        JsonObject inactiveResult = result.get("inactiveReason").getAsJsonObject();
-        if (inactiveResult.get("inactiveReasonType").getAsString().equals("DELETED")) {
-            uniprotIdNotFound.add(result.get("primaryAccession").getAsString());
+    private UniprotResult getUniprotResultFromInactiveID(UniprotSearchReader.Entry entry) {
+        if ("DELETED".equals(entry.inactiveReasonType)) {
+            uniprotIdNotFound.add(entry.primaryAccession);
             return null;
-        } else if (inactiveResult.get("inactiveReasonType").getAsString().equals("MERGED")) {
-            if (inactiveResult.get("mergeDemergeTo").getAsString() != null) {
-                String name = inactiveResult.get("mergeDemergeTo").getAsString();
-                String organism = "";
-                JsonObject newResult = getUniprotResponse(name, "UniProtKB", organism);
-                JsonArray resultsAsJson = newResult.get("results").getAsJsonArray();
-                return getUniprotResultFromActiveID(resultsAsJson.get(0).getAsJsonObject());
+        } else if ("MERGED".equals(entry.inactiveReasonType) && entry.mergeDemergeTo != null) {
+            String organism = "";
+            List<UniprotSearchReader.Entry> mergedEntries = getUniprotResponse(entry.mergeDemergeTo, "UniProtKB", organism);
+            if (mergedEntries != null && !mergedEntries.isEmpty()) {
+                return getUniprotResultFromActiveID(mergedEntries.get(0));
             }
         }
         return null;
     }
 
     /**
-     * Processes a JSON object representing an inactive UniProt entry and retrieves the merged active entry if available.
+     * Constructs a {@link UniprotResult} object from an active UniProt entry.
      *
-     * @param result The JSON object containing the inactive UniProt entry data.
-     * @return A {@code UniprotResult} for the merged entry, or {@code null} if deleted or unresolvable.
+     * @param entry The UniProt entry.
+     * @return A {@code UniprotResult} object populated with entry details.
      */
-    private UniprotResult getUniprotResultFromActiveID(JsonObject result) {
-        String uniprotAc = result.get("primaryAccession").getAsString();
-        String name = extractParticipantName(result);
-        String uniprotId = result.get("uniProtkbId").getAsString();
-        String organism = result.get("organism").getAsJsonObject().get("taxonId").getAsString();
-        int sequenceSize = result.get("sequence").getAsJsonObject().get("length").getAsInt();
+    private UniprotResult getUniprotResultFromActiveID(UniprotSearchReader.Entry entry) {
+        String uniprotAc = entry.primaryAccession;
+        String name = entry.primaryGeneName != null ? entry.primaryGeneName
+                : entry.proteinName != null ? entry.proteinName : entry.uniProtkbId;
         String uniprotLink = "https://www.uniprot.org/uniprotkb/" + uniprotAc;
-        String entryType = result.get("entryType").getAsString();
-
-        UniprotResult uniprotResult = new UniprotResult(uniprotAc, name, organism,
-                entryType, uniprotLink, "UniProtKB", sequenceSize, "protein");
-        uniprotResult.setUniprotId(uniprotId);
-        uniprotResult.setSecondaryAccessions(extractSecondaryAccessions(result));
-        uniprotResult.setGeneNames(extractGeneNames(result));
-        uniprotResult.setMatchingCrossReferences(extractCrossReferences(result));
-        return uniprotResult;
-    }
-
-    private String extractParticipantName(JsonObject result) {
-        String geneName = extractPrimaryGeneName(result);
-        if (geneName != null) {
-            return geneName;
-        }
-
-        JsonObject proteinDescription = result.getAsJsonObject("proteinDescription");
-        if (proteinDescription != null) {
-            String recommendedName = getFullName(proteinDescription.getAsJsonObject("recommendedName"));
-            if (recommendedName != null) {
-                return recommendedName;
-            }
-
-            JsonArray submissionNames = proteinDescription.getAsJsonArray("submissionNames");
-            if (submissionNames != null && !submissionNames.isEmpty()) {
-                String submissionName = getFullName(submissionNames.get(0).getAsJsonObject());
-                if (submissionName != null) {
-                    return submissionName;
-                }
-            }
-
-            JsonArray alternativeNames = proteinDescription.getAsJsonArray("alternativeNames");
-            if (alternativeNames != null && !alternativeNames.isEmpty()) {
-                String alternativeName = getFullName(alternativeNames.get(0).getAsJsonObject());
-                if (alternativeName != null) {
-                    return alternativeName;
-                }
-            }
-        }
-
-        return result.get("uniProtkbId").getAsString();
-    }
-
-    private String extractPrimaryGeneName(JsonObject result) {
-        if (!result.has("genes")) {
-            return null;
-        }
-
-        JsonArray genes = result.getAsJsonArray("genes");
-        if (genes.isEmpty()) {
-            return null;
-        }
-
-        JsonObject firstGene = genes.get(0).getAsJsonObject();
-        JsonObject geneName = firstGene.getAsJsonObject("geneName");
-        if (geneName != null && geneName.has("value")) {
-            return geneName.get("value").getAsString();
-        }
-
-        JsonArray synonyms = firstGene.getAsJsonArray("synonyms");
-        if (synonyms != null && !synonyms.isEmpty()) {
-            JsonObject synonym = synonyms.get(0).getAsJsonObject();
-            if (synonym.has("value")) {
-                return synonym.get("value").getAsString();
-            }
-        }
 
-        return null;
-    }
-
-    private String getFullName(JsonObject nameObject) {
-        if (nameObject == null) {
-            return null;
-        }
-        JsonObject fullName = nameObject.getAsJsonObject("fullName");
-        if (fullName != null && fullName.has("value")) {
-            return fullName.get("value").getAsString();
-        }
-        return null;
-    }
-
-    private List<String> extractSecondaryAccessions(JsonObject result) {
-        List<String> secondaryAccessions = new ArrayList<>();
-        if (result.has("secondaryAccessions")) {
-            JsonArray secondaryArray = result.getAsJsonArray("secondaryAccessions");
-            for (JsonElement secondaryAccession : secondaryArray) {
-                secondaryAccessions.add(secondaryAccession.getAsString());
-            }
-        }
-        return secondaryAccessions;
-    }
-
-    private List<String> extractGeneNames(JsonObject result) {
-        List<String> geneNames = new ArrayList<>();
-        if (result.has("genes")) {
-            JsonArray genes = result.getAsJsonArray("genes");
-            for (JsonElement geneElement : genes) {
-                JsonObject gene = geneElement.getAsJsonObject();
-                JsonObject geneName = gene.getAsJsonObject("geneName");
-                if (geneName != null && geneName.has("value")) {
-                    geneNames.add(geneName.get("value").getAsString());
-                }
-                JsonArray synonyms = gene.getAsJsonArray("synonyms");
-                if (synonyms != null) {
-                    for (JsonElement synonym : synonyms) {
-                        JsonObject synonymObject = synonym.getAsJsonObject();
-                        if (synonymObject.has("value")) {
-                            geneNames.add(synonymObject.get("value").getAsString());
-                        }
-                    }
-                }
-            }
-        }
-        return geneNames;
-    }
-
-    private Map<String, Set<String>> extractCrossReferences(JsonObject result) {
-        Map<String, Set<String>> crossReferences = new HashMap<>();
-        if (!result.has("uniProtKBCrossReferences")) {
-            return crossReferences;
-        }
-
-        JsonArray xrefs = result.getAsJsonArray("uniProtKBCrossReferences");
-        for (JsonElement xrefElement : xrefs) {
-            JsonObject xref = xrefElement.getAsJsonObject();
-            String database = normalizeValue(xref.get("database").getAsString());
-            Set<String> values = crossReferences.computeIfAbsent(database, ignored -> new HashSet<>());
-            if (xref.has("id")) {
-                values.add(normalizeValue(xref.get("id").getAsString()));
-            }
-            JsonArray properties = xref.getAsJsonArray("properties");
-            if (properties != null) {
-                for (JsonElement propertyElement : properties) {
-                    JsonObject property = propertyElement.getAsJsonObject();
-                    if (property.has("value")) {
-                        values.add(normalizeValue(property.get("value").getAsString()));
-                    }
-                }
-            }
-        }
-        return crossReferences;
+        UniprotResult uniprotResult = new UniprotResult(uniprotAc, name, entry.taxonId,
+                entry.entryType, uniprotLink, "UniProtKB", entry.sequenceLength, "protein");
+        uniprotResult.setUniprotId(entry.uniProtkbId);
+        uniprotResult.setSecondaryAccessions(entry.secondaryAccessions);
+        uniprotResult.setGeneNames(entry.geneNames);
+        uniprotResult.setMatchingCrossReferences(entry.crossReferences);
+        return uniprotResult;
     }
 
     private boolean matchesRequest(UniprotResult result, UniprotRequest request) {
@@ -511,7 +543,7 @@ public class UniprotGeneralMapper {
         return normalizeValue(previousDb);
     }
 
-    private String normalizeValue(String value) {
+    static String normalizeValue(String value) {
         return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
     }
 
@@ -527,6 +559,23 @@ public class UniprotGeneralMapper {
         return URLEncoder.encode(value, StandardCharsets.UTF_8);
     }
 
+    /**
+     * Sends a GET request to the UniProt API.
+     */
+    @FunctionalInterface
+    interface RequestSender {
+
+        /**
+         * Sends the request and returns the response once its headers are received.
+         *
+         * @param urlString the URL of the request.
+         * @return the response, with the body still to be read.
+         * @throws IOException          if the request cannot be sent.
+         * @throws InterruptedException if interrupted while waiting for the response.
+         */
+        HttpResponse<InputStream> send(String urlString) throws IOException, InterruptedException;
+    }
+
     @Getter
     public static class UniprotRequest {
         private final String protein;
@@ -547,7 +596,7 @@ public class UniprotGeneralMapper {
      *
      * @param results A list of {@link UniprotResult} objects to be displayed.
      */
-    private void setButtonGroup(ArrayList<UniprotResult> results){
+    public void setButtonGroup(List<UniprotResult> results){
         buttonGroup = new ButtonGroup();
         for (UniprotResult result : results) {
             if ("UniProtKB reviewed (Swiss-Prot)".equals(result.getEntryType())) {
@@ -25,6 +25,10 @@ public class UniprotMapperGui extends JPanel {
     private final JComboBox<String> organismColumn = new JComboBox<>();
     private final JComboBox<String> idDbColumn = new JComboBox<>();
     private final JComboBox<String> participantNameColumn = new JComboBox<>();
+    private final JSpinner batchConcurrency = new JSpinner(
+            new SpinnerNumberModel(UniprotGeneralMapper.DEFAULT_BATCH_CONCURRENCY, 1, 16, 1));
+    private final JSpinner requestsPerSecond = new JSpinner(
+            new SpinnerNumberModel(UniprotGeneralMapper.DEFAULT_REQUESTS_PER_SECOND, 0.5, 100, 0.5));
 
     private final FileReader fileReader;
     private final FileWriter fileWriter;
@@ -66,6 +70,7 @@ public class UniprotMapperGui extends JPanel {
         uniprotPanel.add(setComboBoxDimension(organismColumn, "Select Organism column"));
         organismColumn.setToolTipText("Select Organism column");
         uniprotPanel.add(createParticipantNameSelectorPanel());
+        uniprotPanel.add(createRequestRatePanel());
 
         sheets.addActionListener(e -> {
             if (!isUpdatingSheets) {
@@ -173,6 +178,9 @@ public class UniprotMapperGui extends JPanel {
         JButton processFile = new JButton("Update the UniProt IDs");
 
         processFile.addActionListener(e -> {
+            UniprotGeneralMapper uniprotGeneralMapper = fileWriter.getUniprotGeneralMapper();
+            uniprotGeneralMapper.setBatchConcurrency((Integer) batchConcurrency.getValue());
+            uniprotGeneralMapper.setRequestsPerSecond((Double) requestsPerSecond.getValue());
             loadingSpinner.showSpinner();
 
             SwingWorker<Void, Void> worker = new SwingWorker<>() {
@@ -296,6 +304,25 @@ public class UniprotMapperGui extends JPanel {
         return panel;
     }
 
+    /**
+     * Creates the panel setting how many batches of identifiers are sent to UniProt at once,
+     * and how many requests are sent per second.
+     *
+     * @return The JPanel holding the two spinners.
+     */
+    private JPanel createRequestRatePanel() {
+        JPanel panel = new JPanel(new GridLayout(2, 2, 4, 0));
+
+        batchConcurrency.setToolTipText("Number of batches of identifiers looked up at the same time");
+        requestsPerSecond.setToolTipText("Maximum number of requests sent to UniProt per second");
+
+        panel.add(new JLabel("Concurrent batches:"));
+        panel.add(batchConcurrency);
+        panel.add(new JLabel("Requests per second:"));
+        panel.add(requestsPerSecond);
+        return panel;
+    }
+
     private ListCellRenderer<? super String> createOptionalOutputRenderer() {
         DefaultListCellRenderer defaultRenderer = new DefaultListCellRenderer();
         return (list, value, index, isSelected, cellHasFocus) -> {
@@ -0,0 +1,241 @@
+package uk.ac.ebi.intact.psi.mi.xmlmaker.uniprot.mapping;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import lombok.Getter;
+import lombok.Setter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.ac.ebi.intact.psi.mi.xmlmaker.models.UniprotResult;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * This class keeps the UniProt entries found for an identifier, database and organism in a local file, so that
+ * the identifiers of a file processed again are not looked up again on the UniProt API.
+ *
+ * <p>The entries are keyed by the normalized lookup key of the identifier ({@code id|db|organism}) and stored
+ * as one JSON line per key, with the time they were fetched. They are read once, on first use, and written back
+ * by {@link #save()}. Entries older than {@code timeToLive} are ignored and dropped, and only the
+ * {@code maxEntries} most recently fetched entries are kept.</p>
+ */
+public class UniprotResultCache {
+    private static final Logger LOGGER = LogManager.getLogger(UniprotResultCache.class);
+
+    /**
+     * The default location of the cache file, in the user's home directory.
+     */
+    public static final Path DEFAULT_CACHE_FILE = Paths.get(System.getProperty("user.home"), ".xmlmaker", "uniprot-cache.jsonl");
+    public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofDays(30);
+    public static final int DEFAULT_MAX_ENTRIES = 100_000;
+
+    private final Gson gson = new Gson();
+    private final Path cacheFile;
+    private LinkedHashMap<String, CacheEntry> entries;
+    private boolean modified;
+
+    /**
+     * The time after which a cached entry is fetched again. With a zero or negative duration, the cache is disabled.
+     */
+    @Getter @Setter
+    private Duration timeToLive = DEFAULT_TIME_TO_LIVE;
+
+    /**
+     * The maximum number of keys kept in the cache file, the least recently fetched ones being dropped first.
+     */
+    @Getter @Setter
+    private int maxEntries = DEFAULT_MAX_ENTRIES;
+
+    @Getter
+    private int hitCount;
+    @Getter
+    private int missCount;
+
+    /**
+     * Constructs a UniprotResultCache stored in the default cache file.
+     */
+    public UniprotResultCache() {
+        this(DEFAULT_CACHE_FILE);
+    }
+
+    /**
+     * Constructs a UniprotResultCache.
+     *
+     * @param cacheFile the file storing the cached entries, created on the first save.
+     */
+    public UniprotResultCache(Path cacheFile) {
+        this.cacheFile = cacheFile;
+    }
+
+    /**
+     * Gets the UniProt entries cached for a lookup key.
+     *
+     * @param lookupKey the normalized lookup key of the identifier.
+     * @return the cached entries, or {@code null} if the key is not cached or has expired.
+     */
+    public ArrayList<UniprotResult> get(String lookupKey) {
+        if (!isEnabled()) {
+            return null;
+        }
+        CacheEntry entry = getEntries().get(lookupKey);
+        if (entry == null || isExpired(entry)) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        return new ArrayList<>(entry.results);
+    }
+
+    /**
+     * Caches the UniProt entries found for a lookup key. Empty results are not cached, as they may come from
+     * a failed request rather than from an unknown identifier.
+     *
+     * @param lookupKey the normalized lookup key of the identifier.
+     * @param results   the entries found.
+     */
+    public void put(String lookupKey, List<UniprotResult> results) {
+        if (!isEnabled() || results == null || results.isEmpty()) {
+            return;
+        }
+        LinkedHashMap<String, CacheEntry> cachedEntries = getEntries();
+        // re-inserted at the end, so that the entries stay in the order they were fetched
+        cachedEntries.remove(lookupKey);
+        cachedEntries.put(lookupKey, new CacheEntry(lookupKey, System.currentTimeMillis(), new ArrayList<>(results)));
+        modified = true;
+    }
+
+    /**
+     * Writes the cache file if entries were added, without the expired entries and within {@code maxEntries}.
+     */
+    public void save() {
+        if (!modified || entries == null) {
+            return;
+        }
+        entries.values().removeIf(this::isExpired);
+        Iterator<CacheEntry> oldestFirst = entries.values().iterator();
+        while (entries.size() > Math.max(maxEntries, 0) && oldestFirst.hasNext()) {
+            oldestFirst.next();
+            oldestFirst.remove();
+        }
+
+        Path tmpFile = null;
+        try {
+            Path directory = cacheFile.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            tmpFile = Files.createTempFile(directory, cacheFile.getFileName().toString(), ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(tmpFile, StandardCharsets.UTF_8)) {
+                for (CacheEntry entry : entries.values()) {
+                    writer.write(gson.toJson(entry));
+                    writer.newLine();
+                }
+            }
+            Files.move(tmpFile, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+            modified = false;
+        } catch (IOException e) {
+            LOGGER.warn("Unable to write UniProt cache file {}: {}", cacheFile, e.getMessage(), e);
+            if (tmpFile != null) {
+                try {
+                    Files.deleteIfExists(tmpFile);
+                } catch (IOException ignored) {
+                    // the temporary file is left behind
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the share of the lookups answered by the cache since the last {@link #resetStatistics()}.
+     *
+     * @return the hit rate, between 0 and 1, or 0 if nothing was looked up.
+     */
+    public double getHitRate() {
+        int lookups = hitCount + missCount;
+        return lookups == 0 ? 0 : (double) hitCount / lookups;
+    }
+
+    public void resetStatistics() {
+        hitCount = 0;
+        missCount = 0;
+    }
+
+    /**
+     * Removes all the cached entries and deletes the cache file.
+     */
+    public void clear() {
+        entries = new LinkedHashMap<>();
+        modified = false;
+        try {
+            Files.deleteIfExists(cacheFile);
+        } catch (IOException e) {
+            LOGGER.warn("Unable to delete UniProt cache file {}: {}", cacheFile, e.getMessage(), e);
+        }
+    }
+
+    private boolean isEnabled() {
+        return timeToLive != null && !timeToLive.isZero() && !timeToLive.isNegative();
+    }
+
+    private boolean isExpired(CacheEntry entry) {
+        return System.currentTimeMillis() - entry.fetchedAt > timeToLive.toMillis();
+    }
+
+    private LinkedHashMap<String, CacheEntry> getEntries() {
+        if (entries == null) {
+            entries = load();
+        }
+        return entries;
+    }
+
+    /**
+     * Reads the entries of the cache file, skipping the expired ones and the lines that cannot be read.
+     */
+    private LinkedHashMap<String, CacheEntry> load() {
+        LinkedHashMap<String, CacheEntry> loadedEntries = new LinkedHashMap<>();
+        if (!Files.isRegularFile(cacheFile)) {
+            return loadedEntries;
+        }
+        int skippedLines = 0;
+        try (BufferedReader reader = Files.newBufferedReader(cacheFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                try {
+                    CacheEntry entry = gson.fromJson(line, CacheEntry.class);
+                    if (entry != null && entry.key != null && entry.results != null && !isExpired(entry)) {
+                        loadedEntries.put(entry.key, entry);
+                    }
+                } catch (JsonParseException e) {
+                    skippedLines++;
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Unable to read UniProt cache file {}: {}", cacheFile, e.getMessage(), e);
+        }
+        if (skippedLines > 0) {
+            LOGGER.warn("Skipped {} unreadable lines of UniProt cache file {}", skippedLines, cacheFile);
+            modified = true;
+        }
+        LOGGER.info("Loaded {} cached UniProt lookups from {}", loadedEntries.size(), cacheFile);
+        return loadedEntries;
+    }
+
+    private static class CacheEntry {
+        private final String key;
+        private final long fetchedAt;
+        private final List<UniprotResult> results;
+
+        CacheEntry(String key, long fetchedAt, List<UniprotResult> results) {
+            this.key = key;
+            this.fetchedAt = fetchedAt;
+            this.results = results;
+        }
+    }
+}
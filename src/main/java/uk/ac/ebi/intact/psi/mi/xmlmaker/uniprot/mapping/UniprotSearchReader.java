@@ -0,0 +1,371 @@
+package uk.ac.ebi.intact.psi.mi.xmlmaker.uniprot.mapping;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.*;
+
+import static uk.ac.ebi.intact.psi.mi.xmlmaker.uniprot.mapping.UniprotGeneralMapper.normalizeValue;
+
+/**
+ * This class reads the entries of a UniProt search response as it is received, with a streaming {@link JsonReader}.
+ * Only the fields used to build a {@link uk.ac.ebi.intact.psi.mi.xmlmaker.models.UniprotResult} are kept
+ * (accessions, organism, sequence length, names, genes and cross-references), all the other fields of the entries,
+ * such as comments, features or references, are skipped without being decoded.
+ */
+final class UniprotSearchReader {
+
+    /**
+     * The fields of a UniProt entry used to build its result.
+     */
+    static final class Entry {
+        String entryType;
+        String primaryAccession;
+        String uniProtkbId;
+        String taxonId;
+        int sequenceLength;
+        /**
+         * The name of the first gene, or its first synonym.
+         */
+        String primaryGeneName;
+        /**
+         * The recommended name of the protein, or its first submission name, or its first alternative name.
+         */
+        String proteinName;
+        final List<String> geneNames = new ArrayList<>();
+        final List<String> secondaryAccessions = new ArrayList<>();
+        /**
+         * The identifiers and property values of the cross-references, normalized, by normalized database name.
+         */
+        final Map<String, Set<String>> crossReferences = new HashMap<>();
+        String inactiveReasonType;
+        String mergeDemergeTo;
+    }
+
+    private final JsonReader reader;
+
+    private UniprotSearchReader(Reader input) {
+        this.reader = new JsonReader(input);
+    }
+
+    /**
+     * Reads the entries of the {@code results} array of a UniProt search response.
+     *
+     * @param input the response body.
+     * @return the entries, in the order of the response.
+     * @throws IOException if the response cannot be read or is not valid JSON.
+     */
+    static List<Entry> read(Reader input) throws IOException {
+        return new UniprotSearchReader(input).readResults();
+    }
+
+    private List<Entry> readResults() throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName().equals("results") && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    entries.add(readEntry());
+                }
+                reader.endArray();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return entries;
+    }
+
+    private Entry readEntry() throws IOException {
+        Entry entry = new Entry();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "entryType":
+                    entry.entryType = nextString();
+                    break;
+                case "primaryAccession":
+                    entry.primaryAccession = nextString();
+                    break;
+                case "uniProtkbId":
+                    entry.uniProtkbId = nextString();
+                    break;
+                case "organism":
+                    entry.taxonId = readField("taxonId");
+                    break;
+                case "sequence":
+                    String length = readField("length");
+                    entry.sequenceLength = length == null ? 0 : Integer.parseInt(length);
+                    break;
+                case "genes":
+                    readGenes(entry);
+                    break;
+                case "proteinDescription":
+                    entry.proteinName = readProteinName();
+                    break;
+                case "secondaryAccessions":
+                    readStrings(entry.secondaryAccessions);
+                    break;
+                case "uniProtKBCrossReferences":
+                    readCrossReferences(entry.crossReferences);
+                    break;
+                case "inactiveReason":
+                    readInactiveReason(entry);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return entry;
+    }
+
+    private void readGenes(Entry entry) throws IOException {
+        if (!beginArray()) {
+            return;
+        }
+        boolean firstGene = true;
+        while (reader.hasNext()) {
+            String geneName = null;
+            List<String> synonyms = new ArrayList<>();
+            if (beginObject()) {
+                while (reader.hasNext()) {
+                    String name = reader.nextName();
+                    if (name.equals("geneName")) {
+                        geneName = readField("value");
+                    } else if (name.equals("synonyms") && beginArray()) {
+                        while (reader.hasNext()) {
+                            String synonym = readField("value");
+                            if (synonym != null) {
+                                synonyms.add(synonym);
+                            }
+                        }
+                        reader.endArray();
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                reader.endObject();
+            }
+            if (firstGene) {
+                entry.primaryGeneName = geneName != null ? geneName : synonyms.isEmpty() ? null : synonyms.get(0);
+                firstGene = false;
+            }
+            if (geneName != null) {
+                entry.geneNames.add(geneName);
+            }
+            entry.geneNames.addAll(synonyms);
+        }
+        reader.endArray();
+    }
+
+    private String readProteinName() throws IOException {
+        String recommendedName = null;
+        String submissionName = null;
+        String alternativeName = null;
+        if (!beginObject()) {
+            return null;
+        }
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "recommendedName":
+                    recommendedName = readFullName();
+                    break;
+                case "submissionNames":
+                    submissionName = readFirstFullName();
+                    break;
+                case "alternativeNames":
+                    alternativeName = readFirstFullName();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return recommendedName != null ? recommendedName : submissionName != null ? submissionName : alternativeName;
+    }
+
+    private String readFirstFullName() throws IOException {
+        if (!beginArray()) {
+            return null;
+        }
+        String fullName = reader.hasNext() ? readFullName() : null;
+        while (reader.hasNext()) {
+            reader.skipValue();
+        }
+        reader.endArray();
+        return fullName;
+    }
+
+    /**
+     * Reads the {@code fullName.value} of a name object.
+     */
+    private String readFullName() throws IOException {
+        String fullName = null;
+        if (!beginObject()) {
+            return null;
+        }
+        while (reader.hasNext()) {
+            if (reader.nextName().equals("fullName")) {
+                fullName = readField("value");
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return fullName;
+    }
+
+    private void readCrossReferences(Map<String, Set<String>> crossReferences) throws IOException {
+        if (!beginArray()) {
+            return;
+        }
+        while (reader.hasNext()) {
+            String database = null;
+            List<String> values = new ArrayList<>();
+            if (beginObject()) {
+                while (reader.hasNext()) {
+                    String name = reader.nextName();
+                    if (name.equals("database")) {
+                        database = nextString();
+                    } else if (name.equals("id")) {
+                        String id = nextString();
+                        if (id != null) {
+                            values.add(id);
+                        }
+                    } else if (name.equals("properties") && beginArray()) {
+                        while (reader.hasNext()) {
+                            String value = readField("value");
+                            if (value != null) {
+                                values.add(value);
+                            }
+                        }
+                        reader.endArray();
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                reader.endObject();
+            }
+            if (database != null) {
+                Set<String> databaseValues = crossReferences.computeIfAbsent(normalizeValue(database), ignored -> new HashSet<>());
+                for (String value : values) {
+                    databaseValues.add(normalizeValue(value));
+                }
+            }
+        }
+        reader.endArray();
+    }
+
+    private void readInactiveReason(Entry entry) throws IOException {
+        if (!beginObject()) {
+            return;
+        }
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (name.equals("inactiveReasonType")) {
+                entry.inactiveReasonType = nextString();
+            } else if (name.equals("mergeDemergeTo")) {
+                entry.mergeDemergeTo = nextStringOrFirstOfArray();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    private void readStrings(List<String> values) throws IOException {
+        if (!beginArray()) {
+            return;
+        }
+        while (reader.hasNext()) {
+            String value = nextString();
+            if (value != null) {
+                values.add(value);
+            }
+        }
+        reader.endArray();
+    }
+
+    /**
+     * Reads a single field of an object, skipping the others.
+     *
+     * @return the field as a string, or {@code null} if the object does not have it.
+     */
+    private String readField(String fieldName) throws IOException {
+        String value = null;
+        if (!beginObject()) {
+            return null;
+        }
+        while (reader.hasNext()) {
+            if (reader.nextName().equals(fieldName)) {
+                value = nextString();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return value;
+    }
+
+    private String nextStringOrFirstOfArray() throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+            return nextString();
+        }
+        reader.beginArray();
+        String value = reader.hasNext() ? nextString() : null;
+        while (reader.hasNext()) {
+            reader.skipValue();
+        }
+        reader.endArray();
+        return value;
+    }
+
+    /**
+     * Reads a string, number or boolean as a string.
+     *
+     * @return the value, or {@code null} for a null value, an object or an array, which are skipped.
+     */
+    private String nextString() throws IOException {
+        JsonToken token = reader.peek();
+        if (token == JsonToken.STRING || token == JsonToken.NUMBER) {
+            return reader.nextString();
+        }
+        if (token == JsonToken.BOOLEAN) {
+            return Boolean.toString(reader.nextBoolean());
+        }
+        reader.skipValue();
+        return null;
+    }
+
+    /**
+     * Begins an object, or skips the value if it is not an object.
+     *
+     * @return {@code true} if an object was begun.
+     */
+    private boolean beginObject() throws IOException {
+        if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+            reader.beginObject();
+            return true;
+        }
+        reader.skipValue();
+        return false;
+    }
+
+    /**
+     * Begins an array, or skips the value if it is not an array.
+     *
+     * @return {@code true} if an array was begun.
+     */
+    private boolean beginArray() throws IOException {
+        if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+            reader.beginArray();
+            return true;
+        }
+        reader.skipValue();
+        return false;
+    }
+}
@@ -1,14 +1,16 @@
 package uk.ac.ebi.intact.psi.mi.xmlmaker.utils;
 
 import lombok.Setter;
+import org.apache.commons.compress.compressors.CompressorException;
+import org.apache.commons.compress.compressors.CompressorStreamFactory;
 import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
 import uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing.FileReader;
+import uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing.RowStore;
 import uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing.content.InputData;
 
+import java.io.*;
 import java.util.Arrays;
-import java.util.Iterator;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -18,30 +20,103 @@ public class FileUtils {
     @Setter
     static FileReader fileReader;
 
+    private static final Map<String, String> COMPRESSION_FORMATS = Map.of(
+            "gz", CompressorStreamFactory.GZIP,
+            "zst", CompressorStreamFactory.ZSTANDARD,
+            "xz", CompressorStreamFactory.XZ);
+
     /**
-     * Extracts the file extension from a file name.
+     * Extracts the file extension from a file name. For a compressed file (e.g., "data.tsv.gz"),
+     * the extension of the compressed content is returned.
      *
      * @param fileName The file name.
      * @return The file extension.
      */
     public static String getFileExtension(String fileName) {
-        return fileName.substring(fileName.lastIndexOf(".") + 1).toLowerCase();
+        String name = removeCompressionExtension(fileName);
+        return name.substring(name.lastIndexOf(".") + 1).toLowerCase();
+    }
+
+    /**
+     * Checks whether a file is compressed, based on its last extension (.gz, .zst or .xz).
+     *
+     * @param fileName The file name.
+     * @return {@code true} if the file is compressed, {@code false} otherwise.
+     */
+    public static boolean isCompressed(String fileName) {
+        return getCompressionFormat(fileName) != null;
+    }
+
+    /**
+     * Opens a file for reading, decompressing its content on the fly if the file is compressed.
+     *
+     * @param filePath The path of the file.
+     * @return a buffered stream over the content of the file.
+     * @throws IOException if the file cannot be opened or its compression format is not supported.
+     */
+    public static InputStream openInputStream(String filePath) throws IOException {
+        InputStream input = new BufferedInputStream(new FileInputStream(filePath));
+        String format = getCompressionFormat(filePath);
+        if (format == null) {
+            return input;
+        }
+        try {
+            return new BufferedInputStream(new CompressorStreamFactory().createCompressorInputStream(format, input));
+        } catch (CompressorException e) {
+            input.close();
+            throw new IOException("Unable to decompress file: " + filePath, e);
+        }
+    }
+
+    /**
+     * Opens a file for writing, compressing the content with the format given by the extension
+     * of {@code fileName}, so that a compressed input is written back in the same format.
+     *
+     * @param file     The file to write.
+     * @param fileName The name giving the compression format, usually the name of the input file.
+     * @return a buffered stream writing to the file.
+     * @throws IOException if the file cannot be opened or its compression format is not supported.
+     */
+    public static OutputStream openOutputStream(File file, String fileName) throws IOException {
+        OutputStream output = new BufferedOutputStream(new FileOutputStream(file));
+        String format = getCompressionFormat(fileName);
+        if (format == null) {
+            return output;
+        }
+        try {
+            return new CompressorStreamFactory().createCompressorOutputStream(format, output);
+        } catch (CompressorException e) {
+            output.close();
+            throw new IOException("Unable to compress file: " + file, e);
+        }
+    }
+
+    private static String getCompressionFormat(String fileName) {
+        return COMPRESSION_FORMATS.get(fileName.substring(fileName.lastIndexOf(".") + 1).toLowerCase());
+    }
+
+    private static String removeCompressionExtension(String fileName) {
+        return isCompressed(fileName) ? fileName.substring(0, fileName.lastIndexOf(".")) : fileName;
     }
 
     /**
      * Extracts the file name (without extension) from a given file name with extension.
      * If the input file name contains an extension (denoted by a period), the method returns
      * the part of the string before the last period. If there is no extension, the method returns
-     * the original file name.
+     * the original file name. The compression extension of a compressed file is removed as well.
      *
      * @param fileNameWithExtension The full file name, including its extension.
      * @return The file name without the extension, or the original file name if no extension is found.
      */
     public static String getFileName(String fileNameWithExtension) {
-        if (fileNameWithExtension != null && fileNameWithExtension.contains(".")) {
-            return fileNameWithExtension.substring(0, fileNameWithExtension.lastIndexOf("."));
+        if (fileNameWithExtension == null) {
+            return null;
+        }
+        String fileName = removeCompressionExtension(fileNameWithExtension);
+        if (fileName.contains(".")) {
+            return fileName.substring(0, fileName.lastIndexOf("."));
         } else {
-            return fileNameWithExtension;
+            return fileName;
         }
     }
 
@@ -57,11 +132,7 @@ public class FileUtils {
             case STRING:
                 return cell.getStringCellValue();
             case NUMERIC:
-                double numericValue = cell.getNumericCellValue();
-                if (numericValue == (long) numericValue) {
-                    return String.valueOf((long) numericValue);
-                }
-                return String.valueOf(numericValue);
+                return formatNumericValue(cell.getNumericCellValue());
             case BOOLEAN:
                 return String.valueOf(cell.getBooleanCellValue());
             case FORMULA:
@@ -72,15 +143,46 @@ public class FileUtils {
     }
 
     /**
-     * Retrieves cell values from Excel based on column names stored in the participant map.
+     * Converts a numeric cell value to a string, without decimals for whole numbers.
+     *
+     * @param numericValue the numeric value.
+     * @return the string representation of the value.
+     */
+    public static String formatNumericValue(double numericValue) {
+        if (numericValue == (long) numericValue) {
+            return String.valueOf((long) numericValue);
+        }
+        return String.valueOf(numericValue);
+    }
+
+    /**
+     * Retrieves cell values from the parsed input file based on column names stored in the participant map,
+     * like {@link #getValueFromFile(String, Map, List)}, reading the row of the participant from the current session.
+     *
+     * @param key  Key to retrieve the semicolon-separated column references.
+     * @param participant         The participant map with metadata.
+     * @return                    Concatenated values resolved from the file.
+     */
+    public static String getValueFromFile(String key, Map<String, String> participant) {
+        RowStore rowStore = fileReader.getRowStore();
+        List<String> row = rowStore == null
+                ? Collections.emptyList()
+                // -1 because the row index 0 is the header
+                : rowStore.getRow(Integer.parseInt(participant.get(InputData.PARTICIPANT_ROW_INDEX.name)) - 1);
+        return getValueFromFile(key, participant, row);
+    }
+
+    /**
+     * Retrieves cell values from the row of a participant based on column names stored in the participant map.
      * Useful for feature-related data stored as column references (e.g., "columnA;columnB").
      * Returns the column name in case of column index not found because it is a user input
      *
      * @param key  Key to retrieve the semicolon-separated column references.
      * @param participant         The participant map with metadata.
-     * @return                    Concatenated values resolved from the Excel sheet.
+     * @param row                 The values of the input row of the participant, in the order of the file header.
+     * @return                    Concatenated values resolved from the row.
      */
-    public static String getValueFromFile(String key, Map<String, String> participant) {
+    public static String getValueFromFile(String key, Map<String, String> participant, List<String> row) {
         String columns = participant.get(key);
 
         if (columns == null || columns.trim().isEmpty()) return "";
@@ -97,58 +199,18 @@ public class FileUtils {
                     if (colIndex == -1) {
                         return colName;
                     }
-                    return getDataFromRow(colIndex,
-                            Integer.parseInt(participant.get(InputData.PARTICIPANT_ROW_INDEX.name)));
+                    return colIndex < row.size() ? row.get(colIndex) : "";
                 })
                 .collect(Collectors.joining(";"));
     }
 
     /**
-     * Retrieves the index of a column by its name from the selected Excel sheet.
+     * Retrieves the index of a column by its name from the current file or selected Excel sheet.
      *
      * @param columnName The name of the column.
      * @return The index of the column, or -1 if not found.
      */
     private static int getColumnIndex(String columnName) {
-        List<String> columns = fileReader.getColumns(fileReader.getSheetSelectedUpdate());
-        return columns.indexOf(columnName);
-    }
-
-    /**
-     * Gets the cell value from a specific column and row, supporting both Excel and delimited files.
-     *
-     * @param columnIndex The index of the column.
-     * @param rowIndex    The index of the row.
-     * @return The cell value as a string, or an empty string if not found.
-     */
-    private static String getDataFromRow(int columnIndex, int rowIndex) {
-        if (fileReader.getWorkbook() != null) {
-            Sheet sheet = fileReader.getWorkbook().getSheet(fileReader.getSheetSelectedUpdate());
-            Row row = sheet.getRow(rowIndex);
-            if (row == null || columnIndex < 0) {
-                return "";
-            }
-            Cell cell = row.getCell(columnIndex);
-            if (cell != null) {
-                return FileUtils.getCellValueAsString(cell);
-            } else {
-                return "";
-            }
-        } else if (fileReader.readFileWithSeparator() != null) {
-            Iterator<List<String>> iterator = fileReader.readFileWithSeparator();
-            int currentRow = 0;
-            while (iterator.hasNext()) {
-                List<String> row = iterator.next();
-                if (currentRow == rowIndex - 1) { // -1 because the indexing works differently for files with separator
-                    if (columnIndex >= 0 && columnIndex < row.size()) {
-                        return row.get(columnIndex);
-                    } else {
-                        return "";
-                    }
-                }
-                currentRow++;
-            }
-        }
-        return "";
+        return fileReader.getColumnIndex(columnName);
     }
 }
@@ -0,0 +1,205 @@
+package uk.ac.ebi.intact.psi.mi.xmlmaker.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Utility class sending the HTTP requests of the application (UniProt, OLS, version checks) through a single
+ * shared {@link HttpClient}. The client negotiates HTTP/2, keeps the connections open between requests,
+ * and applies connect and response timeouts. Text responses are requested gzip-compressed and decoded.
+ */
+public class HttpUtils {
+
+    private static final Logger LOGGER = Logger.getLogger(HttpUtils.class.getName());
+
+    public static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    public static final Duration RESPONSE_TIMEOUT = Duration.ofSeconds(60);
+
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(CONNECT_TIMEOUT)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+
+    /**
+     * Sends a GET request and reads the response as text, without blocking the calling thread.
+     *
+     * @param url    the URL of the request.
+     * @param accept the media type accepted, such as {@code application/json}, or {@code null}.
+     * @return the future response, whatever its status code.
+     */
+    public static CompletableFuture<HttpResponse<String>> getStringAsync(String url, String accept) {
+        LOGGER.fine("GET " + url);
+        return CLIENT.sendAsync(compressedRequest(url, accept), HttpUtils::decodedString);
+    }
+
+    /**
+     * Sends a GET request and reads the response as text.
+     *
+     * @param url    the URL of the request.
+     * @param accept the media type accepted, such as {@code application/json}, or {@code null}.
+     * @return the response, whatever its status code.
+     * @throws IOException          if the request fails or times out.
+     * @throws InterruptedException if the thread is interrupted while waiting for the response.
+     */
+    public static HttpResponse<String> getString(String url, String accept) throws IOException, InterruptedException {
+        return await(getStringAsync(url, accept));
+    }
+
+    /**
+     * Sends a GET request and returns the response body as a stream, read as it is received.
+     * A gzip-compressed body is decompressed as it is read.
+     *
+     * @param url    the URL of the request.
+     * @param accept the media type accepted, such as {@code application/json}, or {@code null}.
+     * @return the response, whatever its status code. Its body must be closed.
+     * @throws IOException          if the request fails or times out.
+     * @throws InterruptedException if the thread is interrupted while waiting for the response.
+     */
+    public static HttpResponse<InputStream> getStream(String url, String accept) throws IOException, InterruptedException {
+        return await(getStreamAsync(url, accept));
+    }
+
+    /**
+     * Sends a GET request and returns the response body as a stream, without blocking the calling thread.
+     * The future completes once the response headers are received.
+     *
+     * @param url    the URL of the request.
+     * @param accept the media type accepted, such as {@code application/json}, or {@code null}.
+     * @return the future response, whatever its status code. Its body must be closed.
+     */
+    public static CompletableFuture<HttpResponse<InputStream>> getStreamAsync(String url, String accept) {
+        LOGGER.fine("GET " + url);
+        return CLIENT.sendAsync(compressedRequest(url, accept), HttpUtils::decodedStream);
+    }
+
+    /**
+     * Downloads a file. The file is written only if the server answers 200 (OK).
+     *
+     * @param url    the URL of the file.
+     * @param accept the media type accepted, such as {@code application/octet-stream}, or {@code null}.
+     * @param target the file to write.
+     * @return the response, with the path of the file written as body, or a {@code null} body for other status codes.
+     * @throws IOException          if the request fails or the file cannot be written.
+     * @throws InterruptedException if the thread is interrupted during the download.
+     */
+    public static HttpResponse<Path> download(String url, String accept, Path target) throws IOException, InterruptedException {
+        // no response timeout: it would also apply to the download of large files
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url)).GET();
+        if (accept != null) {
+            request.header("Accept", accept);
+        }
+        return await(CLIENT.sendAsync(request.build(), responseInfo -> responseInfo.statusCode() == 200
+                ? HttpResponse.BodySubscribers.ofFile(target)
+                : HttpResponse.BodySubscribers.replacing(null)));
+    }
+
+    private static HttpRequest compressedRequest(String url, String accept) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(RESPONSE_TIMEOUT)
+                .header("Accept-Encoding", "gzip")
+                .GET();
+        if (accept != null) {
+            request.header("Accept", accept);
+        }
+        return request.build();
+    }
+
+    /**
+     * Reads the body as UTF-8 text, decompressing it first if the server sent it gzip-compressed.
+     */
+    private static HttpResponse.BodySubscriber<String> decodedString(HttpResponse.ResponseInfo responseInfo) {
+        boolean gzip = isGzip(responseInfo);
+        return HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofByteArray(),
+                body -> gzip ? gunzip(body) : new String(body, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads the body as a stream, decompressed as it is read if the server sent it gzip-compressed.
+     */
+    private static HttpResponse.BodySubscriber<InputStream> decodedStream(HttpResponse.ResponseInfo responseInfo) {
+        HttpResponse.BodySubscriber<InputStream> body = HttpResponse.BodySubscribers.ofInputStream();
+        return isGzip(responseInfo) ? HttpResponse.BodySubscribers.mapping(body, GzipOnReadInputStream::new) : body;
+    }
+
+    private static boolean isGzip(HttpResponse.ResponseInfo responseInfo) {
+        return responseInfo.headers().firstValue("Content-Encoding")
+                .map(encoding -> encoding.equalsIgnoreCase("gzip"))
+                .orElse(false);
+    }
+
+    private static String gunzip(byte[] body) {
+        try (InputStream input = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Decompresses a gzip stream, reading its header on the first read rather than on creation,
+     * so that the stream can be created by the client thread without waiting for the body.
+     */
+    private static class GzipOnReadInputStream extends InputStream {
+        private final InputStream compressed;
+        private InputStream decompressed;
+
+        GzipOnReadInputStream(InputStream compressed) {
+            this.compressed = compressed;
+        }
+
+        private InputStream decompressed() throws IOException {
+            if (decompressed == null) {
+                decompressed = new GZIPInputStream(compressed);
+            }
+            return decompressed;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return decompressed().read();
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            return decompressed().read(buffer, offset, length);
+        }
+
+        @Override
+        public void close() throws IOException {
+            compressed.close();
+        }
+    }
+
+    private static <T> HttpResponse<T> await(CompletableFuture<HttpResponse<T>> response)
+            throws IOException, InterruptedException {
+        try {
+            return response.get();
+        } catch (InterruptedException e) {
+            response.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            throw new IOException(cause);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package uk.ac.ebi.intact.psi.mi.xmlmaker.utils;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * The {@code OrganismTaxIdResolver} class resolves organism names to Taxonomy IDs and keeps the IDs resolved,
+ * so that each organism name is looked up once. The names not found by the lookup are asked to the user.
+ */
+class OrganismTaxIdResolver {
+
+    private static final Logger LOGGER = Logger.getLogger(OrganismTaxIdResolver.class.getName());
+
+    private final Function<String, String> lookUp;
+    private final UnaryOperator<String> askForTaxId;
+    private final Function<List<String>, Map<String, String>> askForTaxIds;
+    private final Map<String, String> nameToTaxIdCache = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs an OrganismTaxIdResolver.
+     *
+     * @param lookUp       looks up the TaxId of an organism name without asking the user, {@code null} if not found.
+     * @param askForTaxId  asks the user for the TaxId of an organism not found.
+     * @param askForTaxIds asks the user for the TaxIds of several organisms not found, in a single dialog,
+     *                     and returns the TaxIds entered by organism name.
+     */
+    OrganismTaxIdResolver(Function<String, String> lookUp, UnaryOperator<String> askForTaxId,
+                          Function<List<String>, Map<String, String>> askForTaxIds) {
+        this.lookUp = lookUp;
+        this.askForTaxId = askForTaxId;
+        this.askForTaxIds = askForTaxIds;
+    }
+
+    /**
+     * Resolves the Taxonomy ID of an organism name. If no TaxId is found, the user is asked for a custom one.
+     *
+     * @param organismName organism to resolve
+     * @return organism tax id, or null if the organism is not set
+     */
+    String resolve(String organismName) {
+        String taxId = nameToTaxIdCache.get(organismName);
+        if (taxId != null) {
+            return taxId;
+        }
+        // Already an organism taxId or an in-vitro/chemical synthesis id
+        if (isTaxId(organismName)) {
+            return organismName;
+        }
+        // Organism has not been set
+        if (isUnsetOrganism(organismName)) {
+            return null;
+        }
+        taxId = lookUp.apply(organismName);
+        if (taxId == null) {
+            taxId = askForTaxId.apply(organismName);
+        }
+        nameToTaxIdCache.put(organismName, taxId);
+        return taxId;
+    }
+
+    /**
+     * Resolves the Taxonomy IDs of several organism names at once, so that later calls to
+     * {@link #resolve(String)} for these names are answered from the cache.
+     * The names are looked up concurrently, and the user is asked for the TaxIds
+     * of all the names not found in a single dialog.
+     *
+     * @param organismNames organisms to resolve
+     * @param parallelism   maximum number of concurrent lookups
+     */
+    void resolveAll(Collection<String> organismNames, int parallelism) {
+        List<String> namesToLookUp = organismNames.stream()
+                .filter(name -> name != null && !nameToTaxIdCache.containsKey(name))
+                .filter(name -> !isTaxId(name) && !isUnsetOrganism(name))
+                .distinct()
+                .collect(Collectors.toList());
+        if (namesToLookUp.isEmpty()) {
+            return;
+        }
+        LOGGER.info("Fetching TaxIds for " + namesToLookUp.size() + " organisms");
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, namesToLookUp.size())));
+        try {
+            Map<String, Future<String>> lookups = new LinkedHashMap<>();
+            for (String organismName : namesToLookUp) {
+                lookups.put(organismName, executor.submit(() -> lookUp.apply(organismName)));
+            }
+
+            List<String> notFound = new ArrayList<>();
+            for (Map.Entry<String, Future<String>> lookup : lookups.entrySet()) {
+                String taxId = null;
+                try {
+                    taxId = lookup.getValue().get();
+                } catch (ExecutionException e) {
+                    LOGGER.log(Level.SEVERE, "Exception occurred while fetching TaxID for organism: " + lookup.getKey(), e.getCause());
+                }
+                if (taxId != null) {
+                    nameToTaxIdCache.put(lookup.getKey(), taxId);
+                } else {
+                    notFound.add(lookup.getKey());
+                }
+            }
+
+            if (!notFound.isEmpty()) {
+                Map<String, String> customTaxIds = askForTaxIds.apply(notFound);
+                for (String organismName : notFound) {
+                    nameToTaxIdCache.put(organismName, customTaxIds.getOrDefault(organismName, organismName));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.warning("Interrupted while fetching TaxIds for organisms");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static boolean isTaxId(String organismName) {
+        return organismName.matches("\\d+") || organismName.equals("-1") || organismName.equals("-2");
+    }
+
+    private static boolean isUnsetOrganism(String organismName) {
+        return organismName.toLowerCase().contains("organism") || organismName.isEmpty();
+    }
+}
@@ -2,7 +2,8 @@ package uk.ac.ebi.intact.psi.mi.xmlmaker.utils;
 
 import java.io.*;
 import java.net.HttpURLConnection;
-import java.net.URL;
+import java.net.http.HttpResponse;
+import java.nio.file.Paths;
 import java.util.Properties;
 import java.util.logging.Logger;
 
@@ -126,14 +127,16 @@ public class VersionUtils {
      *
      * @return the version string (e.g., "1.1.3") if available, or {@code null} if not found or error occurs.
      * @throws IOException if the URL cannot be read or the content is malformed.
+     * @throws InterruptedException if the thread is interrupted while waiting for the response.
      */
-    private static String getLatestReleasedVersion() throws IOException {
-        URL url = new URL(VERSION_URL);
-        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-        connection.setRequestMethod("GET");
+    private static String getLatestReleasedVersion() throws IOException, InterruptedException {
+        HttpResponse<String> response = HttpUtils.getString(VERSION_URL, null);
+        if (response.statusCode() != HttpURLConnection.HTTP_OK) {
+            throw new IOException("Server replied with code: " + response.statusCode());
+        }
 
         String latestVersion = null;
-        try (BufferedReader in = new BufferedReader(new InputStreamReader(connection.getInputStream()))) {
+        try (BufferedReader in = new BufferedReader(new StringReader(response.body()))) {
             String line;
             while ((line = in.readLine()) != null) {
                 if (line.startsWith("version=")) {
@@ -156,30 +159,18 @@ public class VersionUtils {
         try {
             LOGGER.info("Downloading latest jar: " + downloadUrl);
 
-            URL url = new URL(downloadUrl);
-            HttpURLConnection httpConn = (HttpURLConnection) url.openConnection();
-            httpConn.setRequestProperty("Accept", "application/octet-stream");
-
-            int responseCode = httpConn.getResponseCode();
+            int responseCode = HttpUtils.download(downloadUrl, "application/octet-stream", Paths.get(savingPath)).statusCode();
             if (responseCode == HttpURLConnection.HTTP_OK) {
-                try (InputStream inputStream = httpConn.getInputStream();
-                     FileOutputStream outputStream = new FileOutputStream(savingPath)) {
-
-                    byte[] buffer = new byte[4096];
-                    int bytesRead;
-                    while ((bytesRead = inputStream.read(buffer)) != -1) {
-                        outputStream.write(buffer, 0, bytesRead);
-                    }
-
-                    LOGGER.info("Downloaded " + savingPath + " from " + downloadUrl);
-                    scheduleRestart(savingPath);
-                }
+                LOGGER.info("Downloaded " + savingPath + " from " + downloadUrl);
+                scheduleRestart(savingPath);
             } else {
                 LOGGER.warning("No file to download. Server replied with code: " + responseCode);
             }
-            httpConn.disconnect();
         } catch (IOException e) {
             LOGGER.severe("Error downloading latest jar: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.warning("Interrupted while downloading latest jar");
         }
     }
 
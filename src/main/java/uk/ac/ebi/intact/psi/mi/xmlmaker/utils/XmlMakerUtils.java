@@ -12,11 +12,14 @@ import uk.ac.ebi.pride.utilities.ols.web.service.model.Identifier;
 import uk.ac.ebi.pride.utilities.ols.web.service.model.Term;
 
 import javax.swing.*;
+import java.awt.Dimension;
+import java.awt.GridLayout;
 import java.io.*;
 import java.net.*;
+import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.*;
 import java.util.logging.*;
 import java.util.stream.Collectors;
 
@@ -31,7 +34,8 @@ public class XmlMakerUtils {
 
     private static final Logger LOGGER = Logger.getLogger(XmlMakerUtils.class.getName());
     private static final Map<String, CvTerm> nameToCvTerm = new ConcurrentHashMap<>();
-    private static final Map<String, String> nameToTaxIdCache = new ConcurrentHashMap<>();
+    private static final OrganismTaxIdResolver organismTaxIdResolver = new OrganismTaxIdResolver(
+            XmlMakerUtils::lookUpTaxId, XmlMakerUtils::askForTaxId, XmlMakerUtils::askForTaxIds);
     static final OLSClient olsClient = new OLSClient(new OLSWsConfig());
     static {
         try {
@@ -47,20 +51,6 @@ public class XmlMakerUtils {
         }
     }
 
-    /**
-     * Creates an HTTP connection for a given URL.
-     * @param urlString url to connect
-     * @throws IOException if error
-     * @return URLConnection
-     */
-    public static HttpURLConnection createConnection(String urlString) throws IOException {
-        LOGGER.fine("Creating HTTP connection to URL: " + urlString);
-        URL url = new URL(urlString);
-        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-        connection.setRequestMethod("GET");
-        return connection;
-    }
-
     /**
      * Encodes a string for safe use in a URL.
      * @param input to convert in URL format.
@@ -78,78 +68,127 @@ public class XmlMakerUtils {
     public static String fetchTaxIdWithApi(String organismName) {
         String urlString = "https://www.ebi.ac.uk/ols4/api/search?q=" + encodeForURL(organismName) + "&ontology=ncbitaxon";
         try {
-            HttpURLConnection connection = createConnection(urlString);
-            int responseCode = connection.getResponseCode();
+            HttpResponse<String> response = HttpUtils.getString(urlString, "application/json");
+            int responseCode = response.statusCode();
 
             if (responseCode == HttpURLConnection.HTTP_OK) {
-                try (BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream()))) {
-                    StringBuilder response = new StringBuilder();
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        response.append(line);
-                    }
-                    return response.toString();
-                }
+                return response.body();
             } else {
                 LOGGER.warning("HTTP Error: " + responseCode + " while fetching TaxID for organism: " + organismName);
             }
         } catch (IOException e) {
             LOGGER.log(Level.SEVERE, "Exception occurred while fetching TaxID for organism: " + organismName, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.warning("Interrupted while fetching TaxID for organism: " + organismName);
         }
         return null;
     }
 
     /**
      * Fetches the Taxonomy ID for a given organism name by processing the API response.
+     * If no TaxId is found, the user is asked for a custom one.
      * @param organismName organism to fetch
      * @return organism tax id
      */
     public static String fetchTaxIdForOrganism(String organismName) {
-        String taxId = nameToTaxIdCache.get(organismName);
-        if (taxId != null) {
-            return taxId;
-        }
-        // Already an organism taxId or an in-vitro/chemical synthesis id
-        if (organismName.matches("\\d+") || organismName.equals("-1") || organismName.equals("-2")) {
-            return organismName;
-        }
-        // Organism has not been set
-        if (organismName.toLowerCase().contains("organism") || organismName.isEmpty()) {
-            return null;
-        }
+        return organismTaxIdResolver.resolve(organismName);
+    }
+
+    /**
+     * Fetches the Taxonomy IDs of several organism names at once, so that later calls to
+     * {@link #fetchTaxIdForOrganism(String)} for these names are answered from the cache.
+     * The names are looked up concurrently, and the user is asked for the TaxIds
+     * of all the names not found in a single dialog.
+     *
+     * @param organismNames organisms to fetch
+     * @param parallelism   maximum number of concurrent lookups
+     */
+    public static void fetchTaxIdsForOrganisms(Collection<String> organismNames, int parallelism) {
+        organismTaxIdResolver.resolveAll(organismNames, parallelism);
+    }
+
+    /**
+     * Looks up the Taxonomy ID of an organism name without asking the user.
+     * @param organismName organism to fetch
+     * @return organism tax id, or null if not found
+     */
+    private static String lookUpTaxId(String organismName) {
         // Chemical Synthesis organism selected. It cannot be found in OLS, but we already know the tax id
         if (ParticipantOrganism.CHEMICAL_SYNTHESIS.formattedOrganismName().equals(organismName)) {
-            taxId = Integer.toString(ParticipantOrganism.CHEMICAL_SYNTHESIS.taxId);
+            return Integer.toString(ParticipantOrganism.CHEMICAL_SYNTHESIS.taxId);
         } else if (ParticipantOrganism.IN_VITRO.formattedOrganismName().equals(organismName)) {
-            taxId = Integer.toString(ParticipantOrganism.IN_VITRO.taxId);
-        } else {
-            String apiResponse = fetchTaxIdWithApi(organismName);
-            String oboId = apiResponse != null ? extractOboId(apiResponse) : null;
-            taxId = oboId != null ? oboId : organismName;
-
-            if (oboId == null) {
-                String userInput = JOptionPane.showInputDialog(null,
-                        "No TaxId found for organism: " + organismName + "\nPlease enter a custom TaxId:",
-                        "Custom TaxId Input",
-                        JOptionPane.QUESTION_MESSAGE);
-
-                while (userInput != null && !userInput.matches("\\d+")) {
-                    JOptionPane.showMessageDialog(null, "Please enter a valid numeric TaxId.",
-                            "Invalid Input", JOptionPane.ERROR_MESSAGE);
-                    userInput = JOptionPane.showInputDialog(null,
-                            "No TaxId found for organism: " + organismName + "\nPlease enter a valid numeric TaxId:",
-                            "Custom TaxId Input",
-                            JOptionPane.QUESTION_MESSAGE);
-                }
+            return Integer.toString(ParticipantOrganism.IN_VITRO.taxId);
+        }
+        String apiResponse = fetchTaxIdWithApi(organismName);
+        return apiResponse != null ? extractOboId(apiResponse) : null;
+    }
+
+    /**
+     * Asks the user for the TaxId of an organism not found in OLS.
+     * @param organismName organism not found
+     * @return the TaxId entered, or the organism name if none was entered
+     */
+    private static String askForTaxId(String organismName) {
+        String userInput = JOptionPane.showInputDialog(null,
+                "No TaxId found for organism: " + organismName + "\nPlease enter a custom TaxId:",
+                "Custom TaxId Input",
+                JOptionPane.QUESTION_MESSAGE);
+
+        while (userInput != null && !userInput.matches("\\d+")) {
+            JOptionPane.showMessageDialog(null, "Please enter a valid numeric TaxId.",
+                    "Invalid Input", JOptionPane.ERROR_MESSAGE);
+            userInput = JOptionPane.showInputDialog(null,
+                    "No TaxId found for organism: " + organismName + "\nPlease enter a valid numeric TaxId:",
+                    "Custom TaxId Input",
+                    JOptionPane.QUESTION_MESSAGE);
+        }
 
-                if (userInput != null && !userInput.trim().isEmpty()) {
-                    taxId = userInput.trim(); // Update taxId with user input
+        if (userInput != null && !userInput.trim().isEmpty()) {
+            return userInput.trim();
+        }
+        return organismName;
+    }
+
+    /**
+     * Asks the user for the TaxIds of several organisms not found in OLS, in a single dialog.
+     * Organisms left blank keep no custom TaxId.
+     * @param organismNames organisms not found
+     * @return the TaxIds entered, by organism name
+     */
+    private static Map<String, String> askForTaxIds(List<String> organismNames) {
+        JPanel panel = new JPanel(new GridLayout(0, 2, 5, 5));
+        Map<String, JTextField> fields = new LinkedHashMap<>();
+        for (String organismName : organismNames) {
+            JTextField field = new JTextField(10);
+            fields.put(organismName, field);
+            panel.add(new JLabel(organismName));
+            panel.add(field);
+        }
+        JScrollPane scrollPane = new JScrollPane(panel);
+        scrollPane.setPreferredSize(new Dimension(450, Math.min(400, 40 + 30 * organismNames.size())));
+        Object[] message = {"No TaxId found for the following organisms.\nPlease enter custom TaxIds:", scrollPane};
+
+        Map<String, String> customTaxIds = new HashMap<>();
+        while (JOptionPane.showConfirmDialog(null, message, "Custom TaxId Input",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.QUESTION_MESSAGE) == JOptionPane.OK_OPTION) {
+            customTaxIds.clear();
+            List<String> invalid = new ArrayList<>();
+            for (Map.Entry<String, JTextField> field : fields.entrySet()) {
+                String userInput = field.getValue().getText().trim();
+                if (userInput.matches("\\d+")) {
+                    customTaxIds.put(field.getKey(), userInput);
+                } else if (!userInput.isEmpty()) {
+                    invalid.add(field.getKey());
                 }
             }
+            if (invalid.isEmpty()) {
+                return customTaxIds;
+            }
+            JOptionPane.showMessageDialog(null, "Please enter valid numeric TaxIds for: " + String.join(", ", invalid),
+                    "Invalid Input", JOptionPane.ERROR_MESSAGE);
         }
-
-        nameToTaxIdCache.put(organismName, taxId);
-        return taxId;
+        return Collections.emptyMap();
     }
 
     /**
@@ -17,7 +17,6 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.logging.Logger;
 
@@ -201,9 +200,7 @@ public class XmlMakerGuiTest {
         FileFormater formater = new FileFormater(reader);
         reader.setSheetSelectedUpdate("Book1");
         formater.formatExcelFile(0, 2, "Book1", false, 1, 3);
-        List<Map<String, String>> participants = formater.getParticipants();
-
-        Map<String, String> participant = participants.get(0);
+        Map<String, String> participant = formater.getParticipants().getFirst();
 
         String result = getValueFromFile(PARTICIPANT_ID.name, participant);
 
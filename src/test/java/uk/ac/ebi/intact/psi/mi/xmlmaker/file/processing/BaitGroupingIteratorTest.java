@@ -0,0 +1,102 @@
+package uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+public class BaitGroupingIteratorTest {
+
+    @Test
+    public void baitsComeInTheOrderOfTheirFirstRow() {
+        List<List<String>> rows = List.of(
+                List.of("B2", "P1"),
+                List.of("B1", "P2"),
+                List.of("B2", "P3"),
+                List.of("B3", "P4"),
+                List.of("B1", "P5"));
+        List<String> expected = List.of("B2:1:P1", "B2:3:P3", "B1:2:P2", "B1:5:P5", "B3:4:P4");
+        assertEquals(expected, group(rows, 100));
+    }
+
+    @Test
+    public void consecutiveBaitsKeepTheFileOrder() {
+        List<List<String>> rows = List.of(
+                List.of("B2", "P1"),
+                List.of("B2", "P2"),
+                List.of("B1", "P3"));
+        assertEquals(List.of("B2:1:P1", "B2:2:P2", "B1:3:P3"), group(rows, 100));
+    }
+
+    @Test
+    public void missingBaitIsEmpty() {
+        List<List<String>> rows = List.of(
+                List.of("B1", "P1"),
+                List.of(),
+                List.of("B1", "P2"));
+        assertEquals(List.of("B1:1:P1", "B1:3:P2", ":2:"), group(rows, 100));
+    }
+
+    @Test
+    public void diskGroupingMatchesMemoryGrouping() throws IOException {
+        Random random = new Random(42);
+        List<List<String>> rows = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            rows.add(List.of("B" + random.nextInt(40), "P" + i, "naïve \"value\" " + i));
+        }
+
+        Map<String, List<String>> rowsByBait = new LinkedHashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            List<String> row = rows.get(i);
+            rowsByBait.computeIfAbsent(row.get(0), bait -> new ArrayList<>()).add(describe(row.get(0), i + 1, row));
+        }
+        List<String> expected = rowsByBait.values().stream().flatMap(List::stream).collect(Collectors.toList());
+
+        Set<Path> runFilesBefore = runFiles();
+        assertEquals(expected, group(rows, rows.size()));
+        for (int rowLimit : new int[]{1, 7, 100, rows.size() - 1}) {
+            assertEquals(expected, group(rows, rowLimit), "row limit " + rowLimit);
+        }
+        // the temporary run files are deleted once the iterator is closed
+        assertEquals(runFilesBefore, runFiles());
+    }
+
+    @Test
+    public void emptySourceHasNoRows() {
+        try (BaitGroupingIterator iterator = new BaitGroupingIterator(List.<List<String>>of().iterator(), 0, 1)) {
+            assertFalse(iterator.hasNext());
+        }
+    }
+
+    private List<String> group(List<List<String>> rows, int rowLimit) {
+        List<String> grouped = new ArrayList<>();
+        try (BaitGroupingIterator iterator = new BaitGroupingIterator(rows.iterator(), 0, rowLimit)) {
+            iterator.forEachRemaining(row -> grouped.add(describe(row.getBait(), row.getRowIndex(), row.getValues())));
+        }
+        return grouped;
+    }
+
+    private String describe(String bait, int rowIndex, List<String> values) {
+        return bait + ":" + rowIndex + ":" + String.join(",", values.subList(Math.min(1, values.size()), values.size()));
+    }
+
+    private Set<Path> runFiles() throws IOException {
+        try (Stream<Path> files = Files.list(Paths.get(System.getProperty("java.io.tmpdir")))) {
+            return files.filter(file -> file.getFileName().toString().startsWith("xmlmaker-baits"))
+                    .collect(Collectors.toSet());
+        }
+    }
+}
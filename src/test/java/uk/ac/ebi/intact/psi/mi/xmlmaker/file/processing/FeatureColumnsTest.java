@@ -0,0 +1,83 @@
+package uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing;
+
+import org.junit.jupiter.api.Test;
+import uk.ac.ebi.intact.psi.mi.xmlmaker.models.Feature;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing.content.InputData.*;
+
+public class FeatureColumnsTest {
+
+    private static final List<String> HEADER = List.of("name", "start", "end", "xref", "kd");
+    private static final List<String> ROW = List.of("binding site", "12", "34", "IPR000001", "3.7");
+
+    @Test
+    public void constantFeatureIsCopied() {
+        Feature feature = new Feature();
+        feature.setShortName("name");
+        feature.setStartLocation("1");
+        feature.setXref(List.of("xref1", "xref2"));
+        Map<String, String> participant = apply(feature, 0);
+        // not fetched from the file, so a value naming a column is kept as is
+        assertEquals("name", participant.get(FEATURE_SHORT_NAME.name + "_0"));
+        assertEquals("1", participant.get(FEATURE_START_LOCATION.name + "_0"));
+        assertEquals("xref1;xref2", participant.get(FEATURE_XREF.name + "_0"));
+    }
+
+    @Test
+    public void fileColumnsAreReadFromTheRow() {
+        Feature feature = new Feature();
+        feature.setFetchFromFile(true);
+        feature.setShortName("name");
+        feature.setStartLocation(" start ");
+        feature.setEndLocation("end");
+        feature.setXref(List.of("xref", "", "IPR999999"));
+        Map<String, String> participant = apply(feature, 1);
+        assertEquals("binding site", participant.get(FEATURE_SHORT_NAME.name + "_1"));
+        assertEquals("12", participant.get(FEATURE_START_LOCATION.name + "_1"));
+        assertEquals("34", participant.get(FEATURE_END_LOCATION.name + "_1"));
+        // blank items are dropped, items that are not columns are kept
+        assertEquals("IPR000001;IPR999999", participant.get(FEATURE_XREF.name + "_1"));
+        assertEquals("", participant.get(FEATURE_RANGE_TYPE.name + "_1"));
+    }
+
+    @Test
+    public void parameterValuesAreAlwaysReadFromTheRow() {
+        Feature feature = new Feature();
+        feature.setParameterTypes("kd");
+        feature.setParameterValues("kd");
+        Map<String, String> participant = apply(feature, 0);
+        assertEquals("kd", participant.get(FEATURE_PARAM_TYPE.name + "_0"));
+        assertEquals("3.7", participant.get(FEATURE_PARAM_VALUE.name + "_0"));
+    }
+
+    @Test
+    public void sequencePlaceholdersAreEmpty() {
+        Feature feature = new Feature();
+        feature.setOriginalSequence("Original Sequence");
+        feature.setNewSequence("AAGT");
+        Map<String, String> participant = apply(feature, 0);
+        assertEquals("", participant.get(FEATURE_ORIGINAL_SEQUENCE.name + "_0"));
+        assertEquals("AAGT", participant.get(FEATURE_NEW_SEQUENCE.name + "_0"));
+    }
+
+    @Test
+    public void shortRowGivesEmptyValues() {
+        Feature feature = new Feature();
+        feature.setFetchFromFile(true);
+        feature.setShortName("kd");
+        Map<String, String> participant = new HashMap<>();
+        FeatureColumns.compile(feature, 0, HEADER::indexOf).apply(participant, List.of("binding site"));
+        assertEquals("", participant.get(FEATURE_SHORT_NAME.name + "_0"));
+    }
+
+    private Map<String, String> apply(Feature feature, int featureIndex) {
+        Map<String, String> participant = new HashMap<>();
+        FeatureColumns.compile(feature, featureIndex, HEADER::indexOf).apply(participant, ROW);
+        return participant;
+    }
+}
@@ -0,0 +1,149 @@
+package uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing.gui.ParticipantAndInteractionCreatorGui;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing.content.InputData.*;
+
+public class FileFormaterTest {
+
+    private static final String CSV = "bait,prey,organism\n"
+            + "P05067,Q9BT38, 9606 \n"
+            + "P27037,P78352,10090\n"
+            + "P05067,O14672,9606\n";
+
+    private static final String UNSORTED_CSV = "bait,prey,score\n"
+            + "P05067,Q9BT38,1\n"
+            + "P27037,P78352,2\n"
+            + "P05067,O14672,3\n"
+            + "P05067,P10636,4\n"
+            + "P27037,Q9BT38,5\n";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void binaryStreamingOutputIsTheBufferedOutput() throws Exception {
+        List<Map<String, String>> participants = assertSameOutputWhenStreamed(true, true);
+        assertEquals(10, participants.size());
+        assertEquals("physical association", participants.get(0).get(INTERACTION_TYPE.name));
+    }
+
+    @Test
+    public void nonBinaryStreamingOutputIsTheBufferedOutput() throws Exception {
+        List<Map<String, String>> participants = assertSameOutputWhenStreamed(false, false);
+        // the baits are not grouped: each run of rows of a bait is an interaction
+        assertEquals(List.of("1", "1", "2", "2", "3", "3", "3", "4", "4"), column(participants, INTERACTION_NUMBER.name));
+        assertEquals("association", participants.get(4).get(INTERACTION_TYPE.name));
+    }
+
+    @Test
+    public void groupedStreamingOutputIsTheBufferedOutput() throws Exception {
+        List<Map<String, String>> participants = assertSameOutputWhenStreamed(false, true);
+        assertEquals(List.of("1", "1", "1", "1", "2", "2", "2"), column(participants, INTERACTION_NUMBER.name));
+        assertEquals(List.of("P05067", "Q9BT38", "O14672", "P10636", "P27037", "P78352", "Q9BT38"),
+                column(participants, PARTICIPANT_ID.name));
+        assertEquals(List.of("1", "1", "3", "4", "2", "2", "5"), column(participants, PARTICIPANT_ROW_INDEX.name));
+        assertEquals("association", participants.get(0).get(INTERACTION_TYPE.name));
+    }
+
+    @Test
+    public void bufferedOrganismsAreResolvedWithoutAnotherRead() throws Exception {
+        CountingFileReader fileReader = openFile(CSV);
+        List<Map<String, String>> participants = format(organismFormater(fileReader, false), true);
+        // the organisms are collected while formatting instead of in a first pass over the file
+        assertEquals(1, fileReader.readCount);
+        assertEquals("9606", participants.get(0).get(PARTICIPANT_ORGANISM.name));
+        assertEquals("10090", participants.get(2).get(PARTICIPANT_ORGANISM.name));
+    }
+
+    @Test
+    public void streamedOrganismsAreResolvedBeforeFormatting() throws Exception {
+        CountingFileReader fileReader = openFile(CSV);
+        List<Map<String, String>> participants = format(organismFormater(fileReader, true), true);
+        // the participants are written as they are formatted, so their organisms are resolved first
+        assertEquals(2, fileReader.readCount);
+        assertEquals("9606", participants.get(0).get(PARTICIPANT_ORGANISM.name));
+        assertEquals("10090", participants.get(2).get(PARTICIPANT_ORGANISM.name));
+    }
+
+    /**
+     * Formats the same file with and without streaming output, and checks that the participants written are the same.
+     *
+     * @return the participants written.
+     */
+    private List<Map<String, String>> assertSameOutputWhenStreamed(boolean binary, boolean groupUnsortedBaits)
+            throws Exception {
+        List<List<Map<String, String>>> outputs = new ArrayList<>();
+        for (boolean streamingOutput : new boolean[]{false, true}) {
+            FileFormater formater = new FileFormater(openFile(UNSORTED_CSV));
+            formater.setStreamingOutput(streamingOutput);
+            formater.setGroupUnsortedBaits(groupUnsortedBaits);
+            formater.getInteractionData().put(INTERACTION_FIGURE_LEGEND.name,
+                    ParticipantAndInteractionCreatorGui.FILE_COLUMN_PREFIX + "score");
+            outputs.add(format(formater, binary));
+        }
+        assertEquals(outputs.get(0), outputs.get(1));
+        return outputs.get(0);
+    }
+
+    private List<String> column(List<Map<String, String>> participants, String columnName) {
+        List<String> values = new ArrayList<>();
+        participants.forEach(participant -> values.add(participant.get(columnName)));
+        return values;
+    }
+
+    private FileFormater organismFormater(FileReader fileReader, boolean streamingOutput) {
+        FileFormater formater = new FileFormater(fileReader);
+        formater.setStreamingOutput(streamingOutput);
+        formater.getInteractionData().put(PARTICIPANT_ORGANISM.name + BAIT.name,
+                ParticipantAndInteractionCreatorGui.FILE_COLUMN_PREFIX + "organism");
+        return formater;
+    }
+
+    private CountingFileReader openFile(String content) throws Exception {
+        Path file = Files.writeString(tempDir.resolve("interactions.csv"), content);
+        CountingFileReader fileReader = new CountingFileReader();
+        fileReader.selectFileOpener(file.toString());
+        fileReader.readCount = 0;
+        return fileReader;
+    }
+
+    /**
+     * Formats the file, and gets the participants written.
+     */
+    private List<Map<String, String>> format(FileFormater formater, boolean binary) {
+        List<Map<String, String>> written = new ArrayList<>();
+        formater.formatAndWrite(() -> formater.formatSeparatedFormatFile(0, 1, binary, -1, -1),
+                header -> new ParticipantWriter() {
+                    @Override
+                    public void write(Map<String, String> participant) {
+                        written.add(new LinkedHashMap<>(participant));
+                    }
+
+                    @Override
+                    public void close() {
+                    }
+                });
+        return written;
+    }
+
+    private static class CountingFileReader extends FileReader {
+        private int readCount;
+
+        @Override
+        public RowIterator readFileWithSeparator() {
+            readCount++;
+            return super.readFileWithSeparator();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FileReaderTest {
+
+    private static final String TEST_FILE_PATH = "src/test/java/uk/ac/ebi/intact/psi/mi/xmlmaker/testSamples/";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void csvPreviewIsTheFirstRowsOfTheFile() {
+        assertPreview("test_sample.csv", 10);
+    }
+
+    @Test
+    public void tsvPreviewIsTheFirstRowsOfTheFile() {
+        assertPreview("test_sample.tsv", 10);
+    }
+
+    @Test
+    public void xlsxPreviewIsTheFirstRowsOfTheSheet() {
+        assertPreview("test_sample.xlsx", 10);
+    }
+
+    @Test
+    public void previewStartsAfterTheHeader() {
+        FileReader fileReader = new FileReader();
+        fileReader.selectFileOpener(TEST_FILE_PATH + "test_sample.tsv");
+        assertEquals("Experimental Preparation", fileReader.getColumns(null).get(0));
+        assertEquals("amorph ; antimorph", fileReader.getFileFirstLines(null, 1).get(0).get(0));
+    }
+
+    @Test
+    public void columnIndexIsTheFirstColumnWithTheName() throws Exception {
+        Path file = Files.writeString(tempDir.resolve("interactions.csv"), "id,name,id\nP05067,APP,x\n");
+        FileReader fileReader = new FileReader();
+        fileReader.selectFileOpener(file.toString());
+        assertColumnIndexes(fileReader);
+
+        // the same indexes from the column dictionary of the parsed session
+        fileReader.getSession();
+        assertColumnIndexes(fileReader);
+    }
+
+    @Test
+    public void columnIndexIsReadAgainWhenTheFileIsReopened() throws Exception {
+        Path file = Files.writeString(tempDir.resolve("interactions.csv"), "id,name\nP05067,APP\n");
+        FileReader fileReader = new FileReader();
+        fileReader.selectFileOpener(file.toString());
+        fileReader.getSession();
+        assertEquals(1, fileReader.getColumnIndex("name"));
+
+        Files.writeString(file, "name,organism,id\nAPP,9606,P05067\n");
+        fileReader.selectFileOpener(file.toString());
+        assertEquals(0, fileReader.getColumnIndex("name"));
+        assertEquals(2, fileReader.getColumnIndex("id"));
+    }
+
+    @Test
+    public void columnIndexIsReadFromTheSelectedSheet() {
+        FileReader fileReader = new FileReader();
+        fileReader.selectFileOpener(TEST_FILE_PATH + "test_sample.xlsx");
+        String sheet = fileReader.sheets.get(0);
+        fileReader.setSheetSelectedUpdate(sheet);
+        List<String> header = fileReader.getColumns(sheet);
+        String lastColumn = header.get(header.size() - 1);
+        assertEquals(header.indexOf(lastColumn), fileReader.getColumnIndex(lastColumn));
+        fileReader.getSession();
+        assertEquals(header.indexOf(lastColumn), fileReader.getColumnIndex(lastColumn));
+        assertEquals(-1, fileReader.getColumnIndex("missing column"));
+    }
+
+    @Test
+    public void releasedMappedFileIsStreamedAndCanBeReplaced() throws Exception {
+        Path file = Files.writeString(tempDir.resolve("interactions.csv"), "id,name\nP05067,APP\n");
+        FileReader fileReader = new FileReader();
+        fileReader.setMemoryMappedInput(true);
+        fileReader.selectFileOpener(file.toString());
+        assertTrue(fileReader.getRowStore() instanceof MappedRowStore);
+
+        fileReader.releaseMappedSession();
+        try (RowIterator rows = fileReader.readFileWithSeparator()) {
+            assertEquals(List.of("P05067", "APP"), rows.next());
+        }
+
+        Path updated = Files.writeString(tempDir.resolve("interactions.csv.tmp"), "id,name\nQ9BT38,MIDN\n");
+        Files.move(updated, file, StandardCopyOption.REPLACE_EXISTING);
+        fileReader.selectFileOpener(file.toString());
+        assertEquals(List.of("Q9BT38", "MIDN"), fileReader.getRowStore().getRow(0));
+    }
+
+    private void assertColumnIndexes(FileReader fileReader) {
+        assertEquals(0, fileReader.getColumnIndex("id"));
+        assertEquals(1, fileReader.getColumnIndex("name"));
+        assertEquals(-1, fileReader.getColumnIndex("organism"));
+    }
+
+    private void assertPreview(String fileName, int rowCount) {
+        FileReader fileReader = new FileReader();
+        fileReader.selectFileOpener(TEST_FILE_PATH + fileName);
+        String sheet = fileReader.sheets.isEmpty() ? null : fileReader.sheets.get(0);
+
+        List<List<String>> allRows = fileReader.getFileFirstLines(sheet, Integer.MAX_VALUE);
+        assertEquals(rowCount, allRows.size());
+        assertEquals(allRows.subList(0, 3), fileReader.getFileFirstLines(sheet, 3));
+        assertEquals(List.of(), fileReader.getFileFirstLines(sheet, 0));
+    }
+}
@@ -0,0 +1,90 @@
+package uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.util.DefaultTempFileCreationStrategy;
+import org.apache.poi.util.TempFile;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FileWriterTest {
+
+    private static final String[] HEADER = {"Participant ID", "Participant name"};
+    private static final int ROW_COUNT = 250;
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    public void restoreTempFiles() {
+        TempFile.setTempFileCreationStrategy(new DefaultTempFileCreationStrategy());
+    }
+
+    @Test
+    public void streamedXlsxHasAllTheRows() throws Exception {
+        Path poiTempDir = Files.createDirectory(tempDir.resolve("poi"));
+        TempFile.setTempFileCreationStrategy(new DefaultTempFileCreationStrategy(poiTempDir.toFile()));
+        FileWriter fileWriter = new FileWriter(new FileReader());
+        fileWriter.setExcelRowWindow(10);
+
+        Path output = tempDir.resolve("formatted.xlsx");
+        try (ParticipantWriter writer = fileWriter.openExcelWriter(output.toString(), HEADER, new XSSFWorkbook())) {
+            writeParticipants(writer);
+            // the rows beyond the window are flushed to temporary files
+            assertTrue(countFiles(poiTempDir) > 0);
+        }
+        assertEquals(0, countFiles(poiTempDir));
+        assertRows(output);
+    }
+
+    @Test
+    public void xlsHasAllTheRows() throws Exception {
+        FileWriter fileWriter = new FileWriter(new FileReader());
+        fileWriter.setExcelRowWindow(10);
+
+        Path output = tempDir.resolve("formatted.xls");
+        try (ParticipantWriter writer = fileWriter.openExcelWriter(output.toString(), HEADER, new HSSFWorkbook())) {
+            writeParticipants(writer);
+        }
+        assertRows(output);
+    }
+
+    private void writeParticipants(ParticipantWriter writer) throws Exception {
+        for (int i = 0; i < ROW_COUNT; i++) {
+            writer.write(Map.of("Participant ID", "P" + i, "Participant name", "name " + i));
+        }
+    }
+
+    private void assertRows(Path output) throws Exception {
+        try (Workbook workbook = WorkbookFactory.create(new File(output.toString()), null, true)) {
+            Sheet sheet = workbook.getSheet("Formatted data");
+            assertEquals(ROW_COUNT, sheet.getLastRowNum());
+            assertEquals("Participant ID", sheet.getRow(0).getCell(0).getStringCellValue());
+            for (int i = 0; i < ROW_COUNT; i++) {
+                Row row = sheet.getRow(i + 1);
+                assertEquals("P" + i, row.getCell(0).getStringCellValue());
+                assertEquals("name " + i, row.getCell(1).getStringCellValue());
+            }
+        }
+    }
+
+    private long countFiles(Path directory) throws Exception {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class IndexedRowStoreTest {
+
+    private static final List<List<String>> ROWS = List.of(
+            List.of("P05067", "APP", "9606"),
+            List.of("Q9BT38", "MIDN"),
+            List.of());
+
+    @Test
+    public void cellsAreReadByRowAndColumn() {
+        IndexedRowStore store = IndexedRowStore.load(ROWS.iterator());
+        assertEquals(3, store.size());
+        assertEquals("P05067", store.getCell(0, 0));
+        assertEquals("9606", store.getCell(0, 2));
+        assertEquals("MIDN", store.getCell(1, 1));
+    }
+
+    @Test
+    public void missingCellsAreEmpty() {
+        IndexedRowStore store = IndexedRowStore.load(ROWS.iterator());
+        // shorter rows, unknown columns and unknown rows
+        assertEquals("", store.getCell(1, 2));
+        assertEquals("", store.getCell(2, 0));
+        assertEquals("", store.getCell(0, -1));
+        assertEquals("", store.getCell(-1, 0));
+        assertEquals("", store.getCell(3, 0));
+    }
+
+    @Test
+    public void rowsAreReturnedWhole() {
+        IndexedRowStore store = IndexedRowStore.load(ROWS.iterator());
+        assertEquals(List.of("Q9BT38", "MIDN"), store.getRow(1));
+        assertEquals(List.of(), store.getRow(2));
+        assertEquals(List.of(), store.getRow(3));
+        assertEquals(List.of(), store.getRow(-1));
+    }
+
+    @Test
+    public void storeKeepsItsOwnCopyOfTheRows() {
+        List<String> row = new ArrayList<>(List.of("P05067", "APP"));
+        IndexedRowStore store = IndexedRowStore.load(List.of(row).iterator());
+        row.set(0, "changed");
+        assertEquals("P05067", store.getCell(0, 0));
+    }
+
+    @Test
+    public void missingIteratorGivesAnEmptyStore() {
+        assertEquals(0, IndexedRowStore.load(null).size());
+    }
+}
@@ -0,0 +1,72 @@
+package uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class MappedRowStoreTest {
+
+    private static final String CSV = "id,name,comment\n"
+            + "1,P05067, plain value \n"
+            + "2,\"Q9BT38\",\"quoted, with separator\"\n"
+            + "3,P27037,\"spans\nseveral\nlines\"\r\n"
+            + "4,\"P78352\",\"doubled \"\"quotes\"\" and \\\"escaped\\\" ones\"\n"
+            + "5,last,\"no line break at the end\"";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void rowsMatchFullParse() throws Exception {
+        List<List<String>> expected = new ArrayList<>();
+        try (SeparatedRowIterator iterator = new SeparatedRowIterator(new StringReader(CSV), ',')) {
+            iterator.forEachRemaining(expected::add);
+        }
+        MappedRowStore store = open(CSV, ',');
+        assertEquals(expected.get(0), store.getHeader());
+        assertEquals(expected.size() - 1, store.size());
+        // read backwards, so that no row comes from the last row kept
+        for (int i = store.size() - 1; i >= 0; i--) {
+            assertEquals(expected.get(i + 1), store.getRow(i), "row " + i);
+        }
+    }
+
+    @Test
+    public void tsvCellsAreReadByPosition() throws Exception {
+        MappedRowStore store = open("id\tname\nP05067\tAPP\nQ9BT38\tMIDN\n", '\t');
+        assertEquals(List.of("id", "name"), store.getHeader());
+        assertEquals("MIDN", store.getCell(1, 1));
+        assertEquals("P05067", store.getCell(0, 0));
+    }
+
+    @Test
+    public void missingRowsAndCellsAreEmpty() throws Exception {
+        MappedRowStore store = open("id,name\nP05067,APP\n", ',');
+        assertEquals(1, store.size());
+        assertEquals(List.of(), store.getRow(1));
+        assertEquals(List.of(), store.getRow(-1));
+        assertEquals("", store.getCell(0, 2));
+        assertEquals("", store.getCell(3, 0));
+    }
+
+    @Test
+    public void emptyFileHasNoHeaderAndNoRows() throws Exception {
+        MappedRowStore store = open("", ',');
+        assertEquals(List.of(), store.getHeader());
+        assertEquals(0, store.size());
+    }
+
+    private MappedRowStore open(String content, char separator) throws IOException {
+        Path file = Files.writeString(tempDir.resolve("interactions.txt"), content, StandardCharsets.UTF_8);
+        return MappedRowStore.open(file.toString(), separator, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,66 @@
+package uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class MatrixCellIteratorTest {
+
+    private static final List<String> HEADER = List.of("prey", "B1", "B2", "B3");
+    private static final List<List<String>> ROWS = List.of(
+            List.of("P1", "0.9", "", "x"),
+            List.of("P2", "0.1", "0.5", "0.7"),
+            List.of("P3", "1"));
+
+    @Test
+    public void cellsReachingTheThresholdArePairs() {
+        MatrixCellIterator cells = new MatrixCellIterator(ROWS.iterator(), HEADER, 1, 0, 0.5);
+        assertEquals(List.of("B1:1:P1", "B2:2:P2", "B3:2:P2", "B1:3:P3"), describe(cells));
+        assertEquals(1, cells.getBelowThresholdCellCount());
+        assertEquals(1, cells.getNonNumericCellCount());
+    }
+
+    @Test
+    public void withoutThresholdAllNonEmptyCellsArePairs() {
+        MatrixCellIterator cells = new MatrixCellIterator(ROWS.iterator(), HEADER, 1, 0, Double.NEGATIVE_INFINITY);
+        assertEquals(List.of("B1:1:P1", "B3:1:P1", "B1:2:P2", "B2:2:P2", "B3:2:P2", "B1:3:P3"), describe(cells));
+        assertEquals(0, cells.getBelowThresholdCellCount());
+        assertEquals(0, cells.getNonNumericCellCount());
+    }
+
+    @Test
+    public void preyColumnIsNeverABait() {
+        List<String> header = List.of("B1", "prey", "B2");
+        List<List<String>> rows = List.of(List.of("1", "2", "3"));
+        MatrixCellIterator cells = new MatrixCellIterator(rows.iterator(), header, 0, 1, Double.NEGATIVE_INFINITY);
+        assertEquals(List.of("B1:1:2", "B2:1:2"), describeWithPrey(cells, 1));
+    }
+
+    @Test
+    public void groupedCellsAreConsecutivePerBait() {
+        for (int rowLimit : new int[]{1, 2, 100}) {
+            MatrixCellIterator cells = new MatrixCellIterator(ROWS.iterator(), HEADER, 1, 0, 0.5);
+            try (BaitGroupingIterator groupedCells = new BaitGroupingIterator(cells, rowLimit)) {
+                assertEquals(List.of("B1:1:P1", "B1:3:P3", "B2:2:P2", "B3:2:P2"), describe(groupedCells),
+                        "row limit " + rowLimit);
+            }
+            assertEquals(1, cells.getBelowThresholdCellCount());
+            assertEquals(1, cells.getNonNumericCellCount());
+        }
+    }
+
+    private List<String> describe(Iterator<BaitGroupingIterator.IndexedRow> cells) {
+        return describeWithPrey(cells, 0);
+    }
+
+    private List<String> describeWithPrey(Iterator<BaitGroupingIterator.IndexedRow> cells, int preyColumnIndex) {
+        List<String> pairs = new ArrayList<>();
+        cells.forEachRemaining(cell ->
+                pairs.add(cell.getBait() + ":" + cell.getRowIndex() + ":" + cell.getValues().get(preyColumnIndex)));
+        return pairs;
+    }
+}
@@ -0,0 +1,73 @@
+package uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PairDeduplicatorTest {
+
+    @Test
+    public void repeatedPairIsDuplicate() {
+        for (PairDeduplicator deduplicator : deduplicators()) {
+            assertFalse(deduplicator.isDuplicate("P05067", "Q9BT38", "1"));
+            assertTrue(deduplicator.isDuplicate("P05067", "Q9BT38", "1"));
+            assertTrue(deduplicator.isDuplicate("P05067", "Q9BT38", "1"));
+            assertEquals(2, deduplicator.getDuplicateCount());
+        }
+    }
+
+    @Test
+    public void pairIsOrientedAndScoped() {
+        for (PairDeduplicator deduplicator : deduplicators()) {
+            assertFalse(deduplicator.isDuplicate("P05067", "Q9BT38", "1"));
+            assertFalse(deduplicator.isDuplicate("Q9BT38", "P05067", "1"));
+            assertFalse(deduplicator.isDuplicate("P05067", "Q9BT38", "2"));
+            assertEquals(0, deduplicator.getDuplicateCount());
+        }
+    }
+
+    @Test
+    public void valueBoundariesAreKept() {
+        for (PairDeduplicator deduplicator : deduplicators()) {
+            assertFalse(deduplicator.isDuplicate("ab", "c", ""));
+            assertFalse(deduplicator.isDuplicate("a", "bc", ""));
+            assertFalse(deduplicator.isDuplicate("a", "b", "c"));
+            assertFalse(deduplicator.isDuplicate("", "", ""));
+            assertTrue(deduplicator.isDuplicate("", "", ""));
+        }
+    }
+
+    @Test
+    public void manyPairsAreTrackedBeyondTheInitialCapacity() {
+        for (PairDeduplicator deduplicator : deduplicators()) {
+            int pairCount = 200_000;
+            for (int i = 0; i < pairCount; i++) {
+                assertFalse(deduplicator.isDuplicate("B" + i % 1000, "P" + i, "1"), "pair " + i);
+            }
+            for (int i = 0; i < pairCount; i += 7) {
+                assertTrue(deduplicator.isDuplicate("B" + i % 1000, "P" + i, "1"), "pair " + i);
+            }
+            assertEquals((pairCount + 6) / 7, deduplicator.getDuplicateCount());
+        }
+    }
+
+    @Test
+    public void hashedTableIsCappedAtTheMaxCapacity() {
+        PairDeduplicator deduplicator = PairDeduplicator.hashed(16, 64);
+        // the full table keeps accepting pairs up to 7/8 of its slots
+        for (int i = 0; i < 56; i++) {
+            assertFalse(deduplicator.isDuplicate("B", "P" + i, "1"), "pair " + i);
+        }
+        assertTrue(deduplicator.isDuplicate("B", "P0", "1"));
+        assertThrows(IllegalStateException.class, () -> deduplicator.isDuplicate("B", "P56", "1"));
+    }
+
+    private List<PairDeduplicator> deduplicators() {
+        return List.of(PairDeduplicator.exact(), PairDeduplicator.hashed());
+    }
+}
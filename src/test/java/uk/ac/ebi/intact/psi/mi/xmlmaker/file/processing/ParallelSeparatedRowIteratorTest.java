@@ -0,0 +1,63 @@
+package uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ParallelSeparatedRowIteratorTest {
+
+    private static final String CSV = "id,name,comment\n"
+            + "1,P05067, plain value \n"
+            + "2,\"Q9BT38\",\"quoted, with separator\"\n"
+            + "3,P27037,\"spans\nseveral\nlines\"\r\n"
+            + "4,\"P78352\",\"doubled \"\"quotes\"\" and \\\"escaped\\\" ones\"\n"
+            + "\n"
+            + "5,un\\\"quoted\\\\,escape,\"spans\nlines\"\n"
+            + "6,last,\"ends with a line break\n\"";
+
+    private static final String TSV = "id\tname\n1\t\"a\tb\"\n2\tc\n";
+
+    @Test
+    public void csvRowsMatchSingleThreadedParser() {
+        assertSameRows(CSV, ',');
+    }
+
+    @Test
+    public void tsvRowsMatchSingleThreadedParser() {
+        assertSameRows(TSV, '\t');
+    }
+
+    @Test
+    public void emptyInputHasNoRows() {
+        assertEquals(List.of(), parallelRows("", ',', 2, 8));
+    }
+
+    private void assertSameRows(String content, char separator) {
+        List<List<String>> expected = new ArrayList<>();
+        try (SeparatedRowIterator iterator = new SeparatedRowIterator(new StringReader(content), separator)) {
+            iterator.forEachRemaining(expected::add);
+        }
+        for (int chunkSize = 1; chunkSize <= content.length() + 1; chunkSize++) {
+            for (int parallelism = 1; parallelism <= 3; parallelism++) {
+                assertEquals(expected, parallelRows(content, separator, parallelism, chunkSize),
+                        "chunk size " + chunkSize + ", parallelism " + parallelism);
+            }
+        }
+    }
+
+    private List<List<String>> parallelRows(String content, char separator, int parallelism, int chunkSize) {
+        List<List<String>> rows = new ArrayList<>();
+        ByteArrayInputStream input = new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+        try (ParallelSeparatedRowIterator iterator = new ParallelSeparatedRowIterator(
+                input, StandardCharsets.UTF_8, separator, parallelism, chunkSize)) {
+            iterator.forEachRemaining(rows::add);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,106 @@
+package uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ParsedFileSessionTest {
+
+    private static final String CSV = "id,name,id\nP05067,APP,x\nQ9BT38,MIDN,y\n";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void sessionMatchesItsFileAndSheet() throws Exception {
+        Path file = writeFile();
+        ParsedFileSession session = load(file, "Sheet1");
+        assertTrue(session.matches(file.toString(), "Sheet1"));
+        assertFalse(session.matches(file.toString(), "Sheet2"));
+        assertFalse(session.matches(file.toString(), null));
+        assertFalse(session.matches(tempDir.resolve("other.csv").toString(), "Sheet1"));
+        assertTrue(session.isUnchanged());
+    }
+
+    @Test
+    public void modificationTimeChangeInvalidatesSession() throws Exception {
+        Path file = writeFile();
+        ParsedFileSession session = load(file, null);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() - 60_000));
+        assertTrue(session.matches(file.toString(), null));
+        assertFalse(session.isUnchanged());
+    }
+
+    @Test
+    public void sizeChangeInvalidatesSession() throws Exception {
+        Path file = writeFile();
+        ParsedFileSession session = load(file, null);
+        FileTime lastModified = Files.getLastModifiedTime(file);
+        Files.writeString(file, "P27037,ACVR2A,z\n", StandardOpenOption.APPEND);
+        // same modification time, only the size tells the change
+        Files.setLastModifiedTime(file, lastModified);
+        assertFalse(session.isUnchanged());
+    }
+
+    @Test
+    public void deletedFileInvalidatesSession() throws Exception {
+        Path file = writeFile();
+        ParsedFileSession session = load(file, null);
+        Files.delete(file);
+        assertFalse(session.isUnchanged());
+    }
+
+    @Test
+    public void columnIndexIsTheFirstColumnWithTheName() throws Exception {
+        ParsedFileSession session = load(writeFile(), null);
+        assertEquals(List.of("id", "name", "id"), session.getHeader());
+        assertEquals(0, session.getColumnIndex("id"));
+        assertEquals(1, session.getColumnIndex("name"));
+        assertEquals(-1, session.getColumnIndex("organism"));
+    }
+
+    @Test
+    public void rowIteratorReturnsCopiesOfTheRows() throws Exception {
+        ParsedFileSession session = load(writeFile(), null);
+        try (RowIterator rows = session.rowIterator()) {
+            rows.next().set(0, "changed");
+        }
+        try (RowIterator rows = session.rowIterator()) {
+            assertEquals(List.of("P05067", "APP", "x"), rows.next());
+            assertEquals(List.of("Q9BT38", "MIDN", "y"), rows.next());
+            assertFalse(rows.hasNext());
+        }
+    }
+
+    @Test
+    public void mappedSessionHasTheSameRows() throws Exception {
+        Path file = writeFile();
+        ParsedFileSession session = ParsedFileSession.map(file.toString(), ',');
+        assertEquals(List.of("id", "name", "id"), session.getHeader());
+        assertEquals(2, session.getRows().size());
+        assertEquals(List.of("Q9BT38", "MIDN", "y"), session.getRows().getRow(1));
+        assertTrue(session.matches(file.toString(), null));
+        assertTrue(session.isUnchanged());
+    }
+
+    private Path writeFile() throws IOException {
+        return Files.writeString(tempDir.resolve("interactions.csv"), CSV);
+    }
+
+    private ParsedFileSession load(Path file, String sheetName) throws IOException {
+        try (SeparatedRowIterator iterator = new SeparatedRowIterator(new StringReader(Files.readString(file)), ',')) {
+            return ParsedFileSession.load(file.toString(), sheetName, iterator);
+        }
+    }
+}
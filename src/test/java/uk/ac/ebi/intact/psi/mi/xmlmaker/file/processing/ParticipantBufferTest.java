@@ -0,0 +1,104 @@
+package uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ParticipantBufferTest {
+
+    private static final long[] MEMORY_BUDGETS = {0, 2_000, Long.MAX_VALUE};
+
+    @Test
+    public void participantsAreReadInTheOrderTheyWereAdded() {
+        List<Map<String, String>> participants = TestParticipants.create(200, 0);
+        for (long memoryBudget : MEMORY_BUDGETS) {
+            try (ParticipantBuffer buffer = fill(participants, memoryBudget)) {
+                assertEquals(200, buffer.size());
+                assertEquals(participants, read(buffer), "memory budget " + memoryBudget);
+                // a second iteration reads the same participants
+                assertEquals(participants, read(buffer), "memory budget " + memoryBudget);
+                assertEquals(participants.get(0), buffer.getFirst());
+            }
+        }
+    }
+
+    @Test
+    public void updatesReachTheSpilledParticipants() {
+        List<Map<String, String>> participants = TestParticipants.create(200, 0);
+        for (long memoryBudget : MEMORY_BUDGETS) {
+            try (ParticipantBuffer buffer = fill(participants, memoryBudget)) {
+                buffer.updateAll(participant -> participant.put("Interaction number", "0"));
+                buffer.deriveColumn("Upper name", "Participant name", value -> value == null ? "none" : value.toUpperCase());
+
+                List<Map<String, String>> expected = new ArrayList<>();
+                for (Map<String, String> participant : participants) {
+                    Map<String, String> updated = new HashMap<>(participant);
+                    updated.put("Interaction number", "0");
+                    String name = participant.get("Participant name");
+                    updated.put("Upper name", name == null ? "none" : name.toUpperCase());
+                    expected.add(updated);
+                }
+                assertEquals(expected, read(buffer), "memory budget " + memoryBudget);
+            }
+        }
+    }
+
+    @Test
+    public void nullValuesAreKept() {
+        Map<String, String> participant = new HashMap<>();
+        participant.put("Participant ID", "P05067");
+        participant.put("Participant name", null);
+        try (ParticipantBuffer buffer = fill(List.of(participant), 0)) {
+            Map<String, String> read = buffer.getFirst();
+            assertTrue(read.containsKey("Participant name"));
+            assertNull(read.get("Participant name"));
+        }
+    }
+
+    @Test
+    public void clearDeletesTheTemporaryFile() throws IOException {
+        Set<Path> spillFilesBefore = spillFiles();
+        ParticipantBuffer buffer = fill(TestParticipants.create(50, 0), 0);
+        read(buffer);
+        buffer.clear();
+        assertEquals(0, buffer.size());
+        assertTrue(buffer.isEmpty());
+        assertNull(buffer.getFirst());
+        assertEquals(spillFilesBefore, spillFiles());
+    }
+
+    private ParticipantBuffer fill(List<Map<String, String>> participants, long memoryBudget) {
+        ParticipantBuffer buffer = new ParticipantBuffer(memoryBudget);
+        for (Map<String, String> participant : participants) {
+            buffer.add(participant);
+        }
+        return buffer;
+    }
+
+    private List<Map<String, String>> read(ParticipantBuffer buffer) {
+        List<Map<String, String>> participants = new ArrayList<>();
+        buffer.forEach(participants::add);
+        return participants;
+    }
+
+    private Set<Path> spillFiles() throws IOException {
+        try (Stream<Path> files = Files.list(Paths.get(System.getProperty("java.io.tmpdir")))) {
+            return files.filter(file -> file.getFileName().toString().startsWith("xmlmaker-participants"))
+                    .collect(Collectors.toSet());
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing;
+
+import org.junit.jupiter.api.Test;
+import uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing.gui.ParticipantAndInteractionCreatorGui;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing.content.InputData.*;
+
+public class ParticipantColumnPlanTest {
+
+    private static final List<String> HEADER = List.of("bait", "prey", "organism", "type", "organism");
+    private static final List<String> ROW = List.of("P05067", "Q9BT38", "human", " ", "mouse");
+
+    @Test
+    public void constantValuesAreCopied() {
+        Map<String, String> interactionData = new HashMap<>();
+        interactionData.put(INTERACTION_TYPE.name, "physical association");
+        Map<String, String> participant = apply(interactionData, true);
+        assertEquals("physical association", participant.get(INTERACTION_TYPE.name));
+        assertNull(participant.get(INTERACTION_DETECTION_METHOD.name));
+    }
+
+    @Test
+    public void roleDependentValuesDependOnTheRole() {
+        Map<String, String> interactionData = new HashMap<>();
+        interactionData.put(PARTICIPANT_ID_DB.name + BAIT.name, "uniprotkb");
+        interactionData.put(PARTICIPANT_ID_DB.name + PREY.name, "chebi");
+        assertEquals("uniprotkb", apply(interactionData, true).get(PARTICIPANT_ID_DB.name));
+        assertEquals("chebi", apply(interactionData, false).get(PARTICIPANT_ID_DB.name));
+    }
+
+    @Test
+    public void fileColumnsAreReadFromTheRow() {
+        Map<String, String> interactionData = new HashMap<>();
+        interactionData.put(INTERACTION_FIGURE_LEGEND.name, fileColumn("prey"));
+        interactionData.put(PARTICIPANT_TYPE.name, fileColumn("type"));
+        interactionData.put(INTERACTION_TYPE.name, fileColumn("missing"));
+        Map<String, String> participant = apply(interactionData, true);
+        assertEquals("Q9BT38", participant.get(INTERACTION_FIGURE_LEGEND.name));
+        // blank cells and unknown columns give empty values
+        assertEquals("", participant.get(PARTICIPANT_TYPE.name));
+        assertEquals("", participant.get(INTERACTION_TYPE.name));
+    }
+
+    @Test
+    public void organismsAreTransformedFromTheLastColumnWithTheirName() {
+        Map<String, String> interactionData = new HashMap<>();
+        interactionData.put(HOST_ORGANISM.name, fileColumn("organism"));
+        interactionData.put(PARTICIPANT_ORGANISM.name + BAIT.name, fileColumn("organism"));
+        interactionData.put(INTERACTION_FIGURE_LEGEND.name, fileColumn("organism"));
+        Map<String, String> participant = apply(interactionData, true);
+        assertEquals("MOUSE", participant.get(HOST_ORGANISM.name));
+        assertEquals("MOUSE", participant.get(PARTICIPANT_ORGANISM.name));
+        assertEquals("mouse", participant.get(INTERACTION_FIGURE_LEGEND.name));
+    }
+
+    @Test
+    public void organismColumnsAreDistinct() {
+        Map<String, String> interactionData = new HashMap<>();
+        interactionData.put(HOST_ORGANISM.name, fileColumn("organism"));
+        interactionData.put(PARTICIPANT_ORGANISM.name + BAIT.name, fileColumn("organism"));
+        interactionData.put(PARTICIPANT_ORGANISM.name + PREY.name, fileColumn("bait"));
+        interactionData.put(INTERACTION_FIGURE_LEGEND.name, fileColumn("type"));
+        int[] organismColumns = ParticipantColumnPlan.compile(interactionData, HEADER, String::toUpperCase)
+                .getOrganismColumns();
+        assertArrayEquals(new int[]{4, 0}, organismColumns);
+    }
+
+    @Test
+    public void organismColumnNamesDependOnTheRole() {
+        Map<String, String> interactionData = new HashMap<>();
+        interactionData.put(HOST_ORGANISM.name, fileColumn("organism"));
+        interactionData.put(PARTICIPANT_ORGANISM.name + BAIT.name, fileColumn("organism"));
+        interactionData.put(PARTICIPANT_ORGANISM.name + PREY.name, "9606");
+        ParticipantColumnPlan plan = ParticipantColumnPlan.compile(interactionData, HEADER, String::toUpperCase);
+        assertEquals(List.of(HOST_ORGANISM.name, PARTICIPANT_ORGANISM.name), plan.getOrganismColumnNames(true));
+        // constant organisms are not read from the file
+        assertEquals(List.of(HOST_ORGANISM.name), plan.getOrganismColumnNames(false));
+    }
+
+    @Test
+    public void formaterColumnsAreNotFilled() {
+        Map<String, String> interactionData = new HashMap<>();
+        interactionData.put(PARTICIPANT_ID.name, "ignored");
+        interactionData.put(EXPERIMENTAL_ROLE.name, "ignored");
+        Map<String, String> participant = apply(interactionData, true);
+        assertFalse(participant.containsKey(PARTICIPANT_ID.name));
+        assertFalse(participant.containsKey(EXPERIMENTAL_ROLE.name));
+    }
+
+    private Map<String, String> apply(Map<String, String> interactionData, boolean bait) {
+        Map<String, String> participant = new HashMap<>();
+        ParticipantColumnPlan.compile(interactionData, HEADER, String::toUpperCase).apply(participant, bait, ROW);
+        return participant;
+    }
+
+    private String fileColumn(String columnName) {
+        return ParticipantAndInteractionCreatorGui.FILE_COLUMN_PREFIX + columnName;
+    }
+}
@@ -0,0 +1,103 @@
+package uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ParticipantTableTest {
+
+    @Test
+    public void participantsAreDecodedAsAdded() {
+        // more participants than the initial capacity, and more distinct identifiers than a dictionary holds
+        List<Map<String, String>> participants = TestParticipants.create(10_000, 2_000);
+        ParticipantTable table = new ParticipantTable();
+        participants.forEach(table::add);
+        assertEquals(participants.size(), table.size());
+        for (int i = 0; i < participants.size(); i++) {
+            assertEquals(participants.get(i), table.get(i), "participant " + i);
+        }
+    }
+
+    @Test
+    public void absentAndNullValuesAreDistinct() {
+        ParticipantTable table = new ParticipantTable();
+        Map<String, String> first = new HashMap<>();
+        first.put("Participant ID", "P05067");
+        table.add(first);
+        Map<String, String> second = new HashMap<>();
+        second.put("Participant ID", "Q9BT38");
+        second.put("Participant name", null);
+        table.add(second);
+
+        assertFalse(table.get(0).containsKey("Participant name"));
+        assertTrue(table.get(1).containsKey("Participant name"));
+        assertEquals(second, table.get(1));
+    }
+
+    @Test
+    public void setReplacesAllTheValues() {
+        ParticipantTable table = new ParticipantTable();
+        TestParticipants.create(5_000, 2_000).forEach(table::add);
+        Map<String, String> replacement = Map.of("Participant ID", "P99999", "Experimental role", "bait");
+        table.set(4_999, replacement);
+        table.set(0, replacement);
+        assertEquals(replacement, table.get(0));
+        assertEquals(replacement, table.get(4_999));
+        assertEquals("P1", table.get(1).get("Participant ID"));
+    }
+
+    @Test
+    public void derivationIsComputedOncePerDistinctValue() {
+        List<Map<String, String>> participants = TestParticipants.create(3_000, 2_000);
+        ParticipantTable table = new ParticipantTable();
+        participants.forEach(table::add);
+
+        AtomicInteger derivations = new AtomicInteger();
+        table.deriveColumn("Role", "Experimental role", value -> {
+            derivations.incrementAndGet();
+            return value == null ? "unknown" : value.toUpperCase();
+        });
+        // bait, prey and absent
+        assertEquals(3, derivations.get());
+        for (int i = 0; i < participants.size(); i++) {
+            String role = participants.get(i).get("Experimental role");
+            assertEquals(role == null ? "unknown" : role.toUpperCase(), table.get(i).get("Role"));
+        }
+    }
+
+    @Test
+    public void derivationFromPlainColumn() {
+        ParticipantTable table = new ParticipantTable();
+        TestParticipants.create(10_000, 2_000).forEach(table::add);
+        table.deriveColumn("Participant ID", "Participant ID", value -> value + "-1");
+        assertEquals("P42-1", table.get(42).get("Participant ID"));
+    }
+
+    @Test
+    public void repeatedValuesTakeLessMemoryThanDistinctValues() {
+        ParticipantTable repeated = new ParticipantTable();
+        ParticipantTable distinct = new ParticipantTable();
+        for (int i = 0; i < 10_000; i++) {
+            repeated.add(Map.of("Interaction detection method", "anti bait coimmunoprecipitation"));
+            distinct.add(Map.of("Interaction detection method", "anti bait coimmunoprecipitation " + i));
+        }
+        assertTrue(repeated.estimatedSize() < distinct.estimatedSize());
+        assertEquals(0, new ParticipantTable().estimatedSize());
+    }
+
+    @Test
+    public void clearRemovesAllTheParticipants() {
+        ParticipantTable table = new ParticipantTable();
+        TestParticipants.create(10, 2_000).forEach(table::add);
+        table.clear();
+        assertEquals(0, table.size());
+        assertEquals(0, table.estimatedSize());
+    }
+}
@@ -0,0 +1,93 @@
+package uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RecordBoundaryScannerTest {
+
+    @Test
+    public void quotedFieldsSpanLines() {
+        assertSameRows("id,comment\n1,\"two\nlines\"\n2,\"doubled \"\" quote\nstill quoted\"\n", ',');
+    }
+
+    @Test
+    public void escapesAreHonouredInUnquotedFields() {
+        assertSameRows("a\\\"b,c\nd,e\n", ',');
+        assertSameRows("a\\\\\"b\nc\"\nd\n", ',');
+        assertSameRows("a\\,\"b\nc\"\n", ',');
+        assertSameRows("\\\"a\nb\n", ',');
+    }
+
+    @Test
+    public void quotesInsideUnquotedFieldsAreRead() {
+        assertSameRows("ab\"c\nd\",e\nf\n", ',');
+        assertSameRows("ab\"\"c\nd\ne\n", ',');
+        assertSameRows("a,\"\"\nb,\"\"\"\n\"\n", ',');
+    }
+
+    @Test
+    public void separatorEndsTheField() {
+        assertSameRows("a\t\"b\tc\"\td\n\"e\nf\"\tg\n", '\t');
+        assertSameRows("a,\"b\",\"\"\"\nc\"\n", ',');
+    }
+
+    @Test
+    public void randomInputsAreSplitLikeTheParser() {
+        Random random = new Random(42);
+        char[] characters = {'a', ',', '"', '\\', '\n', '\r', ' '};
+        for (int i = 0; i < 20_000; i++) {
+            StringBuilder content = new StringBuilder();
+            int length = random.nextInt(12);
+            for (int j = 0; j < length; j++) {
+                content.append(characters[random.nextInt(characters.length)]);
+            }
+            List<List<String>> expected;
+            try {
+                expected = parse(content.toString(), ',');
+            } catch (RuntimeException e) {
+                // unterminated quoted field, rejected by the parser
+                continue;
+            }
+            assertEquals(expected, parseRecords(content.toString(), ','), content.toString());
+        }
+    }
+
+    private void assertSameRows(String content, char separator) {
+        assertEquals(parse(content, separator), parseRecords(content, separator));
+    }
+
+    /**
+     * Parses each record found by the scanner on its own, the way chunks and mapped records are parsed.
+     */
+    private List<List<String>> parseRecords(String content, char separator) {
+        List<List<String>> rows = new ArrayList<>();
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        RecordBoundaryScanner scanner = new RecordBoundaryScanner(separator);
+        int start = 0;
+        for (int i = 0; i < bytes.length; i++) {
+            if (scanner.isRecordEnd(bytes[i])) {
+                rows.addAll(parse(new String(bytes, start, i + 1 - start, StandardCharsets.UTF_8), separator));
+                start = i + 1;
+            }
+        }
+        if (start < bytes.length) {
+            rows.addAll(parse(new String(bytes, start, bytes.length - start, StandardCharsets.UTF_8), separator));
+        }
+        return rows;
+    }
+
+    private List<List<String>> parse(String content, char separator) {
+        List<List<String>> rows = new ArrayList<>();
+        try (SeparatedRowIterator iterator = new SeparatedRowIterator(new StringReader(content), separator)) {
+            iterator.forEachRemaining(rows::add);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,75 @@
+package uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SeparatedRowIteratorTest {
+
+    @Test
+    public void rowsAreParsedAndTrimmed() {
+        try (SeparatedRowIterator rows = new SeparatedRowIterator(
+                new StringReader("id,name\n P05067 ,\"APP, amyloid\"\nQ9BT38,\"two\nlines\"\n"), ',')) {
+            assertEquals(List.of("id", "name"), rows.next());
+            assertEquals(List.of("P05067", "APP, amyloid"), rows.next());
+            assertEquals(List.of("Q9BT38", "two\nlines"), rows.next());
+            assertFalse(rows.hasNext());
+            assertThrows(NoSuchElementException.class, rows::next);
+        }
+    }
+
+    @Test
+    public void rowsAreReadOnlyWhenRequested() {
+        EndlessReader reader = new EndlessReader("P05067\tAPP\n");
+        try (SeparatedRowIterator rows = new SeparatedRowIterator(reader, '\t')) {
+            for (int i = 0; i < 1000; i++) {
+                assertEquals(List.of("P05067", "APP"), rows.next());
+            }
+            // the content is read in small buffers as the rows are requested, never as a whole
+            assertTrue(reader.charsRead < 1_000_000, reader.charsRead + " characters read");
+        }
+        assertTrue(reader.closed);
+    }
+
+    @Test
+    public void closedIteratorHasNoRows() {
+        SeparatedRowIterator rows = new SeparatedRowIterator(new StringReader("a,b\nc,d\n"), ',');
+        assertTrue(rows.hasNext());
+        rows.close();
+        assertFalse(rows.hasNext());
+    }
+
+    /**
+     * Repeats the same line forever, so it cannot be read as a whole.
+     */
+    private static class EndlessReader extends Reader {
+        private final String line;
+        private long charsRead;
+        private boolean closed;
+
+        EndlessReader(String line) {
+            this.line = line;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            for (int i = 0; i < length; i++) {
+                buffer[offset + i] = line.charAt((int) (charsRead++ % line.length()));
+            }
+            return length;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The participants stored by the tests of the participant buffer and table.
+ */
+final class TestParticipants {
+
+    private TestParticipants() {
+    }
+
+    /**
+     * Creates participants with repeated and distinct values, absent and null values,
+     * and a name column starting after the first participants.
+     *
+     * @param count                 the number of participants.
+     * @param firstNamedParticipant the index of the first participant with a name column.
+     * @return the participants, by column name.
+     */
+    static List<Map<String, String>> create(int count, int firstNamedParticipant) {
+        List<Map<String, String>> participants = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Map<String, String> participant = new HashMap<>();
+            participant.put("Participant ID", "P" + i);
+            participant.put("Interaction number", String.valueOf(i / 3));
+            if (i % 10 != 0) {
+                participant.put("Experimental role", i % 3 == 0 ? "bait" : "prey");
+            }
+            if (i >= firstNamedParticipant) {
+                participant.put("Participant name", i % 7 == 0 ? null : "protéine " + i % 5);
+            }
+            participants.add(participant);
+        }
+        return participants;
+    }
+}
@@ -0,0 +1,79 @@
+package uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * The workbook read by the tests of the XLSX and XLS row iterators, written in either format.
+ */
+final class TestWorkbooks {
+
+    /**
+     * The rows of the "Interactions" sheet, as read by the row iterators.
+     */
+    static final List<List<String>> INTERACTION_ROWS = List.of(
+            List.of("id", "score", "bait"),
+            List.of("P05067", "1", "true"),
+            List.of("Q9BT38", "2.5", "false"),
+            List.of(),
+            List.of("", "", "P05067"),
+            List.of("formula", "3"));
+
+    /**
+     * The rows of the "Other" sheet, as read by the row iterators.
+     */
+    static final List<List<String>> OTHER_ROWS = List.of(List.of("other", "P05067"));
+
+    private TestWorkbooks() {
+    }
+
+    /**
+     * Fills the workbook with the "Interactions" and "Other" sheets and writes it to the file.
+     *
+     * @param workbook an empty workbook, of the format of the file. It is closed once written.
+     * @param file     the file to write.
+     * @return the path of the written file.
+     */
+    static String writeInteractions(Workbook workbook, Path file) throws IOException {
+        try (workbook; OutputStream output = Files.newOutputStream(file)) {
+            Sheet sheet = workbook.createSheet("Interactions");
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("id");
+            header.createCell(1).setCellValue("score");
+            header.createCell(2).setCellValue("bait");
+
+            Row first = sheet.createRow(1);
+            first.createCell(0).setCellValue("P05067");
+            first.createCell(1).setCellValue(1);
+            first.createCell(2).setCellValue(true);
+
+            Row second = sheet.createRow(2);
+            second.createCell(0).setCellValue("Q9BT38");
+            second.createCell(1).setCellValue(2.5);
+            second.createCell(2).setCellValue(false);
+
+            // row 3 is missing, and the first cells of row 4
+            sheet.createRow(4).createCell(2).setCellValue("P05067");
+
+            Row formula = sheet.createRow(5);
+            formula.createCell(0).setCellValue("formula");
+            Cell formulaCell = formula.createCell(1);
+            formulaCell.setCellFormula("1+2");
+            workbook.getCreationHelper().createFormulaEvaluator().evaluateFormulaCell(formulaCell);
+
+            Row other = workbook.createSheet("Other").createRow(0);
+            other.createCell(0).setCellValue("other");
+            other.createCell(1).setCellValue("P05067");
+            workbook.write(output);
+        }
+        return file.toString();
+    }
+}
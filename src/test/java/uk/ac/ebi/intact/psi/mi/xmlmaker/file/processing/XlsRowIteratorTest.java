@@ -0,0 +1,52 @@
+package uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class XlsRowIteratorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void sheetNamesAreInWorkbookOrder() throws Exception {
+        assertEquals(List.of("Interactions", "Other"), XlsRowIterator.readSheetNames(createWorkbook()));
+    }
+
+    @Test
+    public void rowsKeepTheirPositionInTheSheet() throws Exception {
+        assertEquals(TestWorkbooks.INTERACTION_ROWS, readRows(createWorkbook(), "Interactions"));
+    }
+
+    @Test
+    public void otherSheetIsReadOnItsOwn() throws Exception {
+        assertEquals(TestWorkbooks.OTHER_ROWS, readRows(createWorkbook(), "Other"));
+    }
+
+    @Test
+    public void unknownSheetIsRejected() throws Exception {
+        String filePath = createWorkbook();
+        assertThrows(IOException.class, () -> XlsRowIterator.open(filePath, "Missing"));
+    }
+
+    private List<List<String>> readRows(String filePath, String sheetName) throws IOException {
+        List<List<String>> rows = new ArrayList<>();
+        try (XlsRowIterator iterator = XlsRowIterator.open(filePath, sheetName)) {
+            iterator.forEachRemaining(rows::add);
+        }
+        return rows;
+    }
+
+    private String createWorkbook() throws IOException {
+        return TestWorkbooks.writeInteractions(new HSSFWorkbook(), tempDir.resolve("interactions.xls"));
+    }
+}
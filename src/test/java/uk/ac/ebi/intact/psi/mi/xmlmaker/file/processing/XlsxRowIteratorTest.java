@@ -0,0 +1,65 @@
+package uk.ac.ebi.intact.psi.mi.xmlmaker.file.processing;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class XlsxRowIteratorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void sheetNamesAreInWorkbookOrder() throws Exception {
+        assertEquals(List.of("Interactions", "Other"), XlsxRowIterator.readSheetNames(createWorkbook()));
+    }
+
+    @Test
+    public void rowsKeepTheirPositionInTheSheet() throws Exception {
+        assertEquals(TestWorkbooks.INTERACTION_ROWS, readRows(createWorkbook(), "Interactions"));
+    }
+
+    @Test
+    public void otherSheetIsReadOnItsOwn() throws Exception {
+        assertEquals(TestWorkbooks.OTHER_ROWS, readRows(createWorkbook(), "Other"));
+    }
+
+    @Test
+    public void unknownSheetIsRejected() throws Exception {
+        String filePath = createWorkbook();
+        assertThrows(IOException.class, () -> XlsxRowIterator.open(filePath, "Missing"));
+    }
+
+    @Test
+    public void sharedStringsAreReadOnDemand() throws Exception {
+        try (OPCPackage opcPackage = OPCPackage.open(createWorkbook(), PackageAccess.READ);
+             XlsxSharedStrings sharedStrings = new XlsxSharedStrings(opcPackage)) {
+            assertEquals("score", sharedStrings.getString(1));
+            assertEquals("id", sharedStrings.getString(0));
+            assertEquals("", sharedStrings.getString(1000));
+            assertEquals("", sharedStrings.getString(-1));
+        }
+    }
+
+    private List<List<String>> readRows(String filePath, String sheetName) throws IOException {
+        List<List<String>> rows = new ArrayList<>();
+        try (XlsxRowIterator iterator = XlsxRowIterator.open(filePath, sheetName)) {
+            iterator.forEachRemaining(rows::add);
+        }
+        return rows;
+    }
+
+    private String createWorkbook() throws IOException {
+        return TestWorkbooks.writeInteractions(new XSSFWorkbook(), tempDir.resolve("interactions.xlsx"));
+    }
+}
@@ -0,0 +1,58 @@
+package uk.ac.ebi.intact.psi.mi.xmlmaker.uniprot.mapping;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TokenBucketTest {
+
+    @Test
+    public void rateMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 4));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(-1, 4));
+    }
+
+    @Test
+    public void burstUpToCapacityIsNotDelayed() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(1, 4);
+        long elapsed = timeAcquires(bucket, 4);
+        assertTrue(elapsed < 500, "elapsed " + elapsed + " ms");
+    }
+
+    @Test
+    public void requestsBeyondCapacityWaitForTheRate() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(10, 2);
+        // 2 immediate tokens, then 3 more at 10 per second
+        long elapsed = timeAcquires(bucket, 5);
+        assertTrue(elapsed >= 250, "elapsed " + elapsed + " ms");
+        assertTrue(elapsed < 2_000, "elapsed " + elapsed + " ms");
+    }
+
+    @Test
+    public void capacityIsAtLeastOne() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(10, 0);
+        long elapsed = timeAcquires(bucket, 2);
+        assertTrue(elapsed >= 80, "elapsed " + elapsed + " ms");
+    }
+
+    @Test
+    public void pauseHoldsBackTheNextRequest() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(100, 4);
+        bucket.pause(200);
+        // a shorter pause does not end the longer one
+        bucket.pause(10);
+        long elapsed = timeAcquires(bucket, 1);
+        assertTrue(elapsed >= 180, "elapsed " + elapsed + " ms");
+    }
+
+    private long timeAcquires(TokenBucket bucket, int count) throws InterruptedException {
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            bucket.acquire();
+        }
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,258 @@
+package uk.ac.ebi.intact.psi.mi.xmlmaker.uniprot.mapping;
+
+import org.junit.jupiter.api.Test;
+import uk.ac.ebi.intact.psi.mi.xmlmaker.models.UniprotResult;
+
+import javax.net.ssl.SSLSession;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UniprotGeneralMapperTest {
+
+    private static final String RESULT_FIELDS = "accession,id,reviewed,protein_name,gene_names,organism_id,length,sec_acc";
+
+    @Test
+    public void uniprotIdentifiersOnlyRequestTheResultFields() {
+        UniprotGeneralMapper mapper = new UniprotGeneralMapper();
+        assertEquals(RESULT_FIELDS, mapper.buildBatchFields(null));
+        assertEquals(RESULT_FIELDS, mapper.buildBatchFields(""));
+        assertEquals(RESULT_FIELDS, mapper.buildBatchFields(" UniProtKB "));
+        assertEquals(RESULT_FIELDS, mapper.buildBatchFields("Gene name"));
+    }
+
+    @Test
+    public void otherIdentifiersAlsoRequestTheirCrossReferences() {
+        UniprotGeneralMapper mapper = new UniprotGeneralMapper();
+        assertEquals(RESULT_FIELDS + ",xref_ensembl", mapper.buildBatchFields("Ensembl"));
+        assertEquals(RESULT_FIELDS + ",xref_refseq", mapper.buildBatchFields(" RefSeq "));
+        assertEquals(RESULT_FIELDS + ",xref_geneid", mapper.buildBatchFields("GeneID"));
+    }
+
+    @Test
+    public void databaseNamesThatCannotBeFieldsRequestFullEntries() {
+        UniprotGeneralMapper mapper = new UniprotGeneralMapper();
+        assertNull(mapper.buildBatchFields("Gene ontology"));
+        assertNull(mapper.buildBatchFields("xref,sequence"));
+        assertNull(mapper.buildBatchFields("db:1"));
+    }
+
+    @Test
+    public void batchConcurrencyMustBeAtLeastOne() {
+        UniprotGeneralMapper mapper = new UniprotGeneralMapper();
+        assertThrows(IllegalArgumentException.class, () -> mapper.setBatchConcurrency(0));
+        assertEquals(UniprotGeneralMapper.DEFAULT_BATCH_CONCURRENCY, mapper.getBatchConcurrency());
+        assertThrows(IllegalArgumentException.class, () -> mapper.setRequestsPerSecond(0));
+        assertEquals(UniprotGeneralMapper.DEFAULT_REQUESTS_PER_SECOND, mapper.getRequestsPerSecond());
+    }
+
+    @Test
+    public void retryDelayIsReadFromSecondsOrHttpDate() {
+        assertEquals(30_000, UniprotGeneralMapper.getRetryDelayMillis("30", 0));
+        assertEquals(0, UniprotGeneralMapper.getRetryDelayMillis(" 0 ", 3));
+
+        String inAMinute = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC).plusSeconds(60));
+        long delayMillis = UniprotGeneralMapper.getRetryDelayMillis(inAMinute, 0);
+        // the date has a precision of one second
+        assertTrue(delayMillis > 58_000 && delayMillis <= 60_000, "delay " + delayMillis + " ms");
+
+        String aMinuteAgo = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC).minusSeconds(60));
+        assertEquals(0, UniprotGeneralMapper.getRetryDelayMillis(aMinuteAgo, 0));
+    }
+
+    @Test
+    public void retryDelayWithoutHeaderDoublesWithEachAttempt() {
+        assertEquals(1_000, UniprotGeneralMapper.getRetryDelayMillis(null, 0));
+        assertEquals(4_000, UniprotGeneralMapper.getRetryDelayMillis("", 2));
+        assertEquals(8_000, UniprotGeneralMapper.getRetryDelayMillis("soon", 3));
+        assertEquals(64_000, UniprotGeneralMapper.getRetryDelayMillis(null, 40));
+    }
+
+    @Test
+    public void retryDelayIsCapped() {
+        long maxDelayMillis = Duration.ofMinutes(2).toMillis();
+        assertEquals(maxDelayMillis, UniprotGeneralMapper.getRetryDelayMillis("86400", 0));
+        String tomorrow = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC).plusDays(1));
+        assertEquals(maxDelayMillis, UniprotGeneralMapper.getRetryDelayMillis(tomorrow, 0));
+    }
+
+    @Test
+    public void overloadedRequestIsSentAgainAfterTheRetryAfterDelay() {
+        UniprotGeneralMapper mapper = new UniprotGeneralMapper();
+        List<String> sentUrls = Collections.synchronizedList(new ArrayList<>());
+        mapper.setRequestSender(urlString -> {
+            sentUrls.add(urlString);
+            if (sentUrls.size() == 1) {
+                return response(429, Map.of("Retry-After", List.of("1")), "");
+            }
+            return response(200, Map.of(), results(entry("P05067", "APP")));
+        });
+
+        long start = System.nanoTime();
+        Map<String, ArrayList<UniprotResult>> results = mapper.fetchUniprotResultsBatch(
+                List.of(new UniprotGeneralMapper.UniprotRequest("P05067", "UniProtKB", "", "P05067")));
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(2, sentUrls.size());
+        assertEquals(sentUrls.get(0), sentUrls.get(1));
+        assertTrue(elapsed >= 900, "elapsed " + elapsed + " ms");
+        assertEquals(List.of("P05067"), accessions(results.get("P05067")));
+    }
+
+    @Test
+    public void concurrentBatchesAreMergedInTheOrderOfTheBatches() {
+        UniprotGeneralMapper mapper = new UniprotGeneralMapper();
+        CountDownLatch secondBatchSent = new CountDownLatch(1);
+        mapper.setRequestSender(urlString -> {
+            if (urlString.contains("gene_exact")) {
+                secondBatchSent.countDown();
+                return response(200, Map.of(), results(entry("Q00001", "APP")));
+            }
+            // the first batch only answers once the second one was sent, so it completes last
+            assertTrue(secondBatchSent.await(10, TimeUnit.SECONDS));
+            Thread.sleep(100);
+            return response(200, Map.of(), results(entry("P05067", "APP")));
+        });
+
+        // the same lookup key in two groups, so in two batches
+        Map<String, ArrayList<UniprotResult>> results = mapper.fetchUniprotResultsBatch(List.of(
+                new UniprotGeneralMapper.UniprotRequest("P05067", "UniProtKB", "", "APP"),
+                new UniprotGeneralMapper.UniprotRequest("APP", "gene name", "", "APP")));
+
+        assertEquals(List.of("P05067", "Q00001"), accessions(results.get("APP")));
+    }
+
+    @Test
+    public void rejectedCrossReferenceFieldIsRetriedWithFullEntries() {
+        UniprotGeneralMapper mapper = new UniprotGeneralMapper();
+        List<String> sentUrls = Collections.synchronizedList(new ArrayList<>());
+        mapper.setRequestSender(urlString -> {
+            sentUrls.add(urlString);
+            if (urlString.contains("fields=")) {
+                return response(400, Map.of(), "{\"messages\": [\"Invalid fields parameter value 'xref_ensembl'\"]}");
+            }
+            return response(200, Map.of(), results(entry("P05067", "APP").replace("}]}",
+                    "}], \"uniProtKBCrossReferences\": [{\"database\": \"Ensembl\", \"id\": \"ENST00000346798.8\"}]}")));
+        });
+
+        Map<String, ArrayList<UniprotResult>> results = mapper.fetchUniprotResultsBatch(
+                List.of(new UniprotGeneralMapper.UniprotRequest("ENST00000346798.8", "Ensembl", "9606", "ENST00000346798.8")));
+
+        assertEquals(2, sentUrls.size());
+        assertTrue(sentUrls.get(0).contains("xref_ensembl"), sentUrls.get(0));
+        assertFalse(sentUrls.get(1).contains("fields="), sentUrls.get(1));
+        assertEquals(List.of("P05067"), accessions(results.get("ENST00000346798.8")));
+    }
+
+    @Test
+    public void rejectedResultFieldsAreNotRetried() {
+        UniprotGeneralMapper mapper = new UniprotGeneralMapper();
+        List<String> sentUrls = Collections.synchronizedList(new ArrayList<>());
+        mapper.setRequestSender(urlString -> {
+            sentUrls.add(urlString);
+            return response(400, Map.of(), "{\"messages\": [\"Invalid query\"]}");
+        });
+
+        Map<String, ArrayList<UniprotResult>> results = mapper.fetchUniprotResultsBatch(
+                List.of(new UniprotGeneralMapper.UniprotRequest("P05067", "UniProtKB", "", "P05067")));
+
+        assertEquals(1, sentUrls.size());
+        assertTrue(results.get("P05067").isEmpty());
+    }
+
+    private static List<String> accessions(List<UniprotResult> results) {
+        return results.stream().map(UniprotResult::getUniprotAc).collect(Collectors.toList());
+    }
+
+    private static String entry(String accession, String geneName) {
+        return "{\"entryType\": \"UniProtKB reviewed (Swiss-Prot)\", \"primaryAccession\": \"" + accession + "\","
+                + " \"organism\": {\"taxonId\": 9606}, \"genes\": [{\"geneName\": {\"value\": \"" + geneName + "\"}}]}";
+    }
+
+    private static String results(String... entries) {
+        return "{\"results\": [" + String.join(", ", entries) + "]}";
+    }
+
+    private static HttpResponse<InputStream> response(int statusCode, Map<String, List<String>> headers, String body) {
+        return new StubResponse(statusCode, HttpHeaders.of(headers, (name, value) -> true),
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * A response returned by the request sender of the tests instead of UniProt.
+     */
+    private static class StubResponse implements HttpResponse<InputStream> {
+        private final int statusCode;
+        private final HttpHeaders headers;
+        private final InputStream body;
+
+        StubResponse(int statusCode, HttpHeaders headers, InputStream body) {
+            this.statusCode = statusCode;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        @Override
+        public int statusCode() {
+            return statusCode;
+        }
+
+        @Override
+        public HttpRequest request() {
+            return null;
+        }
+
+        @Override
+        public Optional<HttpResponse<InputStream>> previousResponse() {
+            return Optional.empty();
+        }
+
+        @Override
+        public HttpHeaders headers() {
+            return headers;
+        }
+
+        @Override
+        public InputStream body() {
+            return body;
+        }
+
+        @Override
+        public Optional<SSLSession> sslSession() {
+            return Optional.empty();
+        }
+
+        @Override
+        public URI uri() {
+            return null;
+        }
+
+        @Override
+        public HttpClient.Version version() {
+            return HttpClient.Version.HTTP_1_1;
+        }
+    }
+}
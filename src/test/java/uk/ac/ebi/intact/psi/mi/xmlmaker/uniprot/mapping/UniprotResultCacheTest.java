@@ -0,0 +1,131 @@
+package uk.ac.ebi.intact.psi.mi.xmlmaker.uniprot.mapping;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import uk.ac.ebi.intact.psi.mi.xmlmaker.models.UniprotResult;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class UniprotResultCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void cachedResultsAreReturned() {
+        UniprotResultCache cache = new UniprotResultCache(cacheFile());
+        cache.put("p05067|uniprotkb|9606", List.of(result("P05067")));
+        ArrayList<UniprotResult> results = cache.get("p05067|uniprotkb|9606");
+        assertEquals("P05067", results.get(0).getUniprotAc());
+        assertNull(cache.get("q9bt38|uniprotkb|9606"));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(0.5, cache.getHitRate());
+    }
+
+    @Test
+    public void emptyResultsAreNotCached() {
+        UniprotResultCache cache = new UniprotResultCache(cacheFile());
+        cache.put("p05067|uniprotkb|9606", List.of());
+        cache.put("q9bt38|uniprotkb|9606", null);
+        assertNull(cache.get("p05067|uniprotkb|9606"));
+        assertNull(cache.get("q9bt38|uniprotkb|9606"));
+    }
+
+    @Test
+    public void savedResultsAreReadBack() {
+        UniprotResultCache cache = new UniprotResultCache(cacheFile());
+        cache.put("p05067|uniprotkb|9606", List.of(result("P05067"), result("P05067-2")));
+        cache.save();
+
+        ArrayList<UniprotResult> results = new UniprotResultCache(cacheFile()).get("p05067|uniprotkb|9606");
+        assertEquals(2, results.size());
+        assertEquals("P05067-2", results.get(1).getUniprotAc());
+        assertEquals("Homo sapiens", results.get(1).getOrganism());
+    }
+
+    @Test
+    public void expiredResultsAreFetchedAgain() throws Exception {
+        UniprotResultCache cache = new UniprotResultCache(cacheFile());
+        cache.put("p05067|uniprotkb|9606", List.of(result("P05067")));
+        cache.save();
+        Thread.sleep(20);
+
+        cache.setTimeToLive(Duration.ofMillis(10));
+        assertNull(cache.get("p05067|uniprotkb|9606"));
+
+        UniprotResultCache reloaded = new UniprotResultCache(cacheFile());
+        reloaded.setTimeToLive(Duration.ofMillis(10));
+        assertNull(reloaded.get("p05067|uniprotkb|9606"));
+    }
+
+    @Test
+    public void zeroTimeToLiveDisablesTheCache() {
+        UniprotResultCache cache = new UniprotResultCache(cacheFile());
+        cache.setTimeToLive(Duration.ZERO);
+        cache.put("p05067|uniprotkb|9606", List.of(result("P05067")));
+        cache.save();
+        assertNull(cache.get("p05067|uniprotkb|9606"));
+        assertFalse(Files.exists(cacheFile()));
+    }
+
+    @Test
+    public void oldestResultsAreDroppedBeyondTheSizeCap() {
+        UniprotResultCache cache = new UniprotResultCache(cacheFile());
+        cache.setMaxEntries(2);
+        cache.put("a", List.of(result("A")));
+        cache.put("b", List.of(result("B")));
+        cache.put("c", List.of(result("C")));
+        // fetched again, so it is now the most recent
+        cache.put("a", List.of(result("A")));
+        cache.save();
+
+        UniprotResultCache reloaded = new UniprotResultCache(cacheFile());
+        assertNull(reloaded.get("b"));
+        assertNotNull(reloaded.get("c"));
+        assertNotNull(reloaded.get("a"));
+    }
+
+    @Test
+    public void unreadableLinesAreSkipped() throws Exception {
+        UniprotResultCache cache = new UniprotResultCache(cacheFile());
+        cache.put("p05067|uniprotkb|9606", List.of(result("P05067")));
+        cache.save();
+        Files.writeString(cacheFile(), "{not json\n", StandardOpenOption.APPEND);
+
+        UniprotResultCache reloaded = new UniprotResultCache(cacheFile());
+        assertNotNull(reloaded.get("p05067|uniprotkb|9606"));
+        // the file is written again without the unreadable line
+        reloaded.save();
+        assertEquals(1, Files.readAllLines(cacheFile()).size());
+    }
+
+    @Test
+    public void clearDeletesTheCacheFile() {
+        UniprotResultCache cache = new UniprotResultCache(cacheFile());
+        cache.put("p05067|uniprotkb|9606", List.of(result("P05067")));
+        cache.save();
+        cache.clear();
+        assertFalse(Files.exists(cacheFile()));
+        assertNull(cache.get("p05067|uniprotkb|9606"));
+    }
+
+    private Path cacheFile() {
+        return tempDir.resolve("cache").resolve("uniprot-cache.jsonl");
+    }
+
+    private UniprotResult result(String accession) {
+        return new UniprotResult(accession, "APP", "Homo sapiens", "Reviewed",
+                "https://www.uniprot.org/uniprotkb/" + accession, "uniprotkb", 770, "protein");
+    }
+}
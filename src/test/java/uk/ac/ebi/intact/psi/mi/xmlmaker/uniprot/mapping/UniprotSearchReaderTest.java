@@ -0,0 +1,210 @@
+package uk.ac.ebi.intact.psi.mi.xmlmaker.uniprot.mapping;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UniprotSearchReaderTest {
+
+    private static final String RESPONSE = json("{'facets': [{'name': 'reviewed'}], 'results': ["
+            + "{'entryType': 'UniProtKB reviewed (Swiss-Prot)', 'primaryAccession': 'P05067',"
+            + " 'secondaryAccessions': ['B2R5V1', 'B4DII8'], 'uniProtkbId': 'A4_HUMAN',"
+            + " 'entryAudit': {'firstPublicDate': '1987-08-13', 'sequenceVersion': 3}, 'annotationScore': 5.0,"
+            + " 'organism': {'scientificName': 'Homo sapiens', 'taxonId': 9606, 'lineage': ['Eukaryota', 'Metazoa']},"
+            + " 'proteinDescription': {'recommendedName': {'fullName': {'evidences': [], 'value': 'Amyloid-beta precursor protein'},"
+            + "   'ecNumbers': [{'value': '1.1'}]}, 'alternativeNames': [{'fullName': {'value': 'ABPP'}}]},"
+            + " 'genes': [{'geneName': {'value': 'APP'}, 'synonyms': [{'value': 'A4'}, {'value': 'AD1'}]}, {'geneName': {'value': 'APP2'}}],"
+            + " 'comments': [{'commentType': 'FUNCTION', 'texts': [{'value': 'Functions as a cell surface receptor'}]}],"
+            + " 'uniProtKBCrossReferences': [{'database': 'Ensembl', 'id': 'ENST00000346798.8',"
+            + "   'properties': [{'key': 'ProteinId', 'value': 'ENSP00000284981.4'}, {'key': 'GeneId', 'value': 'ENSG00000142192.22'}]},"
+            + "  {'database': 'Ensembl', 'id': 'ENST00000348990.9'}, {'database': 'PDB', 'id': '1AAP', 'properties': []}],"
+            + " 'sequence': {'value': 'MLPGLALLLLAAWTARA', 'length': 770, 'molWeight': 86943}},"
+            + "{'entryType': 'UniProtKB unreviewed (TrEMBL)', 'primaryAccession': 'A0A024R0Y4', 'uniProtkbId': 'A0A024R0Y4_HUMAN',"
+            + " 'organism': {'taxonId': 9606}, 'proteinDescription': {'submissionNames': [{'fullName': {'value': 'Submitted name'}},"
+            + "   {'fullName': {'value': 'Second submitted name'}}]},"
+            + " 'genes': [{'synonyms': [{'value': 'SYN1'}, {'value': 'SYN2'}]}, {'orfNames': [{'value': 'ORF1'}]}],"
+            + " 'sequence': {'length': 52}},"
+            + "{'entryType': 'UniProtKB unreviewed (TrEMBL)', 'primaryAccession': 'Q9BT38', 'uniProtkbId': 'Q9BT38_HUMAN',"
+            + " 'organism': {'taxonId': 10090}, 'proteinDescription': {'alternativeNames': [{'fullName': {'value': 'Alternative name'}}]},"
+            + " 'genes': [], 'sequence': {'length': 1}},"
+            + "{'entryType': 'Inactive', 'primaryAccession': 'P12345', 'inactiveReason': {'inactiveReasonType': 'DELETED'}},"
+            + "{'entryType': 'Inactive', 'primaryAccession': 'Q99999',"
+            + " 'inactiveReason': {'inactiveReasonType': 'MERGED', 'mergeDemergeTo': 'P05067'}}"
+            + "]}");
+
+    @Test
+    public void entriesMatchTheFullParse() throws IOException {
+        List<UniprotSearchReader.Entry> entries = read(RESPONSE);
+        JsonArray results = JsonParser.parseString(RESPONSE).getAsJsonObject().getAsJsonArray("results");
+        assertEquals(results.size(), entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            assertSameEntry(results.get(i).getAsJsonObject(), entries.get(i), "entry " + i);
+        }
+    }
+
+    @Test
+    public void usedFieldsAreRead() throws IOException {
+        UniprotSearchReader.Entry entry = read(RESPONSE).get(0);
+        assertEquals("UniProtKB reviewed (Swiss-Prot)", entry.entryType);
+        assertEquals("P05067", entry.primaryAccession);
+        assertEquals("A4_HUMAN", entry.uniProtkbId);
+        assertEquals("9606", entry.taxonId);
+        assertEquals(770, entry.sequenceLength);
+        assertEquals("APP", entry.primaryGeneName);
+        assertEquals("Amyloid-beta precursor protein", entry.proteinName);
+        assertEquals(List.of("APP", "A4", "AD1", "APP2"), entry.geneNames);
+        assertEquals(List.of("B2R5V1", "B4DII8"), entry.secondaryAccessions);
+        assertEquals(Set.of("enst00000346798.8", "ensp00000284981.4", "ensg00000142192.22", "enst00000348990.9"),
+                entry.crossReferences.get("ensembl"));
+        assertEquals(Set.of("1aap"), entry.crossReferences.get("pdb"));
+    }
+
+    @Test
+    public void namesFallBackInOrder() throws IOException {
+        List<UniprotSearchReader.Entry> entries = read(RESPONSE);
+        assertEquals("SYN1", entries.get(1).primaryGeneName);
+        assertEquals("Submitted name", entries.get(1).proteinName);
+        assertNull(entries.get(2).primaryGeneName);
+        assertEquals("Alternative name", entries.get(2).proteinName);
+    }
+
+    @Test
+    public void inactiveReasonIsRead() throws IOException {
+        List<UniprotSearchReader.Entry> entries = read(RESPONSE);
+        assertEquals("DELETED", entries.get(3).inactiveReasonType);
+        assertNull(entries.get(3).mergeDemergeTo);
+        assertEquals("MERGED", entries.get(4).inactiveReasonType);
+        assertEquals("P05067", entries.get(4).mergeDemergeTo);
+
+        UniprotSearchReader.Entry demerged = read(json("{'results': [{'entryType': 'Inactive', 'primaryAccession': 'Q99999',"
+                + " 'inactiveReason': {'inactiveReasonType': 'DEMERGED', 'mergeDemergeTo': ['P05067', 'Q9BT38']}}]}")).get(0);
+        assertEquals("P05067", demerged.mergeDemergeTo);
+    }
+
+    @Test
+    public void unexpectedShapesAreSkipped() throws IOException {
+        assertTrue(read(json("{'results': {'primaryAccession': 'P05067'}}")).isEmpty());
+        assertTrue(read(json("{'messages': ['nothing found']}")).isEmpty());
+
+        UniprotSearchReader.Entry entry = read(json("{'results': [{'primaryAccession': 'P05067', 'organism': null,"
+                + " 'genes': {'geneName': 'APP'}, 'proteinDescription': [], 'sequence': {}, 'secondaryAccessions': [null, 'B2R5V1']}]}"))
+                .get(0);
+        assertEquals("P05067", entry.primaryAccession);
+        assertNull(entry.taxonId);
+        assertNull(entry.primaryGeneName);
+        assertNull(entry.proteinName);
+        assertEquals(0, entry.sequenceLength);
+        assertEquals(List.of("B2R5V1"), entry.secondaryAccessions);
+    }
+
+    @Test
+    public void truncatedResponseIsRejected() {
+        assertThrows(IOException.class, () -> read("{\"results\": [{\"primaryAccession\": "));
+    }
+
+    private static List<UniprotSearchReader.Entry> read(String response) throws IOException {
+        return UniprotSearchReader.read(new StringReader(response));
+    }
+
+    private static String json(String singleQuoted) {
+        return singleQuoted.replace('\'', '"');
+    }
+
+    /**
+     * Compares an entry with the values extracted from its parsed tree, the way the whole response used to be read.
+     */
+    private static void assertSameEntry(JsonObject result, UniprotSearchReader.Entry entry, String message) {
+        assertEquals(string(result, "entryType"), entry.entryType, message);
+        assertEquals(string(result, "primaryAccession"), entry.primaryAccession, message);
+        assertEquals(string(result, "uniProtkbId"), entry.uniProtkbId, message);
+        if (result.has("organism")) {
+            assertEquals(string(result.getAsJsonObject("organism"), "taxonId"), entry.taxonId, message);
+        }
+        if (result.has("sequence")) {
+            assertEquals(result.getAsJsonObject("sequence").get("length").getAsInt(), entry.sequenceLength, message);
+        }
+        if (result.has("inactiveReason")) {
+            JsonObject inactiveReason = result.getAsJsonObject("inactiveReason");
+            assertEquals(string(inactiveReason, "inactiveReasonType"), entry.inactiveReasonType, message);
+            assertEquals(string(inactiveReason, "mergeDemergeTo"), entry.mergeDemergeTo, message);
+        }
+
+        List<String> geneNames = new ArrayList<>();
+        String primaryGeneName = null;
+        JsonArray genes = result.has("genes") ? result.getAsJsonArray("genes") : new JsonArray();
+        for (int i = 0; i < genes.size(); i++) {
+            JsonObject gene = genes.get(i).getAsJsonObject();
+            List<String> names = new ArrayList<>();
+            if (gene.has("geneName")) {
+                names.add(string(gene.getAsJsonObject("geneName"), "value"));
+            }
+            if (gene.has("synonyms")) {
+                gene.getAsJsonArray("synonyms").forEach(synonym -> names.add(string(synonym.getAsJsonObject(), "value")));
+            }
+            if (i == 0 && !names.isEmpty()) {
+                primaryGeneName = names.get(0);
+            }
+            geneNames.addAll(names);
+        }
+        assertEquals(primaryGeneName, entry.primaryGeneName, message);
+        assertEquals(geneNames, entry.geneNames, message);
+
+        String proteinName = null;
+        if (result.has("proteinDescription")) {
+            JsonObject description = result.getAsJsonObject("proteinDescription");
+            // from the least to the most preferred name, so the preferred one is kept
+            for (String nameType : new String[]{"alternativeNames", "submissionNames", "recommendedName"}) {
+                if (description.has(nameType)) {
+                    JsonElement name = description.get(nameType);
+                    JsonObject fullName = (name.isJsonArray() ? name.getAsJsonArray().get(0) : name)
+                            .getAsJsonObject().getAsJsonObject("fullName");
+                    proteinName = string(fullName, "value");
+                }
+            }
+        }
+        assertEquals(proteinName, entry.proteinName, message);
+
+        List<String> secondaryAccessions = new ArrayList<>();
+        if (result.has("secondaryAccessions")) {
+            result.getAsJsonArray("secondaryAccessions").forEach(accession -> secondaryAccessions.add(accession.getAsString()));
+        }
+        assertEquals(secondaryAccessions, entry.secondaryAccessions, message);
+
+        Map<String, Set<String>> crossReferences = new HashMap<>();
+        if (result.has("uniProtKBCrossReferences")) {
+            for (JsonElement element : result.getAsJsonArray("uniProtKBCrossReferences")) {
+                JsonObject crossReference = element.getAsJsonObject();
+                Set<String> values = crossReferences.computeIfAbsent(
+                        UniprotGeneralMapper.normalizeValue(string(crossReference, "database")), ignored -> new HashSet<>());
+                if (crossReference.has("id")) {
+                    values.add(UniprotGeneralMapper.normalizeValue(string(crossReference, "id")));
+                }
+                if (crossReference.has("properties")) {
+                    crossReference.getAsJsonArray("properties").forEach(property ->
+                            values.add(UniprotGeneralMapper.normalizeValue(string(property.getAsJsonObject(), "value"))));
+                }
+            }
+        }
+        assertEquals(crossReferences, entry.crossReferences, message);
+    }
+
+    private static String string(JsonObject object, String fieldName) {
+        return object.has(fieldName) ? object.get(fieldName).getAsString() : null;
+    }
+}
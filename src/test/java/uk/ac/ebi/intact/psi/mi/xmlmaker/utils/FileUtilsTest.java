@@ -0,0 +1,80 @@
+package uk.ac.ebi.intact.psi.mi.xmlmaker.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FileUtilsTest {
+
+    private static final String TSV = "id\tname\nP05067\tAPP\nQ9BT38\tMIDN\n";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void compressedExtensionIsSkipped() {
+        assertEquals("tsv", FileUtils.getFileExtension("data.tsv.gz"));
+        assertEquals("csv", FileUtils.getFileExtension("data.CSV.zst"));
+        assertEquals("xlsx", FileUtils.getFileExtension("data.xlsx"));
+        assertEquals("data", FileUtils.getFileName("data.tsv.xz"));
+        assertEquals("data", FileUtils.getFileName("data.tsv"));
+    }
+
+    @Test
+    public void compressionIsDetectedFromLastExtension() {
+        assertTrue(FileUtils.isCompressed("data.tsv.gz"));
+        assertTrue(FileUtils.isCompressed("data.tsv.ZST"));
+        assertTrue(FileUtils.isCompressed("data.csv.xz"));
+        assertFalse(FileUtils.isCompressed("data.tsv"));
+        assertFalse(FileUtils.isCompressed("data.gz.tsv"));
+    }
+
+    @Test
+    public void gzipRoundTrip() throws Exception {
+        Path file = roundTrip("data.tsv.gz");
+        byte[] bytes = Files.readAllBytes(file);
+        // gzip magic number
+        assertEquals((byte) 0x1f, bytes[0]);
+        assertEquals((byte) 0x8b, bytes[1]);
+    }
+
+    @Test
+    public void zstdRoundTrip() throws Exception {
+        roundTrip("data.tsv.zst");
+    }
+
+    @Test
+    public void xzRoundTrip() throws Exception {
+        roundTrip("data.tsv.xz");
+    }
+
+    @Test
+    public void uncompressedFileIsWrittenAsIs() throws Exception {
+        Path file = roundTrip("data.tsv");
+        assertEquals(TSV, Files.readString(file));
+    }
+
+    /**
+     * Writes the content with the compression of the file name, and checks that it is read back unchanged.
+     */
+    private Path roundTrip(String fileName) throws IOException {
+        Path file = tempDir.resolve(fileName);
+        try (OutputStream output = FileUtils.openOutputStream(file.toFile(), fileName)) {
+            output.write(TSV.getBytes(StandardCharsets.UTF_8));
+        }
+        try (InputStream input = FileUtils.openInputStream(file.toString())) {
+            assertEquals(TSV, new String(input.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        return file;
+    }
+}
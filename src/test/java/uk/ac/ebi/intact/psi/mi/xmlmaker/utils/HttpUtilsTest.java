@@ -0,0 +1,115 @@
+package uk.ac.ebi.intact.psi.mi.xmlmaker.utils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class HttpUtilsTest {
+
+    private static final String BODY = "{\"results\": [\"P05067\"]}";
+
+    private HttpServer server;
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/plain", exchange -> respond(exchange, null, BODY.getBytes(StandardCharsets.UTF_8)));
+        server.createContext("/gzip", exchange -> {
+            String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            if (acceptEncoding == null || !acceptEncoding.contains("gzip")) {
+                respond(exchange, null, BODY.getBytes(StandardCharsets.UTF_8));
+            } else {
+                respond(exchange, "gzip", gzip(BODY));
+            }
+        });
+        server.createContext("/corrupted", exchange -> respond(exchange, "gzip", "not gzip".getBytes(StandardCharsets.UTF_8)));
+        server.start();
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void plainTextIsRead() throws Exception {
+        HttpResponse<String> response = HttpUtils.getString(url("/plain"), "application/json");
+        assertEquals(200, response.statusCode());
+        assertEquals(BODY, response.body());
+    }
+
+    @Test
+    public void gzipTextIsDecompressed() throws Exception {
+        assertEquals(BODY, HttpUtils.getString(url("/gzip"), "application/json").body());
+    }
+
+    @Test
+    public void gzipStreamIsDecompressedOnRead() throws Exception {
+        HttpResponse<InputStream> response = HttpUtils.getStream(url("/gzip"), "application/json");
+        try (InputStream body = response.body()) {
+            assertEquals(BODY, new String(body.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        try (InputStream body = HttpUtils.getStream(url("/plain"), null).body()) {
+            assertEquals(BODY, new String(body.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void corruptedGzipTextFailsWithTheDecompressionError() {
+        // the error of the body decoding is unwrapped from the future
+        assertThrows(ZipException.class, () -> HttpUtils.getString(url("/corrupted"), null));
+    }
+
+    @Test
+    public void connectionErrorIsAnIOException() throws Exception {
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            closedPort = socket.getLocalPort();
+        }
+        IOException e = assertThrows(IOException.class,
+                () -> HttpUtils.getString("http://127.0.0.1:" + closedPort + "/plain", null));
+        // not a wrapped ExecutionException
+        assertEquals(ConnectException.class, e.getClass());
+    }
+
+    private String url(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    private static void respond(HttpExchange exchange, String encoding, byte[] body)
+            throws IOException {
+        if (encoding != null) {
+            exchange.getResponseHeaders().add("Content-Encoding", encoding);
+        }
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+
+    private static byte[] gzip(String value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream output = new GZIPOutputStream(bytes)) {
+            output.write(value.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,95 @@
+package uk.ac.ebi.intact.psi.mi.xmlmaker.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+public class OrganismTaxIdResolverTest {
+
+    private static final Map<String, String> TAX_IDS = Map.of("Homo sapiens", "9606", "Mus musculus", "10090",
+            "Saccharomyces cerevisiae", "4932");
+
+    @Test
+    public void organismsAreLookedUpConcurrently() {
+        CountDownLatch allStarted = new CountDownLatch(TAX_IDS.size());
+        OrganismTaxIdResolver resolver = new OrganismTaxIdResolver(name -> {
+            allStarted.countDown();
+            try {
+                // each lookup waits for the other ones, so they only all end if they run at the same time
+                assertTrue(allStarted.await(5, TimeUnit.SECONDS), "lookups are not concurrent");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return TAX_IDS.get(name);
+        }, name -> fail("no organism should be asked"), names -> fail("no organism should be asked"));
+
+        resolver.resolveAll(TAX_IDS.keySet(), TAX_IDS.size());
+        assertEquals(0, allStarted.getCount());
+        TAX_IDS.forEach((name, taxId) -> assertEquals(taxId, resolver.resolve(name)));
+    }
+
+    @Test
+    public void resolvedOrganismsAreCached() {
+        AtomicInteger lookupCount = new AtomicInteger();
+        OrganismTaxIdResolver resolver = new OrganismTaxIdResolver(name -> {
+            lookupCount.incrementAndGet();
+            return TAX_IDS.get(name);
+        }, name -> "1", names -> Collections.emptyMap());
+
+        resolver.resolveAll(List.of("Homo sapiens", "Mus musculus", "Homo sapiens"), 2);
+        assertEquals(2, lookupCount.get());
+        assertEquals("9606", resolver.resolve("Homo sapiens"));
+        resolver.resolveAll(List.of("Homo sapiens", "Mus musculus"), 2);
+        assertEquals(2, lookupCount.get());
+
+        assertEquals("4932", resolver.resolve("Saccharomyces cerevisiae"));
+        assertEquals("4932", resolver.resolve("Saccharomyces cerevisiae"));
+        assertEquals(3, lookupCount.get());
+    }
+
+    @Test
+    public void organismsNotFoundAreAskedInASingleDialog() {
+        List<List<String>> dialogs = new ArrayList<>();
+        OrganismTaxIdResolver resolver = new OrganismTaxIdResolver(TAX_IDS::get,
+                name -> fail("organisms should be asked together"), names -> {
+            dialogs.add(names);
+            return Map.of("Unknown one", "123");
+        });
+
+        resolver.resolveAll(List.of("Unknown one", "Homo sapiens", "Unknown two"), 4);
+        assertEquals(List.of(List.of("Unknown one", "Unknown two")), dialogs);
+        assertEquals("123", resolver.resolve("Unknown one"));
+        // left blank in the dialog, the name is kept
+        assertEquals("Unknown two", resolver.resolve("Unknown two"));
+        assertEquals(1, dialogs.size());
+    }
+
+    @Test
+    public void taxIdsAndUnsetOrganismsAreNotLookedUp() {
+        OrganismTaxIdResolver resolver = new OrganismTaxIdResolver(name -> fail("unexpected lookup of " + name),
+                name -> fail("unexpected question for " + name), names -> fail("unexpected question for " + names));
+
+        resolver.resolveAll(List.of("9606", "-1", "-2", "", "Select organism"), 4);
+        assertEquals("9606", resolver.resolve("9606"));
+        assertEquals("-2", resolver.resolve("-2"));
+        assertNull(resolver.resolve("Select organism"));
+    }
+
+    @Test
+    public void singleOrganismNotFoundIsAsked() {
+        OrganismTaxIdResolver resolver = new OrganismTaxIdResolver(name -> null, name -> "42",
+                names -> fail("a single organism is asked on its own"));
+        assertEquals("42", resolver.resolve("Unknown"));
+    }
+}